@@ -0,0 +1,42 @@
+package top.hazenix.hazeaihub.bench;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * @description: 基准测试使用的 PostgreSQL 连接
+ * 通过 -Dbench.jdbc.url / -Dbench.jdbc.username / -Dbench.jdbc.password 指定，
+ * 连接后执行 ai-server 的 db/migration 脚本，保证表结构和索引与线上一致
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public final class BenchDatabase {
+
+    public static final String URL = System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/haze-ai-hub-bench");
+    public static final String USERNAME = System.getProperty("bench.jdbc.username", "postgres");
+    public static final String PASSWORD = System.getProperty("bench.jdbc.password", "1234");
+
+    private BenchDatabase() {
+    }
+
+    /**
+     * 执行数据库迁移（与应用启动时相同的脚本）
+     */
+    public static void migrate() {
+        Flyway.configure()
+                .dataSource(URL, USERNAME, PASSWORD)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    public static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+    }
+}
@@ -0,0 +1,35 @@
+package top.hazenix.hazeaihub.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @description: benchmarks.jar 的入口：参数与 org.openjdk.jmh.Main 相同，默认附加 gc profiler（输出 gc.alloc.rate.norm 等分配指标），
+ * 并在未指定 -rf 时把结果写入 jmh-result.json，便于与上一次结果对比
+ * 运行示例：java [-Dbench.fixtures.dir=/path/to/fixtures] -jar target/benchmarks.jar [正则]（系统属性要放在 -jar 之前，fork 出的 JVM 会继承）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd).addProfiler(GCProfiler.class);
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result("jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package top.hazenix.hazeaihub.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import top.hazenix.hazeaihub.stream.ChatDeltaExtractor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 单个 chunk 解析：旧版 readTree + HashMap 对比 JsonParser 单次前向扫描
+ * 每次调用处理 fixture 中的整条流（所有 chunk），结果为"每条流"的吞吐
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatDeltaExtractorBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ChatDeltaExtractor extractor;
+    private byte[][] payloads;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        extractor = new ChatDeltaExtractor(objectMapper);
+        List<byte[]> list = Fixtures.payloads(Fixtures.DEFAULT_STREAM);
+        payloads = list.toArray(new byte[0][]);
+    }
+
+    /**
+     * 旧版路径：payload 先转 String，再 readTree，结果放进 HashMap
+     */
+    @Benchmark
+    public void legacyReadTree(Blackhole bh) {
+        for (byte[] payload : payloads) {
+            String json = new String(payload, StandardCharsets.UTF_8);
+            bh.consume(LegacyStreamParsing.parseStreamChunk(objectMapper, json));
+        }
+    }
+
+    /**
+     * 新版路径：直接在字节上用 JsonParser 提取
+     */
+    @Benchmark
+    public void streamingExtractor(Blackhole bh) {
+        for (byte[] payload : payloads) {
+            bh.consume(extractor.extract(payload, 0, payload.length));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package top.hazenix.hazeaihub.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 上下文窗口加载：按 created_at 排序取最近 N 条 vs (session_id, id DESC) 索引上的 keyset 查询
+ * 会话长度从 1k 到 100k 条消息，keyset 查询的耗时应与会话长度无关，created_at 排序需要读出并排序整个会话
+ * 需要可用的 PostgreSQL，参见 BenchDatabase；运行示例：
+ * java -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/bench -jar target/benchmarks.jar ContextWindowBenchmark
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextWindowBenchmark {
+
+    /**
+     * 旧版查询的排序方式（按 created_at），改为倒序以取到最近的消息
+     */
+    private static final String CREATED_AT_ORDER_SQL = "SELECT id, session_id, role, content, created_at FROM chat_message "
+            + "WHERE session_id = ? ORDER BY created_at DESC LIMIT ?";
+
+    /**
+     * 与 ChatMessageMapper.selectLatestBySessionId 相同的查询
+     */
+    private static final String KEYSET_SQL = "SELECT id, session_id, role, content, created_at FROM chat_message "
+            + "WHERE session_id = ? ORDER BY id DESC LIMIT ?";
+
+    @Param({"1000", "10000", "100000"})
+    private int sessionMessages;
+
+    @Param({"20"})
+    private int window;
+
+    private Connection connection;
+    private PreparedStatement createdAtOrder;
+    private PreparedStatement keyset;
+    private long sessionId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        BenchDatabase.migrate();
+        connection = BenchDatabase.connect();
+        sessionId = insertSession(connection, sessionMessages);
+        try (PreparedStatement analyze = connection.prepareStatement("ANALYZE chat_message")) {
+            analyze.execute();
+        }
+        createdAtOrder = connection.prepareStatement(CREATED_AT_ORDER_SQL);
+        keyset = connection.prepareStatement(KEYSET_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (PreparedStatement deleteMessages = connection.prepareStatement("DELETE FROM chat_message WHERE session_id = ?");
+             PreparedStatement deleteSession = connection.prepareStatement("DELETE FROM chat_session WHERE id = ?")) {
+            deleteMessages.setLong(1, sessionId);
+            deleteMessages.executeUpdate();
+            deleteSession.setLong(1, sessionId);
+            deleteSession.executeUpdate();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void createdAtOrder(Blackhole bh) throws SQLException {
+        query(createdAtOrder, bh);
+    }
+
+    @Benchmark
+    public void keysetLatest(Blackhole bh) throws SQLException {
+        query(keyset, bh);
+    }
+
+    private void query(PreparedStatement statement, Blackhole bh) throws SQLException {
+        statement.setLong(1, sessionId);
+        statement.setInt(2, window);
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getLong(1));
+                bh.consume(rs.getString(4));
+            }
+        }
+    }
+
+    /**
+     * 创建一个会话并写入 messages 条消息（user / assistant 交替）
+     */
+    static long insertSession(Connection connection, int messages) throws SQLException {
+        long id;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO chat_session (user_id, type, title) VALUES (0, 'chat', 'bench') RETURNING id")) {
+            try (ResultSet rs = insert.executeQuery()) {
+                rs.next();
+                id = rs.getLong(1);
+            }
+        }
+        LocalDateTime start = LocalDateTime.now().minusSeconds(messages);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO chat_message (session_id, role, content, created_at) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < messages; i++) {
+                insert.setLong(1, id);
+                insert.setString(2, i % 2 == 0 ? "user" : "assistant");
+                insert.setString(3, (i % 2 == 0 ? "问题 " : "回答 ") + i);
+                insert.setTimestamp(4, Timestamp.valueOf(start.plusSeconds(i)));
+                insert.addBatch();
+                if ((i + 1) % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,83 @@
+package top.hazenix.hazeaihub.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.json.JacksonObjectMapper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 实体 JSON 往返：历史消息列表经 JacksonObjectMapper（与 MVC 消息转换器相同的配置）序列化再反序列化
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityJsonBenchmark {
+
+    private static final TypeReference<List<ChatMessage>> MESSAGE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"20"})
+    private int messages;
+
+    private ObjectMapper objectMapper;
+    private List<ChatMessage> history;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new JacksonObjectMapper();
+        LocalDateTime start = LocalDateTime.of(2026, 10, 18, 12, 0);
+        history = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            boolean user = i % 2 == 0;
+            history.add(ChatMessage.builder()
+                    .id((long) i + 1)
+                    .sessionId(1L)
+                    .role(user ? "user" : "assistant")
+                    .content((user ? "问题：" : "回答：") + "这是一段用于基准测试的消息内容，".repeat(8))
+                    .metadataJson(user ? null : Map.of("model", "deepseek-r1", "enable_thinking", true))
+                    .createdAt(start.plusSeconds(i))
+                    .build());
+        }
+        json = objectMapper.writeValueAsBytes(history);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(history);
+    }
+
+    @Benchmark
+    public List<ChatMessage> deserialize() throws IOException {
+        return objectMapper.readValue(json, MESSAGE_LIST);
+    }
+
+    @Benchmark
+    public List<ChatMessage> roundTrip() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(history), MESSAGE_LIST);
+    }
+}
@@ -0,0 +1,65 @@
+package top.hazenix.hazeaihub.bench;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import top.hazenix.hazeaihub.stream.SseEventDecoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @description: 基准测试数据加载
+ * 默认从 classpath 的 fixtures/ 目录读取；指定 -Dbench.fixtures.dir=/path 时从磁盘目录读取，
+ * 便于替换为线上抓取的 DashScope 原始 SSE 流
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public final class Fixtures {
+
+    public static final String DEFAULT_STREAM = "dashscope-deepseek-r1.sse";
+
+    private Fixtures() {
+    }
+
+    /**
+     * 读取原始 SSE 字节流
+     */
+    public static byte[] load(String name) {
+        String dir = System.getProperty("bench.fixtures.dir");
+        try {
+            if (dir != null) {
+                return Files.readAllBytes(Path.of(dir, name));
+            }
+            try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("fixture 不存在: " + name);
+                }
+                return in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 读取 SSE 流中所有 data 负载（不含 [DONE]）
+     */
+    public static List<byte[]> payloads(String name) {
+        List<byte[]> payloads = new ArrayList<>();
+        SseEventDecoder.PayloadHandler handler = (buf, offset, length) -> {
+            if (!SseEventDecoder.isDone(buf, offset, length)) {
+                payloads.add(Arrays.copyOfRange(buf, offset, offset + length));
+            }
+        };
+        SseEventDecoder decoder = new SseEventDecoder();
+        decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(load(name)), handler);
+        decoder.flush(handler);
+        return payloads;
+    }
+}
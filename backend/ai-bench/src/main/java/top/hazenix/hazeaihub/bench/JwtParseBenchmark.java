@@ -0,0 +1,68 @@
+package top.hazenix.hazeaihub.bench;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.hazenix.hazeaihub.constant.JwtClaimsConstant;
+import top.hazenix.hazeaihub.interceptor.JwtVerifier;
+import top.hazenix.hazeaihub.properties.JwtProperties;
+import top.hazenix.hazeaihub.utils.JwtUtil;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 每个请求在拦截器中执行的 JWT 校验
+ * parseJWT：原实现（JwtUtil.parseJWT，每次重建解析器和密钥，HMAC 验签 + claims 反序列化）；
+ * verifierParse：JwtVerifier 预先构建的解析器（未命中缓存的路径）；verifierCached：JwtVerifier 命中已校验令牌缓存
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET_KEY = "haze-ai-hub-bench-secret";
+
+    private String token;
+    private JwtVerifier verifier;
+
+    @Setup
+    public void setup() {
+        token = JwtUtil.createJWT(SECRET_KEY, TimeUnit.HOURS.toMillis(2), Map.of(JwtClaimsConstant.USER_ID, 10001L));
+        JwtProperties properties = new JwtProperties();
+        properties.setUserSecretKey(SECRET_KEY);
+        verifier = new JwtVerifier(properties, new SimpleMeterRegistry());
+        verifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims parseJWT() {
+        return JwtUtil.parseJWT(SECRET_KEY, token);
+    }
+
+    @Benchmark
+    public Claims verifierParse() {
+        return verifier.parse(token);
+    }
+
+    @Benchmark
+    public Long verifierCached() {
+        // 请求头里取到的令牌每次都是新的 String，hashCode 需要重新计算
+        return verifier.verify(new String(token));
+    }
+}
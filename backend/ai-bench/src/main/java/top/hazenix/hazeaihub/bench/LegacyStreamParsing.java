@@ -0,0 +1,131 @@
+package top.hazenix.hazeaihub.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description: 旧版流式解析逻辑的原样拷贝，仅作为基准测试的对照组
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public final class LegacyStreamParsing {
+
+    private LegacyStreamParsing() {
+    }
+
+    /**
+     * 旧版 SSE 处理：每个 buffer 转 String，按正则拆行，过滤 data: 行并截取 JSON
+     * 跨 buffer 的半行会被拆坏，这里只用来对比开销
+     */
+    public static List<String> splitLines(byte[] buffer) {
+        String content = new String(buffer, StandardCharsets.UTF_8);
+        String[] lines = content.split("\\r?\\n");
+        List<String> jsons = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isEmpty() || !line.startsWith("data: ") || line.contains("[DONE]")) {
+                continue;
+            }
+            String json = line.substring(6).trim();
+            if (!json.isEmpty()) {
+                jsons.add(json);
+            }
+        }
+        return jsons;
+    }
+
+    /**
+     * 旧版 ChatController.chatWithThinkingText 中 Map 片段到文本的映射
+     */
+    public static String frameText(Map<String, String> chunk, AtomicBoolean thinkingStarted) {
+        String type = chunk.get("type");
+        String content = chunk.get("content");
+
+        if ("thinking".equals(type)) {
+            if (thinkingStarted.compareAndSet(false, true)) {
+                return "<think>" + content;
+            }
+            return content;
+        } else if ("answer".equals(type)) {
+            if (thinkingStarted.getAndSet(false)) {
+                return "</think>" + content;
+            }
+            return content;
+        }
+        return "";
+    }
+
+    /**
+     * 旧版 BailianThinkingServiceProImpl.parseStreamChunk：readTree 构建整棵树后再取字段
+     */
+    public static Map<String, String> parseStreamChunk(ObjectMapper objectMapper, String json) {
+        try {
+            if (json == null || json.trim().isEmpty()) {
+                return null;
+            }
+
+            JsonNode root = objectMapper.readTree(json);
+            JsonNode choices = root.path("choices");
+
+            if (!choices.isArray() || choices.size() == 0) {
+                return null;
+            }
+
+            JsonNode delta = choices.get(0).path("delta");
+            if (delta.isMissingNode() || delta.isEmpty()) {
+                return null;
+            }
+
+            String reasoningContent = null;
+            if (delta.has("reasoning_content") && !delta.get("reasoning_content").isNull()) {
+                String rc = delta.get("reasoning_content").asText();
+                if (rc != null && !rc.isEmpty() && !rc.equals("null")) {
+                    reasoningContent = rc;
+                }
+            }
+
+            String reasoning = null;
+            if (delta.has("reasoning") && !delta.get("reasoning").isNull()) {
+                String r = delta.get("reasoning").asText();
+                if (r != null && !r.isEmpty() && !r.equals("null")) {
+                    reasoning = r;
+                }
+            }
+
+            String content = null;
+            if (delta.has("content") && !delta.get("content").isNull()) {
+                String c = delta.get("content").asText();
+                if (c != null && !c.isEmpty() && !c.equals("null")) {
+                    content = c;
+                }
+            }
+
+            Map<String, String> result = new HashMap<>();
+            if (content != null) {
+                result.put("type", "answer");
+                result.put("content", content);
+                return result;
+            }
+            if (reasoningContent != null) {
+                result.put("type", "thinking");
+                result.put("content", reasoningContent);
+                return result;
+            }
+            if (reasoning != null) {
+                result.put("type", "thinking");
+                result.put("content", reasoning);
+                return result;
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return null;
+    }
+}
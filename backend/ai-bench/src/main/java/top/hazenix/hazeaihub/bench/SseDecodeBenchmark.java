@@ -0,0 +1,67 @@
+package top.hazenix.hazeaihub.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import top.hazenix.hazeaihub.stream.SseEventDecoder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: SSE 拆行：旧版 String + 正则 split 对比 SseEventDecoder 增量解码
+ * fixture 按 bufferSize 切成若干个网络 buffer 依次喂入，每次调用处理整条流
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SseDecodeBenchmark {
+
+    @Param({"256", "8192"})
+    private int bufferSize;
+
+    private byte[][] buffers;
+
+    @Setup
+    public void setup() {
+        byte[] stream = Fixtures.load(Fixtures.DEFAULT_STREAM);
+        int count = (stream.length + bufferSize - 1) / bufferSize;
+        buffers = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            buffers[i] = Arrays.copyOfRange(stream, i * bufferSize, Math.min(stream.length, (i + 1) * bufferSize));
+        }
+    }
+
+    @Benchmark
+    public void legacySplit(Blackhole bh) {
+        for (byte[] buffer : buffers) {
+            bh.consume(LegacyStreamParsing.splitLines(buffer));
+        }
+    }
+
+    @Benchmark
+    public void incrementalDecoder(Blackhole bh) {
+        SseEventDecoder decoder = new SseEventDecoder();
+        SseEventDecoder.PayloadHandler handler = (buf, offset, length) -> bh.consume(length);
+        for (byte[] buffer : buffers) {
+            decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(buffer), handler);
+        }
+        decoder.flush(handler);
+    }
+}
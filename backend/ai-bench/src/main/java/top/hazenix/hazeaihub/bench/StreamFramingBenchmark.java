@@ -0,0 +1,89 @@
+package top.hazenix.hazeaihub.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import top.hazenix.hazeaihub.stream.ChatDelta;
+import top.hazenix.hazeaihub.stream.ChatDeltaExtractor;
+import top.hazenix.hazeaihub.stream.StreamEvent;
+import top.hazenix.hazeaihub.stream.ThinkingTextFramer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description: 事件到响应帧的映射：chat-with-thinking-text 的文本帧（旧版 Map + AtomicBoolean 对比 ThinkingTextFramer）
+ * 以及 chat-with-thinking 的 NDJSON 帧（StreamEventSerializer）；事件来自 fixture 的整条流
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamFramingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private StreamEvent[] events;
+    private List<Map<String, String>> legacyChunks;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        ChatDeltaExtractor extractor = new ChatDeltaExtractor(objectMapper);
+        List<StreamEvent> list = new ArrayList<>();
+        legacyChunks = new ArrayList<>();
+        for (byte[] payload : Fixtures.payloads(Fixtures.DEFAULT_STREAM)) {
+            ChatDelta delta = extractor.extract(payload, 0, payload.length);
+            if (delta != null) {
+                list.addAll(StreamEvent.from(delta));
+            }
+            Map<String, String> chunk = LegacyStreamParsing.parseStreamChunk(objectMapper,
+                    new String(payload, StandardCharsets.UTF_8));
+            if (chunk != null) {
+                legacyChunks.add(chunk);
+            }
+        }
+        events = list.toArray(new StreamEvent[0]);
+    }
+
+    @Benchmark
+    public void legacyTextFrames(Blackhole bh) {
+        AtomicBoolean thinkingStarted = new AtomicBoolean(false);
+        for (Map<String, String> chunk : legacyChunks) {
+            bh.consume(LegacyStreamParsing.frameText(chunk, thinkingStarted));
+        }
+    }
+
+    @Benchmark
+    public void textFrames(Blackhole bh) {
+        ThinkingTextFramer framer = new ThinkingTextFramer();
+        for (StreamEvent event : events) {
+            bh.consume(framer.frame(event));
+        }
+    }
+
+    @Benchmark
+    public void ndjsonFrames(Blackhole bh) throws JsonProcessingException {
+        for (StreamEvent event : events) {
+            bh.consume(objectMapper.writeValueAsBytes(event));
+        }
+    }
+}
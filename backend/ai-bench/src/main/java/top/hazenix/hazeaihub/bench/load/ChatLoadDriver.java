@@ -0,0 +1,170 @@
+package top.hazenix.hazeaihub.bench.load;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 流式接口压测：以 concurrency 个并发连接发起共 streams 次 POST /api/v1/ai/chat-with-thinking-text，
+ * 记录每个流的首字节时间（TTFT）和总耗时，输出 p50/p90/p99 TTFT、p50/p99 总耗时、成功/失败数和持续吞吐（流/秒）
+ * 独立运行：java -cp target/benchmarks.jar top.hazenix.hazeaihub.bench.load.ChatLoadDriver
+ * 参数：-Dload.base-url（默认 http://localhost:8080）、-Dload.concurrency、-Dload.streams、-Dload.token、
+ * -Dload.token-header（默认 authentication）、-Dload.prompt、-Dload.chat-id
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public final class ChatLoadDriver {
+
+    private static final String ENDPOINT = "/api/v1/ai/chat-with-thinking-text";
+
+    private final Options options;
+
+    public ChatLoadDriver(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        System.out.println(new ChatLoadDriver(Options.fromSystemProperties()).run());
+    }
+
+    public Report run() {
+        ConnectionProvider provider = ConnectionProvider.builder("load-driver")
+                .maxConnections(options.concurrency())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(5))
+                .build();
+        HttpClient client = HttpClient.create(provider)
+                .baseUrl(options.baseUrl())
+                .headers(headers -> {
+                    if (options.token() != null) {
+                        headers.set(options.tokenHeader(), options.token());
+                    }
+                });
+        String uri = ENDPOINT + "?prompt=" + URLEncoder.encode(options.prompt(), StandardCharsets.UTF_8)
+                + (options.chatId() == null ? "" : "&chatId=" + options.chatId());
+
+        int streams = options.streams();
+        long[] ttft = new long[streams];
+        long[] duration = new long[streams];
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+
+        long start = System.nanoTime();
+        try {
+            Flux.range(0, streams)
+                    .flatMap(i -> stream(client, uri, i, ttft, duration, failed, inFlight, peakInFlight, bytes),
+                            options.concurrency())
+                    .blockLast();
+        } finally {
+            provider.disposeLater().block();
+        }
+        long wallNanos = System.nanoTime() - start;
+        return Report.of(ttft, duration, failed.get(), peakInFlight.get(), bytes.get(), wallNanos);
+    }
+
+    private Mono<Void> stream(HttpClient client, String uri, int index, long[] ttft, long[] duration,
+                              AtomicInteger failed, AtomicInteger inFlight, AtomicInteger peakInFlight, AtomicLong bytes) {
+        return Mono.defer(() -> {
+            long begin = System.nanoTime();
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return client.post()
+                    .uri(uri)
+                    .response((response, body) -> {
+                        if (!HttpResponseStatus.OK.equals(response.status())) {
+                            return Flux.error(new IllegalStateException("HTTP " + response.status().code()));
+                        }
+                        return body.asByteArray();
+                    })
+                    .doOnNext(chunk -> {
+                        if (ttft[index] == 0 && chunk.length > 0) {
+                            ttft[index] = System.nanoTime() - begin;
+                        }
+                        bytes.addAndGet(chunk.length);
+                    })
+                    .then()
+                    .doOnSuccess(v -> duration[index] = System.nanoTime() - begin)
+                    .onErrorResume(e -> {
+                        failed.incrementAndGet();
+                        ttft[index] = 0;
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    /**
+     * 压测参数
+     * @param baseUrl 应用地址
+     * @param concurrency 并发流数
+     * @param streams 总请求数
+     * @param token JWT，为空时不带认证头
+     * @param tokenHeader JWT 所在的请求头
+     * @param prompt 用户输入
+     * @param chatId 会话ID（可选）
+     */
+    public record Options(String baseUrl, int concurrency, int streams, String token, String tokenHeader,
+                          String prompt, String chatId) {
+
+        public static Options fromSystemProperties() {
+            return new Options(
+                    System.getProperty("load.base-url", "http://localhost:8080"),
+                    Integer.getInteger("load.concurrency", 1000),
+                    Integer.getInteger("load.streams", 5000),
+                    System.getProperty("load.token"),
+                    System.getProperty("load.token-header", "authentication"),
+                    System.getProperty("load.prompt", "你好，请简单介绍一下你自己"),
+                    System.getProperty("load.chat-id"));
+        }
+    }
+
+    /**
+     * 压测结果，时间单位为毫秒
+     */
+    public record Report(int streams, int succeeded, int failed, int peakConcurrency,
+                         double ttftP50, double ttftP90, double ttftP99,
+                         double durationP50, double durationP99,
+                         double streamsPerSecond, double megabytes, double wallSeconds) {
+
+        static Report of(long[] ttft, long[] duration, int failed, int peak, long bytes, long wallNanos) {
+            long[] okTtft = Arrays.stream(ttft).filter(v -> v > 0).sorted().toArray();
+            long[] okDuration = Arrays.stream(duration).filter(v -> v > 0).sorted().toArray();
+            double wallSeconds = wallNanos / 1e9;
+            return new Report(ttft.length, okDuration.length, failed, peak,
+                    percentile(okTtft, 0.50), percentile(okTtft, 0.90), percentile(okTtft, 0.99),
+                    percentile(okDuration, 0.50), percentile(okDuration, 0.99),
+                    okDuration.length / wallSeconds, bytes / 1024.0 / 1024.0, wallSeconds);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("""
+                    streams=%d succeeded=%d failed=%d peakConcurrency=%d
+                    TTFT(ms)     p50=%.1f p90=%.1f p99=%.1f
+                    duration(ms) p50=%.1f p99=%.1f
+                    sustained=%.1f streams/s, received=%.1f MB in %.1f s""",
+                    streams, succeeded, failed, peakConcurrency,
+                    ttftP50, ttftP90, ttftP99, durationP50, durationP99,
+                    streamsPerSecond, megabytes, wallSeconds);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package top.hazenix.hazeaihub.bench.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import top.hazenix.hazeaihub.AiServerApplication;
+import top.hazenix.hazeaihub.constant.JwtClaimsConstant;
+import top.hazenix.hazeaihub.utils.JwtUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 单进程全链路压测：嵌入式 PostgreSQL + 本地 DashScope 模拟服务 + ai-server 应用 + ChatLoadDriver
+ * 应用通过 ai.dashscope.base-url 指向模拟服务，Flyway 在嵌入式库上建表；默认创建一个会话，所有请求带该 chatId，
+ * 覆盖上下文加载和异步落库路径（-Dload.chat-id=none 时不带会话）；-Dload.profile=reactive 时应用以 WebFlux + R2DBC 栈启动，用于 A/B 对比
+ * 运行：java -Dload.concurrency=2000 -Dload.streams=10000 -Dmock.tokens-per-second=30 \
+ *       -cp target/benchmarks.jar top.hazenix.hazeaihub.bench.load.FullStackLoadTest
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public final class FullStackLoadTest {
+
+    private static final String JWT_SECRET = "haze-ai-hub-load-test";
+    private static final String TOKEN_HEADER = "authentication";
+    private static final long USER_ID = 1L;
+
+    private FullStackLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             MockDashScopeServer mock = new MockDashScopeServer(MockDashScopeServer.Options.fromSystemProperties()).start()) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("server.port", "0");
+            properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            properties.put("spring.datasource.username", "postgres");
+            properties.put("spring.datasource.password", "postgres");
+            properties.put("ai.bailian.api-key", "mock");
+            properties.put("ai.dashscope.base-url", "http://localhost:" + mock.port() + "/v1");
+            properties.put("ai.jwt.user-secret-key", JWT_SECRET);
+            properties.put("ai.jwt.user-ttl", String.valueOf(TimeUnit.HOURS.toMillis(2)));
+            properties.put("ai.jwt.user-token-name", TOKEN_HEADER);
+            properties.put("logging.level.top.hazenix.hazeaihub", "warn");
+            String profile = System.getProperty("load.profile");
+            if (profile != null) {
+                properties.put("spring.profiles.active", profile);
+                properties.put("spring.r2dbc.url", "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+                properties.put("spring.r2dbc.username", "postgres");
+                properties.put("spring.r2dbc.password", "postgres");
+            }
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(AiServerApplication.class)
+                    .properties(properties)
+                    .run(args);
+            try {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                String chatId = System.getProperty("load.chat-id");
+                if (chatId == null) {
+                    chatId = String.valueOf(createSession(postgres));
+                } else if ("none".equals(chatId)) {
+                    chatId = null;
+                }
+                String token = JwtUtil.createJWT(JWT_SECRET, TimeUnit.HOURS.toMillis(2), Map.of(JwtClaimsConstant.USER_ID, USER_ID));
+                ChatLoadDriver.Options defaults = ChatLoadDriver.Options.fromSystemProperties();
+                ChatLoadDriver.Options options = new ChatLoadDriver.Options("http://localhost:" + port,
+                        defaults.concurrency(), defaults.streams(), token, TOKEN_HEADER, defaults.prompt(), chatId);
+
+                ChatLoadDriver.Report report = new ChatLoadDriver(options).run();
+                System.out.println(report);
+                System.out.printf("mock: requests=%d injectedErrors=%d%n", mock.requests(), mock.injectedErrors());
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    private static long createSession(EmbeddedPostgres postgres) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO chat_session (user_id, type, title) VALUES (?, 'chat', 'load-test') RETURNING id")) {
+            insert.setLong(1, USER_ID);
+            try (ResultSet rs = insert.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package top.hazenix.hazeaihub.bench.load;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 本地 DashScope 模拟服务：OpenAI 兼容的 POST .../chat/completions（stream=true），按 SSE 返回
+ * 先输出 reasoningTokens 个 reasoning_content 片段，再输出 answerTokens 个 content 片段，速度为 tokensPerSecond；
+ * 请求带 stream_options.include_usage 时在 finish_reason 之后追加 usage 帧，最后是 [DONE]。
+ * 可选：按随机字节数拆分网络写入（fragmentBytes），按比例注入错误（一半直接返回 500，一半在流中途断开连接）
+ * 独立运行：java -cp target/benchmarks.jar top.hazenix.hazeaihub.bench.load.MockDashScopeServer
+ * 参数通过 -Dmock.port / -Dmock.tokens-per-second / -Dmock.reasoning-tokens / -Dmock.answer-tokens /
+ * -Dmock.first-token-delay-ms / -Dmock.fragment-bytes / -Dmock.error-rate 指定；应用侧配置 ai.dashscope.base-url=http://host:port/v1
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public final class MockDashScopeServer implements AutoCloseable {
+
+    private static final String[] REASONING_TOKENS = {"嗯，", "用户", "想", "了解", "这个", "问题", "，", "我", "需要", "先", "分析", "一下", "。"};
+    private static final String[] ANSWER_TOKENS = {"根据", "上面", "的", "分析", "，", "答案", "是", "这样", "的", "：", "首先", "……", "\\n"};
+
+    private final Options options;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private DisposableServer server;
+
+    public MockDashScopeServer(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        Options options = Options.fromSystemProperties();
+        MockDashScopeServer mock = new MockDashScopeServer(options).start();
+        System.out.printf("Mock DashScope 已启动: http://localhost:%d/v1 %s%n", mock.port(), options);
+        mock.server.onDispose().block();
+    }
+
+    public MockDashScopeServer start() {
+        server = HttpServer.create()
+                .port(options.port())
+                .handle((request, response) -> isChatCompletions(request)
+                        ? handle(request, response)
+                        : response.status(HttpResponseStatus.NOT_FOUND).send().then())
+                .bindNow();
+        return this;
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private static boolean isChatCompletions(HttpServerRequest request) {
+        String uri = request.uri();
+        int query = uri.indexOf('?');
+        String path = query < 0 ? uri : uri.substring(0, query);
+        return request.method().name().equals("POST") && path.endsWith("/chat/completions");
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8).defaultIfEmpty("")
+                .flatMap(body -> {
+                    requests.incrementAndGet();
+                    boolean includeUsage = body.replace(" ", "").contains("\"include_usage\":true");
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    boolean fail = random.nextDouble() < options.errorRate();
+                    if (fail && random.nextBoolean()) {
+                        injectedErrors.incrementAndGet();
+                        return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR)
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.just("{\"error\":{\"message\":\"mock injected error\",\"type\":\"internal_error\"}}"))
+                                .then();
+                    }
+                    Flux<byte[]> frames = fragment(stream(includeUsage, fail));
+                    return response.header(HttpHeaderNames.CONTENT_TYPE, "text/event-stream;charset=UTF-8")
+                            .sendByteArray(frames)
+                            .then();
+                });
+    }
+
+    /**
+     * 按节奏生成 SSE 帧；abort 为 true 时在回答阶段中途以错误结束，连接被直接断开
+     */
+    private Flux<byte[]> stream(boolean includeUsage, boolean abort) {
+        int reasoning = options.reasoningTokens();
+        int answer = options.answerTokens();
+        long created = System.currentTimeMillis() / 1000;
+        String id = "chatcmpl-mock-" + requests.get();
+        Duration period = Duration.ofNanos(1_000_000_000L / Math.max(1, options.tokensPerSecond()));
+
+        Flux<byte[]> tokens = Flux.interval(Duration.ofMillis(options.firstTokenDelayMs()), period)
+                .take(reasoning + answer)
+                .map(i -> {
+                    int n = i.intValue();
+                    return n < reasoning
+                            ? frame(chunk(id, created, null, REASONING_TOKENS[n % REASONING_TOKENS.length], null))
+                            : frame(chunk(id, created, ANSWER_TOKENS[(n - reasoning) % ANSWER_TOKENS.length], null, null));
+                });
+        if (abort) {
+            injectedErrors.incrementAndGet();
+            return tokens.take(reasoning + answer / 2)
+                    .concatWith(Flux.error(new IllegalStateException("mock injected stream abort")));
+        }
+
+        List<byte[]> tail = new ArrayList<>(3);
+        tail.add(frame(chunk(id, created, "", null, "stop")));
+        if (includeUsage) {
+            tail.add(frame("{\"choices\":[],\"object\":\"chat.completion.chunk\",\"usage\":{\"prompt_tokens\":32,"
+                    + "\"completion_tokens\":" + (reasoning + answer) + ",\"total_tokens\":" + (32 + reasoning + answer)
+                    + "},\"created\":" + created + ",\"model\":\"deepseek-r1\",\"id\":\"" + id + "\"}"));
+        }
+        tail.add(frame("[DONE]"));
+        return tokens.concatWith(Flux.fromIterable(tail));
+    }
+
+    /**
+     * 把帧按 1..fragmentBytes 的随机长度切开分别写出，模拟跨 TCP 包的半行
+     */
+    private Flux<byte[]> fragment(Flux<byte[]> frames) {
+        int max = options.fragmentBytes();
+        if (max <= 0) {
+            return frames;
+        }
+        return frames.concatMapIterable(frame -> {
+            List<byte[]> parts = new ArrayList<>();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int offset = 0; offset < frame.length; ) {
+                int length = Math.min(frame.length - offset, 1 + random.nextInt(max));
+                byte[] part = new byte[length];
+                System.arraycopy(frame, offset, part, 0, length);
+                parts.add(part);
+                offset += length;
+            }
+            return parts;
+        });
+    }
+
+    private static String chunk(String id, long created, String content, String reasoningContent, String finishReason) {
+        return "{\"choices\":[{\"delta\":{\"content\":" + quote(content) + ",\"reasoning_content\":" + quote(reasoningContent)
+                + "},\"finish_reason\":" + quote(finishReason) + ",\"index\":0,\"logprobs\":null}],"
+                + "\"object\":\"chat.completion.chunk\",\"usage\":null,\"created\":" + created
+                + ",\"system_fingerprint\":null,\"model\":\"deepseek-r1\",\"id\":\"" + id + "\"}";
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : '"' + value + '"';
+    }
+
+    private static byte[] frame(String data) {
+        return ("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 模拟服务参数
+     * @param port 监听端口，0 表示随机端口
+     * @param tokensPerSecond 每秒输出的片段数
+     * @param reasoningTokens 思考阶段的片段数
+     * @param answerTokens 回答阶段的片段数
+     * @param firstTokenDelayMs 首个片段前的延迟（模拟上游排队和预填充）
+     * @param fragmentBytes 每次网络写入的最大字节数，0 表示按帧写入
+     * @param errorRate 注入错误的比例（0~1）
+     */
+    public record Options(int port, int tokensPerSecond, int reasoningTokens, int answerTokens,
+                          long firstTokenDelayMs, int fragmentBytes, double errorRate) {
+
+        public static Options fromSystemProperties() {
+            return new Options(
+                    Integer.getInteger("mock.port", 18080),
+                    Integer.getInteger("mock.tokens-per-second", 50),
+                    Integer.getInteger("mock.reasoning-tokens", 40),
+                    Integer.getInteger("mock.answer-tokens", 80),
+                    Long.getLong("mock.first-token-delay-ms", 300),
+                    Integer.getInteger("mock.fragment-bytes", 0),
+                    Double.parseDouble(System.getProperty("mock.error-rate", "0")));
+        }
+    }
+}
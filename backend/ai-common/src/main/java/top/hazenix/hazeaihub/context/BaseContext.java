@@ -1,8 +1,14 @@
 package top.hazenix.hazeaihub.context;
 
+/**
+ * 当前请求的用户ID，由 JWT 拦截器在请求线程上设置、请求结束（或转入异步处理）时清除
+ * 在 Reactor 流中通过 context-propagation 以 KEY 传递，切换线程后仍可读取
+ */
 public class BaseContext {
 
-    public static ThreadLocal<Long> threadLocal = new ThreadLocal<>();
+    public static final String KEY = "hazeaihub.currentUserId";
+
+    private static final ThreadLocal<Long> threadLocal = new ThreadLocal<>();
 
     public static void setCurrentId(Long id) {
         threadLocal.set(id);
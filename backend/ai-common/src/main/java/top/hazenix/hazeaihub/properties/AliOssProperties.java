@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 
 @Component
 @ConfigurationProperties(prefix = "ai.alioss")
@@ -18,4 +20,23 @@ public class AliOssProperties {
     private String roleSessionName;
     private String region;
 
+    /**
+     * OSS 客户端（单例）的连接池和超时配置
+     */
+    private int maxConnections = 128;
+    private int connectionTimeout = 5000;
+    private int socketTimeout = 60000;
+    private long idleConnectionTime = 60000;
+
+    /**
+     * STS 临时凭证（前端直传）：按用户缓存，到期前 stsRefreshBefore（再提前 0~stsRefreshJitter 的随机时间）异步刷新
+     * stsEndpoint 为空时使用 SDK 按 region 解析的地址，可指向本地桩服务（如 http://localhost:8089）做测试
+     */
+    private String stsEndpoint;
+    private long stsDurationSeconds = 900;
+    private Duration stsRefreshBefore = Duration.ofMinutes(3);
+    private Duration stsRefreshJitter = Duration.ofSeconds(60);
+    private int stsCacheMaxSize = 10_000;
+    private int stsRefreshWorkers = 2;
+
 }
@@ -0,0 +1,39 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * @description: 本地缓存失效广播配置：type 为 local（单节点，默认）或 postgres（通过 LISTEN/NOTIFY 通知其他节点）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.cache-invalidation")
+@Data
+public class CacheInvalidationProperties {
+
+    /**
+     * 广播方式：local / postgres
+     */
+    private String type = "local";
+
+    /**
+     * postgres 方式使用的 NOTIFY 通道名
+     */
+    private String channel = "haze_cache_invalidation";
+
+    /**
+     * 监听线程每次等待通知的最长时间
+     */
+    private Duration pollTimeout = Duration.ofSeconds(1);
+
+    /**
+     * 监听连接断开后的重连间隔
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
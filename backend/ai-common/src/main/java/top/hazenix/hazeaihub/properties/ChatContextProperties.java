@@ -0,0 +1,79 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @description: 对话上下文窗口配置：从会话中取最近的消息作为上下文，同时受条数和 token 预算限制
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.context")
+@Data
+public class ChatContextProperties {
+
+    /**
+     * 最多带上的历史消息条数
+     */
+    private int maxMessages = 20;
+
+    /**
+     * 上下文（历史消息 + 当前用户消息）的 token 预算（估算值）
+     */
+    private int maxTokens = 6000;
+
+    /**
+     * 按模型覆盖 token 预算，key 为模型名，未配置的模型使用 maxTokens
+     */
+    private Map<String, Integer> modelMaxTokens = new HashMap<>();
+
+    /**
+     * 是否启用上下文压缩：较早的对话合并为滚动摘要，保存在 chat_session.summary
+     */
+    private boolean compactionEnabled = true;
+
+    /**
+     * 未压缩的历史消息超过预算的该比例时触发压缩
+     */
+    private double compactionTriggerRatio = 0.8;
+
+    /**
+     * 压缩后保留原文的最近消息所占预算比例，更早的消息合并进摘要
+     */
+    private double compactionKeepRatio = 0.5;
+
+    /**
+     * 单次压缩最多合并的消息条数
+     */
+    private int compactionBatchMessages = 40;
+
+    /**
+     * 摘要的 token 上限（估算）
+     */
+    private int summaryMaxTokens = 800;
+
+    /**
+     * 会话上下文缓存的总容量上限（按消息内容估算的字节数）
+     */
+    private long cacheMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * 缓存条目写入后的有效期，过期后重新从数据库加载（多节点部署时限制不一致的时间）
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * 指定模型的 token 预算
+     */
+    public int maxTokensFor(String model) {
+        return modelMaxTokens.getOrDefault(model, maxTokens);
+    }
+
+}
@@ -0,0 +1,41 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * @description: ChatClient 会话记忆（ChatMemory）配置：每个会话的消息上限、全局内存预算、空闲淘汰和落库
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.memory")
+@Data
+public class ChatMemoryProperties {
+
+    /**
+     * 每个会话保留的最近消息条数，超出时丢弃最早的消息
+     */
+    private int maxMessagesPerConversation = 40;
+
+    /**
+     * 所有会话占用内存的上限（按消息内容估算的字节数），超出时按 W-TinyLFU 淘汰会话
+     */
+    private long maxBytes = 32L * 1024 * 1024;
+
+    /**
+     * 会话空闲（未读写）超过该时间后淘汰
+     */
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    /**
+     * 是否把被淘汰会话中未落库的对话写入 chat_message，并在再次访问时从数据库恢复
+     * 只对数字形式、且在 chat_session 中存在的 chatId 生效
+     */
+    private boolean spillEnabled = false;
+
+}
@@ -0,0 +1,57 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * @description: 对话消息异步批量落库（write-behind）相关配置
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.persistence")
+@Data
+public class ChatPersistenceProperties {
+
+    /**
+     * 内存队列容量（按对话轮数计），队列满时新的对话写入溢出文件
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 每批最多写入的对话轮数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 攒批的最长等待时间，到期后即使不满一批也会写入
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * 溢出文件的重放间隔（数据库不可用时避免频繁重试）
+     */
+    private Duration replayInterval = Duration.ofSeconds(30);
+
+    /**
+     * 溢出文件路径：队列满、写库失败或停机未写完的对话会追加到这里，启动后重放
+     */
+    private String spillFile = Paths.get(System.getProperty("java.io.tmpdir"), "haze-ai-hub", "chat-turns.ndjson").toString();
+
+    /**
+     * 死信文件路径：逐轮重试后仍因数据本身的问题（约束冲突等）无法写入的对话追加到这里，不再重放；
+     * 未配置时为溢出文件同目录下的 *.dead
+     */
+    private String deadLetterFile;
+
+    /**
+     * 停机时等待队列写完的最长时间，超时后剩余的对话写入溢出文件
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+}
@@ -0,0 +1,63 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * @description: 已软删除的会话和消息的后台清理配置：超过保留期后分批物理删除或归档
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.purge")
+@Data
+public class ChatPurgeProperties {
+
+    /**
+     * 是否启用后台清理
+     */
+    private boolean enabled = false;
+
+    /**
+     * delete：直接物理删除；archive：删除的同时写入 chat_session_archive / chat_message_archive
+     */
+    private String mode = "delete";
+
+    /**
+     * 软删除后保留多久才清理（期间可以人工恢复）
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * 每批删除的最大行数，一批为一条语句、一个短事务
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 两批之间的停顿，限制清理对线上写入和 WAL/复制的压力
+     */
+    private Duration batchPause = Duration.ofMillis(200);
+
+    /**
+     * 每轮清理中每类数据最多执行的批数，剩余的留到下一轮
+     */
+    private int maxBatchesPerRun = 500;
+
+    /**
+     * 两轮清理之间的间隔（上一轮结束后开始计时）
+     */
+    private Duration interval = Duration.ofMinutes(10);
+
+    /**
+     * 启动后首轮清理的延迟
+     */
+    private Duration initialDelay = Duration.ofMinutes(1);
+
+    public boolean isArchive() {
+        return "archive".equalsIgnoreCase(mode);
+    }
+}
@@ -0,0 +1,23 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 百炼 DashScope（OpenAI 兼容模式）相关配置
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.dashscope")
+@Data
+public class DashScopeProperties {
+
+    /**
+     * OpenAI 兼容接口地址
+     */
+    private String baseUrl = "https://dashscope.aliyuncs.com/compatible-mode/v1";
+
+}
@@ -0,0 +1,29 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * @description: 分组列表缓存配置（按用户缓存，分组增删改时失效）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.group-cache")
+@Data
+public class GroupCacheProperties {
+
+    /**
+     * 最多缓存多少个用户的分组列表
+     */
+    private long maxUsers = 10_000;
+
+    /**
+     * 写入后的有效期，兜底丢失的失效广播
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,79 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @description: 通用 HTTP 客户端（HttpClientUtil，Apache HttpClient）的连接池和超时配置，所有请求共用一个连接池
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.http-client")
+@Data
+public class HttpClientProperties {
+
+    /**
+     * 连接池最大连接数
+     */
+    private int maxTotal = 200;
+
+    /**
+     * 每个路由（协议 + 主机 + 端口）默认的最大连接数
+     */
+    private int defaultMaxPerRoute = 20;
+
+    /**
+     * 按路由覆盖最大连接数，key 为 scheme://host[:port]，例如 https://api.weixin.qq.com: 50
+     */
+    private Map<String, Integer> maxPerRoute = new LinkedHashMap<>();
+
+    /**
+     * 建立 TCP 连接的超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 从连接池获取连接的超时时间，超时说明连接池已满
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 两次网络读之间的最大间隔
+     */
+    private Duration socketTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 空闲超过该时间的连接在复用前先检查是否仍然可用
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * 连接最大空闲时间，后台线程定期回收（需小于服务端的 keep-alive 超时）
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * 连接最大存活时间，到期后不再复用
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * 以字符串返回的响应体的最大字节数，更大的响应应使用流式的 execute
+     */
+    private long maxResponseBytes = 10L * 1024 * 1024;
+
+    /**
+     * 异步接口（*Async）是否在虚拟线程上执行阻塞调用（需要 JDK 21+ 运行时），否则使用 asyncWorkers 个平台线程
+     */
+    private boolean asyncVirtualThreads = false;
+
+    private int asyncWorkers = 16;
+
+}
@@ -23,4 +23,9 @@ public class JwtProperties {
     private long userTtl;
     private String userTokenName;
 
+    /**
+     * 已校验令牌的缓存条数（JwtVerifier），重复请求跳过验签和 claims 解析
+     */
+    private long verifyCacheSize = 10_000;
+
 }
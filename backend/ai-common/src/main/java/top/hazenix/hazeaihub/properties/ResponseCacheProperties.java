@@ -0,0 +1,40 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * @description: 相同请求的响应缓存与并发合并配置（按规范化后的提示词、上下文、模型和思考参数精确匹配，不做语义相似匹配）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.response-cache")
+@Data
+public class ResponseCacheProperties {
+
+    /**
+     * 是否启用（默认关闭，适合客服、FAQ 等大量重复提问的场景）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 完整响应的缓存时间，为 0 时只合并并发的相同请求、不缓存
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * 缓存总容量上限（按事件内容估算的字节数）
+     */
+    private long maxBytes = 32L * 1024 * 1024;
+
+    /**
+     * 单个响应超过该大小时不缓存
+     */
+    private long maxEntryBytes = 256L * 1024;
+
+}
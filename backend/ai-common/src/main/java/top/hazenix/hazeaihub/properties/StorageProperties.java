@@ -0,0 +1,55 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * @description: 文件存储相关配置（ObjectStorage）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.storage")
+@Data
+public class StorageProperties {
+
+    /**
+     * 存储后端：oss（阿里云 OSS）或 local（本地文件系统，用于离线开发和测试）
+     */
+    private String type = "oss";
+
+    /**
+     * 超过该大小（字节）的文件走分片上传；长度未知的流也走分片上传
+     */
+    private long multipartThreshold = 64L * 1024 * 1024;
+
+    /**
+     * 分片大小（字节），OSS 要求除最后一片外不小于 100KB
+     */
+    private long partSize = 8L * 1024 * 1024;
+
+    /**
+     * 并行上传分片的线程数，同时也是单个流式上传在内存中最多持有的分片数
+     */
+    private int partWorkers = 4;
+
+    /**
+     * 本地文件分片上传的断点记录目录，上传中断后用同一文件重试会从已完成的分片继续
+     */
+    private String checkpointDir = Paths.get(System.getProperty("java.io.tmpdir"), "haze-ai-hub", "oss-checkpoints").toString();
+
+    /**
+     * local 后端的根目录
+     */
+    private String localRoot = Paths.get(System.getProperty("java.io.tmpdir"), "haze-ai-hub", "files").toString();
+
+    /**
+     * local 后端返回的访问地址前缀
+     */
+    private String localBaseUrl = "http://localhost:8080/files";
+
+}
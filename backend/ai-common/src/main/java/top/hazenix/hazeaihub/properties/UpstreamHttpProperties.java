@@ -0,0 +1,85 @@
+package top.hazenix.hazeaihub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * @description: 调用上游大模型服务（DashScope 等）的 HTTP 连接池配置，所有 WebClient 共用一个连接池
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.upstream.http")
+@Data
+public class UpstreamHttpProperties {
+
+    /**
+     * 连接池名称，同时作为连接池指标的 name 标签
+     */
+    private String poolName = "upstream";
+
+    /**
+     * 最大连接数（HTTP/2 下为最大连接数，每个连接可复用多个流）
+     */
+    private int maxConnections = 200;
+
+    /**
+     * 等待获取连接的最大排队请求数，超出后立即失败而不是无限排队
+     */
+    private int pendingAcquireMaxCount = 500;
+
+    /**
+     * 等待获取连接的超时时间
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 连接最大空闲时间，超过后被回收（需小于上游服务端的 keep-alive 超时）
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * 连接最大存活时间，到期后不再复用，便于上游切换节点
+     */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /**
+     * 后台回收空闲/过期连接的间隔，为 0 时只在获取连接时检查
+     */
+    private Duration evictInBackground = Duration.ofSeconds(30);
+
+    /**
+     * 建立 TCP 连接的超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 两次网络读之间的最大间隔（流式响应下即相邻 chunk 的最大间隔）
+     */
+    private Duration responseTimeout = Duration.ofSeconds(60);
+
+    /**
+     * TLS 会话缓存大小，复用会话可以省掉新连接的完整握手
+     */
+    private long tlsSessionCacheSize = 1024;
+
+    /**
+     * TLS 会话缓存时间
+     */
+    private Duration tlsSessionTimeout = Duration.ofHours(1);
+
+    /**
+     * 是否启用 HTTP/2（通过 ALPN 协商，不支持时回退到 HTTP/1.1）
+     */
+    private boolean http2 = false;
+
+    /**
+     * 是否记录连接池和请求指标（Micrometer）
+     */
+    private boolean metricsEnabled = true;
+
+}
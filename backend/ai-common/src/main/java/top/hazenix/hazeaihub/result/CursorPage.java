@@ -0,0 +1,22 @@
+package top.hazenix.hazeaihub.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 封装游标（keyset）分页查询结果，nextCursor 为空表示没有下一页
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> implements Serializable {
+
+    private List<T> records; //当前页数据集合
+
+    private String nextCursor; //下一页游标
+
+}
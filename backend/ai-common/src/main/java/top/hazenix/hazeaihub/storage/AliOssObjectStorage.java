@@ -0,0 +1,231 @@
+package top.hazenix.hazeaihub.storage;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.UploadFileRequest;
+import com.aliyun.oss.model.UploadPartRequest;
+import lombok.extern.slf4j.Slf4j;
+import top.hazenix.hazeaihub.properties.AliOssProperties;
+import top.hazenix.hazeaihub.properties.StorageProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 阿里云 OSS 存储，所有上传共用一个长期存活的 OSS 客户端（连接池、TLS 会话复用）
+ * - 小于 multipartThreshold 的流按已知长度直接 PutObject，边读边传
+ * - 大文件和长度未知的流走分片上传：按 partSize 读取分片，由 partWorkers 个线程并行上传，单个上传最多在内存中持有 partWorkers 个分片
+ * - 本地文件的分片上传使用 SDK 的断点续传（checkpoint 文件记录已完成的分片，中断后重试只传剩余分片）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+public class AliOssObjectStorage implements ObjectStorage {
+
+    private final OSS ossClient;
+    private final String bucketName;
+    private final String endpoint;
+    private final StorageProperties properties;
+    private final ExecutorService partExecutor;
+
+    public AliOssObjectStorage(OSS ossClient, AliOssProperties aliOssProperties, StorageProperties properties) {
+        this.ossClient = ossClient;
+        this.bucketName = aliOssProperties.getBucketName();
+        this.endpoint = aliOssProperties.getEndpoint();
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.partExecutor = Executors.newFixedThreadPool(properties.getPartWorkers(), r -> {
+            Thread thread = new Thread(r, "oss-part-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String upload(String objectName, InputStream in, long contentLength, String contentType) {
+        String key = key(objectName);
+        try {
+            if (contentLength >= 0 && contentLength < properties.getMultipartThreshold()) {
+                ossClient.putObject(bucketName, key, in, metadata(contentLength, contentType));
+            } else {
+                multipartUpload(key, in, contentType);
+            }
+        } catch (RuntimeException e) {
+            log.error("OSS上传失败 - 对象: {}, 消息: {}", key, e.getMessage());
+            throw new RuntimeException("文件上传失败", e);
+        }
+        log.info("文件上传到:{}", url(key));
+        return url(key);
+    }
+
+    @Override
+    public String upload(String objectName, Path file, String contentType) {
+        String key = key(objectName);
+        try {
+            long size = Files.size(file);
+            if (size < properties.getMultipartThreshold()) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    ossClient.putObject(bucketName, key, in, metadata(size, contentType));
+                }
+            } else {
+                UploadFileRequest request = new UploadFileRequest(bucketName, key);
+                request.setUploadFile(file.toAbsolutePath().toString());
+                request.setPartSize(properties.getPartSize());
+                request.setTaskNum(properties.getPartWorkers());
+                request.setEnableCheckpoint(true);
+                request.setCheckpointFile(checkpointFile(file, key).toString());
+                request.setObjectMetadata(metadata(-1, contentType));
+                ossClient.uploadFile(request);
+            }
+        } catch (Throwable e) {
+            log.error("OSS上传失败 - 文件: {}, 对象: {}, 消息: {}", file, key, e.getMessage());
+            throw new RuntimeException("文件上传失败", e);
+        }
+        log.info("文件上传到:{}", url(key));
+        return url(key);
+    }
+
+    @Override
+    public boolean exists(String objectName) {
+        return ossClient.doesObjectExist(bucketName, key(objectName));
+    }
+
+    @Override
+    public String url(String objectName) {
+        // 文件访问路径规则 https://BucketName.Endpoint/ObjectName
+        return "https://" + bucketName + "." + endpoint + "/" + key(objectName);
+    }
+
+    @Override
+    public String presignedUrl(String objectName, Duration ttl) {
+        Date expiration = new Date(System.currentTimeMillis() + ttl.toMillis());
+        return ossClient.generatePresignedUrl(bucketName, key(objectName), expiration).toString();
+    }
+
+    public void shutdown() {
+        partExecutor.shutdownNow();
+    }
+
+    /**
+     * 流式分片上传：读满一片就交给分片线程上传，用信号量限制在途分片数；
+     * 第一片就读到流末尾时退化为一次 PutObject；任一分片失败则中止整个上传
+     */
+    private void multipartUpload(String key, InputStream in, String contentType) {
+        int partSize = (int) properties.getPartSize();
+        byte[] first = readPart(in, partSize);
+        if (first.length < partSize) {
+            ossClient.putObject(bucketName, key, new ByteArrayInputStream(first), metadata(first.length, contentType));
+            return;
+        }
+
+        String uploadId = ossClient.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, key, metadata(-1, contentType))).getUploadId();
+        Semaphore inFlight = new Semaphore(properties.getPartWorkers());
+        List<CompletableFuture<PartETag>> parts = new ArrayList<>();
+        try {
+            byte[] part = first;
+            int partNumber = 1;
+            while (part.length > 0) {
+                inFlight.acquire();
+                byte[] data = part;
+                int number = partNumber++;
+                parts.add(CompletableFuture.supplyAsync(() -> uploadPart(key, uploadId, number, data), partExecutor)
+                        .whenComplete((etag, error) -> inFlight.release()));
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                part = data.length < partSize ? new byte[0] : readPart(in, partSize);
+            }
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).join();
+            List<PartETag> etags = new ArrayList<>(parts.size());
+            for (CompletableFuture<PartETag> future : parts) {
+                etags.add(future.join());
+            }
+            etags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+            ossClient.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, etags));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId);
+            throw new RuntimeException("文件上传被中断", e);
+        } catch (RuntimeException e) {
+            abort(key, uploadId);
+            throw e;
+        }
+    }
+
+    private PartETag uploadPart(String key, String uploadId, int partNumber, byte[] data) {
+        UploadPartRequest request = new UploadPartRequest();
+        request.setBucketName(bucketName);
+        request.setKey(key);
+        request.setUploadId(uploadId);
+        request.setPartNumber(partNumber);
+        request.setPartSize(data.length);
+        request.setInputStream(new ByteArrayInputStream(data));
+        return ossClient.uploadPart(request).getPartETag();
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            ossClient.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (RuntimeException e) {
+            log.warn("中止分片上传失败 - 对象: {}, uploadId: {}, 消息: {}", key, uploadId, e.getMessage());
+        }
+    }
+
+    private static byte[] readPart(InputStream in, int partSize) {
+        try {
+            return in.readNBytes(partSize);
+        } catch (IOException e) {
+            throw new RuntimeException("读取上传内容失败", e);
+        }
+    }
+
+    /**
+     * 断点文件按本地文件路径和对象名区分，同一文件重传同一对象时复用
+     */
+    private Path checkpointFile(Path file, String key) throws IOException, NoSuchAlgorithmException {
+        Path dir = Paths.get(properties.getCheckpointDir());
+        Files.createDirectories(dir);
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest((file.toAbsolutePath() + "\n" + bucketName + "/" + key).getBytes(StandardCharsets.UTF_8));
+        return dir.resolve(HexFormat.of().formatHex(digest) + ".ucp");
+    }
+
+    private static ObjectMetadata metadata(long contentLength, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        if (contentLength >= 0) {
+            metadata.setContentLength(contentLength);
+        }
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+        return metadata;
+    }
+
+    private static String key(String objectName) {
+        return objectName.startsWith("/") ? objectName.substring(1) : objectName;
+    }
+}
@@ -0,0 +1,83 @@
+package top.hazenix.hazeaihub.storage;
+
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.auth.sts.AssumeRoleRequest;
+import com.aliyuncs.auth.sts.AssumeRoleResponse;
+import com.aliyuncs.exceptions.ClientException;
+import com.aliyuncs.http.MethodType;
+import com.aliyuncs.http.ProtocolType;
+import top.hazenix.hazeaihub.properties.AliOssProperties;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * @description: 通过 AssumeRole 申请临时凭证，所有调用共用一个 ACS 客户端；授权策略只允许上传到用户自己的目录 music/{userId}/
+ * 配置了 stsEndpoint 时请求发往该地址（http:// 开头时使用 HTTP），用于对接本地桩服务
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public class AliStsCredentialFetcher implements StsCredentialFetcher {
+
+    private final IAcsClient acsClient;
+    private final AliOssProperties properties;
+
+    public AliStsCredentialFetcher(IAcsClient acsClient, AliOssProperties properties) {
+        this.acsClient = acsClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public StsCredentials fetch(Long userId) throws ClientException {
+        AssumeRoleRequest request = new AssumeRoleRequest();
+        request.setMethod(MethodType.POST);
+        request.setRoleArn(properties.getRoleArn());
+        request.setRoleSessionName(properties.getRoleSessionName() + "-" + userId);
+        // 临时凭证有效期 (此api最小允许15min，最大允许1h)
+        request.setDurationSeconds(properties.getStsDurationSeconds());
+        // 限制上传路径（只能上传到自己的目录）
+        request.setPolicy(policy(properties.getBucketName(), userId));
+        String endpoint = properties.getStsEndpoint();
+        if (endpoint != null && !endpoint.isBlank()) {
+            if (endpoint.startsWith("http://")) {
+                request.setSysProtocol(ProtocolType.HTTP);
+            }
+            request.setSysEndpoint(endpoint.replaceFirst("^https?://", ""));
+        }
+
+        long requestedAt = System.currentTimeMillis();
+        AssumeRoleResponse.Credentials credentials = acsClient.getAcsResponse(request).getCredentials();
+        return new StsCredentials(credentials.getAccessKeyId(), credentials.getAccessKeySecret(),
+                credentials.getSecurityToken(), expiration(credentials.getExpiration(), requestedAt));
+    }
+
+    static String policy(String bucketName, Long userId) {
+        return String.format("""
+            {
+              "Version": "1",
+              "Statement": [
+                {
+                  "Effect": "Allow",
+                  "Action": ["oss:PutObject", "oss:PostObject"],
+                  "Resource": "acs:oss:*:*:%s/music/%d/*"
+                }
+              ]
+            }
+            """, bucketName, userId);
+    }
+
+    /**
+     * 解析 STS 返回的过期时间（ISO-8601，UTC），缺失时按请求时间加有效期计算
+     */
+    private Instant expiration(String expiration, long requestedAt) {
+        if (expiration != null) {
+            try {
+                return Instant.parse(expiration);
+            } catch (DateTimeParseException ignored) {
+                // 按有效期计算
+            }
+        }
+        return Instant.ofEpochMilli(requestedAt).plusSeconds(properties.getStsDurationSeconds());
+    }
+}
@@ -0,0 +1,85 @@
+package top.hazenix.hazeaihub.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+/**
+ * @description: 本地文件系统存储（ai.storage.type=local），用于离线开发和测试
+ * 先写入同目录下的临时文件再原子重命名，读到的对象要么不存在要么是完整的
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalObjectStorage(String root, String baseUrl) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public String upload(String objectName, InputStream in, long contentLength, String contentType) {
+        Path target = resolve(objectName);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("文件上传失败", e);
+        }
+        log.info("文件上传到:{}", target);
+        return url(objectName);
+    }
+
+    @Override
+    public String upload(String objectName, Path file, String contentType) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return upload(objectName, in, Files.size(file), contentType);
+        } catch (IOException e) {
+            throw new RuntimeException("文件上传失败", e);
+        }
+    }
+
+    @Override
+    public boolean exists(String objectName) {
+        return Files.exists(resolve(objectName));
+    }
+
+    @Override
+    public String url(String objectName) {
+        return baseUrl + "/" + stripLeadingSlash(objectName);
+    }
+
+    @Override
+    public String presignedUrl(String objectName, Duration ttl) {
+        return url(objectName);
+    }
+
+    private Path resolve(String objectName) {
+        Path path = root.resolve(stripLeadingSlash(objectName)).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("非法的对象名: " + objectName);
+        }
+        return path;
+    }
+
+    private static String stripLeadingSlash(String objectName) {
+        return objectName.startsWith("/") ? objectName.substring(1) : objectName;
+    }
+}
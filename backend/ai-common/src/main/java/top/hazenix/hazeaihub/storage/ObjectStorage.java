@@ -0,0 +1,49 @@
+package top.hazenix.hazeaihub.storage;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @description: 对象存储：流式上传（不把整个文件读进内存），实现有阿里云 OSS（AliOssObjectStorage）和本地文件系统（LocalObjectStorage）
+ * 上传失败抛出 RuntimeException
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public interface ObjectStorage {
+
+    /**
+     * 上传输入流，调用方负责关闭流
+     * @param objectName 对象名（存储路径）
+     * @param in 文件内容
+     * @param contentLength 内容长度，未知时传 -1
+     * @param contentType MIME 类型（可选）
+     * @return 访问地址
+     */
+    String upload(String objectName, InputStream in, long contentLength, String contentType);
+
+    /**
+     * 上传本地文件，大文件分片并行上传并记录断点
+     * @param objectName 对象名（存储路径）
+     * @param file 本地文件
+     * @param contentType MIME 类型（可选）
+     * @return 访问地址
+     */
+    String upload(String objectName, Path file, String contentType);
+
+    /**
+     * 对象是否已存在
+     */
+    boolean exists(String objectName);
+
+    /**
+     * 对象的访问地址
+     */
+    String url(String objectName);
+
+    /**
+     * 有效期为 ttl 的临时访问地址
+     */
+    String presignedUrl(String objectName, Duration ttl);
+}
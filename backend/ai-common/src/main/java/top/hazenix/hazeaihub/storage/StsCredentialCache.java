@@ -0,0 +1,182 @@
+package top.hazenix.hazeaihub.storage;
+
+import com.aliyuncs.exceptions.ClientException;
+import lombok.extern.slf4j.Slf4j;
+import top.hazenix.hazeaihub.properties.AliOssProperties;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @description: STS 临时凭证的按用户缓存，把 AssumeRole 调用移出上传请求的关键路径
+ * - 同一用户的并发请求合并为一次 STS 调用，其余请求等待同一个结果
+ * - 凭证到期前 refreshBefore（再随机提前 0~refreshJitter，避免同一批凭证同时刷新）由后台线程异步刷新，期间继续下发当前凭证
+ * - 剩余有效期不足 MIN_REMAINING_MILLIS 的凭证不再下发，同步重新申请；刷新失败时间隔 RETRY_DELAY_MILLIS 后重试
+ * - 条目数超过 cacheMaxSize 时定期清理已过期的凭证
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+public class StsCredentialCache {
+
+    /**
+     * 下发的凭证至少还剩的有效期（前端拿到凭证后还要完成上传）
+     */
+    static final long MIN_REMAINING_MILLIS = 60_000;
+    static final long RETRY_DELAY_MILLIS = 10_000;
+    private static final long CLEANUP_INTERVAL_MILLIS = 30_000;
+
+    private final StsCredentialFetcher fetcher;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+    private final long refreshBeforeMillis;
+    private final long refreshJitterMillis;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextCleanupAt = new AtomicLong();
+
+    public StsCredentialCache(StsCredentialFetcher fetcher, AliOssProperties properties) {
+        this(fetcher, properties, newRefreshExecutor(properties.getStsRefreshWorkers()), System::currentTimeMillis);
+    }
+
+    StsCredentialCache(StsCredentialFetcher fetcher, AliOssProperties properties, Executor refreshExecutor, LongSupplier clock) {
+        this.fetcher = fetcher;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        this.refreshBeforeMillis = properties.getStsRefreshBefore().toMillis();
+        this.refreshJitterMillis = properties.getStsRefreshJitter().toMillis();
+        this.maxSize = properties.getStsCacheMaxSize();
+    }
+
+    /**
+     * 获取用户的临时凭证：命中时直接返回（临近过期时触发后台刷新），未命中或即将过期时同步申请
+     */
+    public StsCredentials get(Long userId) throws ClientException {
+        long now = clock.getAsLong();
+        CompletableFuture<Entry> current = entries.get(userId);
+        Entry entry = current == null ? null : await(current);
+        if (entry == null || entry.expiresAt() - now < MIN_REMAINING_MILLIS) {
+            return load(userId, current, now).credentials();
+        }
+        if (now >= entry.refreshAt()) {
+            refreshAsync(userId, current, entry);
+        }
+        return entry.credentials();
+    }
+
+    public void invalidate(Long userId) {
+        entries.remove(userId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void shutdown() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * 同步申请；其他请求已在申请时等待它的结果
+     */
+    private Entry load(Long userId, CompletableFuture<Entry> stale, long now) throws ClientException {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = stale != null && entries.replace(userId, stale, created)
+                ? null : entries.putIfAbsent(userId, created);
+        if (existing != null) {
+            return await(existing);
+        }
+        evictExpired(now);
+        try {
+            Entry entry = fetch(userId);
+            created.complete(entry);
+            return entry;
+        } catch (ClientException | RuntimeException e) {
+            entries.remove(userId, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void refreshAsync(Long userId, CompletableFuture<Entry> current, Entry entry) {
+        if (!refreshing.add(userId)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    entries.put(userId, CompletableFuture.completedFuture(fetch(userId)));
+                } catch (Exception e) {
+                    log.warn("STS临时凭证刷新失败，继续使用当前凭证 - userId: {}, 消息: {}", userId, e.getMessage());
+                    Entry retry = new Entry(entry.credentials(), entry.expiresAt(), clock.getAsLong() + RETRY_DELAY_MILLIS);
+                    entries.replace(userId, current, CompletableFuture.completedFuture(retry));
+                } finally {
+                    refreshing.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(userId);
+        }
+    }
+
+    private Entry fetch(Long userId) throws ClientException {
+        StsCredentials credentials = fetcher.fetch(userId);
+        long expiresAt = credentials.expiration().toEpochMilli();
+        long jitter = refreshJitterMillis <= 0 ? 0 : ThreadLocalRandom.current().nextLong(refreshJitterMillis + 1);
+        return new Entry(credentials, expiresAt, expiresAt - refreshBeforeMillis - jitter);
+    }
+
+    private void evictExpired(long now) {
+        long next = nextCleanupAt.get();
+        if (entries.size() < maxSize || now < next || !nextCleanupAt.compareAndSet(next, now + CLEANUP_INTERVAL_MILLIS)) {
+            return;
+        }
+        entries.values().removeIf(future -> future.isDone() && !future.isCompletedExceptionally()
+                && future.join().expiresAt() <= now);
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) throws ClientException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ClientException clientException) {
+                throw clientException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static ExecutorService newRefreshExecutor(int workers) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "sts-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param expiresAt 过期时间（毫秒）
+     * @param refreshAt 开始后台刷新的时间（毫秒）
+     */
+    private record Entry(StsCredentials credentials, long expiresAt, long refreshAt) {
+    }
+}
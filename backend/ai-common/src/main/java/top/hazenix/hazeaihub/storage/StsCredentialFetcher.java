@@ -0,0 +1,15 @@
+package top.hazenix.hazeaihub.storage;
+
+import com.aliyuncs.exceptions.ClientException;
+
+/**
+ * @description: 向 STS 申请某个用户的临时凭证（一次远程调用），由 StsCredentialCache 负责缓存和刷新
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@FunctionalInterface
+public interface StsCredentialFetcher {
+
+    StsCredentials fetch(Long userId) throws ClientException;
+}
@@ -0,0 +1,16 @@
+package top.hazenix.hazeaihub.storage;
+
+import java.time.Instant;
+
+/**
+ * @description: STS 临时凭证
+ * @param accessKeyId 临时 AccessKeyId
+ * @param accessKeySecret 临时 AccessKeySecret
+ * @param securityToken 安全令牌
+ * @param expiration 过期时间
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public record StsCredentials(String accessKeyId, String accessKeySecret, String securityToken, Instant expiration) {
+}
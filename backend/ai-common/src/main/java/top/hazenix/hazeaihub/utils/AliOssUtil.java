@@ -1,24 +1,20 @@
 package top.hazenix.hazeaihub.utils;
 
 import com.aliyun.oss.ClientException;
-import com.aliyun.oss.OSS;
-import com.aliyun.oss.OSSClientBuilder;
-import com.aliyun.oss.OSSException;
-import com.aliyuncs.DefaultAcsClient;
-import com.aliyuncs.auth.sts.AssumeRoleRequest;
-import com.aliyuncs.auth.sts.AssumeRoleResponse;
-import com.aliyuncs.http.MethodType;
-import com.aliyuncs.profile.DefaultProfile;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import top.hazenix.hazeaihub.properties.AliOssProperties;
+import top.hazenix.hazeaihub.storage.ObjectStorage;
+import top.hazenix.hazeaihub.storage.StsCredentialCache;
+import top.hazenix.hazeaihub.storage.StsCredentials;
 
 
 import java.io.ByteArrayInputStream;
-import java.net.URL;
-import java.util.Date;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -32,6 +28,12 @@ public class AliOssUtil {
 
     private final AliOssProperties aliOssProperties;
 
+    // 单例的存储后端（OSS 客户端在应用内共用，不再每次上传新建和关闭）
+    private final ObjectStorage objectStorage;
+
+    // 按用户缓存的 STS 临时凭证（共用一个 ACS 客户端，到期前异步刷新）
+    private final StsCredentialCache stsCredentialCache;
+
     /**
      * 文件上传
      *
@@ -40,54 +42,30 @@ public class AliOssUtil {
      * @return
      */
     public String upload(byte[] bytes, String objectName) {
+        return objectStorage.upload(uniqueObjectName(objectName), new ByteArrayInputStream(bytes), bytes.length, null);
+    }
 
-        //截取原始文件名的后缀
-        String extension = objectName.substring(objectName.lastIndexOf("."));
-        objectName = UUID.randomUUID().toString() + extension;
-
-        //【获取配置属性】(从注入的aliOssproperties中获取)
-        String endpoint = aliOssProperties.getEndpoint();
-        String accessKeyId = aliOssProperties.getAccessKeyId();
-        String accessKeySecret = aliOssProperties.getAccessKeySecret();
-        String bucketName = aliOssProperties.getBucketName();
-        
-        // 创建OSSClient实例。
-        OSS ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
-
-        try {
-            // 创建PutObject请求。
-            ossClient.putObject(bucketName, objectName, new ByteArrayInputStream(bytes));
-        } catch (OSSException oe) {
-            log.info("Caught an OSSException, which means your request made it to OSS, "
-                    + "but was rejected with an error response for some reason.");
-            log.info("Error Message:{}" ,oe.getErrorMessage());
-            log.info("Error Code:{}" ,oe.getErrorCode());
-            log.info("Request ID:" + oe.getRequestId());
-            log.info("Host ID:" + oe.getHostId());
-        } catch (ClientException ce) {
-            log.info("Caught an ClientException, which means the client encountered "
-                    + "a serious internal problem while trying to communicate with OSS, "
-                    + "such as not being able to access the network.");
-            log.info("Error Message:" + ce.getMessage());
-        } finally {
-            if (ossClient != null) {
-                ossClient.shutdown();
-            }
-        }
-
-        // 拼接文件访问路径
-        // 文件访问路径规则 https://BucketName.Endpoint/ObjectName
-        StringBuilder stringBuilder = new StringBuilder("https://");
-        stringBuilder
-                .append(bucketName)
-                .append(".")
-                .append(endpoint)
-                .append("/")
-                .append(objectName);
-
-        log.info("文件上传到:{}", stringBuilder.toString());
-
-        return stringBuilder.toString();
+    /**
+     * 流式上传（不把整个文件读进内存），大文件自动分片并行上传
+     *
+     * @param in            文件内容，调用方负责关闭
+     * @param contentLength 内容长度，未知时传 -1
+     * @param objectName    原始文件名（用于提取后缀）
+     * @return 文件访问路径
+     */
+    public String upload(InputStream in, long contentLength, String objectName) {
+        return objectStorage.upload(uniqueObjectName(objectName), in, contentLength, null);
+    }
+
+    /**
+     * 上传本地文件，大文件分片并行上传并支持断点续传
+     *
+     * @param file       本地文件
+     * @param objectName 原始文件名（用于提取后缀）
+     * @return 文件访问路径
+     */
+    public String upload(Path file, String objectName) {
+        return objectStorage.upload(uniqueObjectName(objectName), file, null);
     }
 
 
@@ -99,96 +77,41 @@ public class AliOssUtil {
      * @return 临时可访问的签名URL（例如：https://xxx?Expires=...&OSSAccessKeyId=...&Signature=...）
      */
     public String upload2(byte[] bytes, String objectName) {
-        // 1. 生成唯一文件名
-        String extension = objectName.substring(objectName.lastIndexOf("."));
-        String uniqueObjectName = UUID.randomUUID().toString() + extension;
-
-        // 2. 获取OSS配置
-        String endpoint = aliOssProperties.getEndpoint();
-        String accessKeyId = aliOssProperties.getAccessKeyId();
-        String accessKeySecret = aliOssProperties.getAccessKeySecret();
-        String bucketName = aliOssProperties.getBucketName();
-
-        OSS ossClient = null;
-        try {
-            ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
-
-            // 3. 上传文件到OSS
-            ossClient.putObject(bucketName, uniqueObjectName, new ByteArrayInputStream(bytes));
-
-            // 4. 生成临时签名URL（有效期120分钟）
-            Date expiration = new Date(System.currentTimeMillis() + 120 * 60 * 1000); // 120分钟
-            URL signedUrl = ossClient.generatePresignedUrl(bucketName, uniqueObjectName, expiration);
-
-            log.info("文件上传成功，临时访问地址: {}", signedUrl.toString());
-            return signedUrl.toString();
-
-        } catch (OSSException oe) {
-            log.error("OSS异常 - 错误码: {}, 消息: {}, RequestId: {}",
-                    oe.getErrorCode(), oe.getErrorMessage(), oe.getRequestId());
-            throw new RuntimeException("文件上传失败", oe);
-        } catch (ClientException ce) {
-            log.error("客户端异常 - 消息: {}", ce.getMessage());
-            throw new RuntimeException("文件上传失败", ce);
-        } finally {
-            if (ossClient != null) {
-                ossClient.shutdown();
-            }
-        }
+        String uniqueObjectName = uniqueObjectName(objectName);
+        objectStorage.upload(uniqueObjectName, new ByteArrayInputStream(bytes), bytes.length, null);
+        String signedUrl = objectStorage.presignedUrl(uniqueObjectName, Duration.ofMinutes(120));
+        log.info("文件上传成功，临时访问地址: {}", signedUrl);
+        return signedUrl;
+    }
+
+    /**
+     * 生成唯一文件名（保留原始文件名的后缀）
+     */
+    private static String uniqueObjectName(String objectName) {
+        int dot = objectName.lastIndexOf(".");
+        String extension = dot < 0 ? "" : objectName.substring(dot);
+        return UUID.randomUUID().toString() + extension;
     }
 
     /**
      * 后端签发临时访问凭证给前端，用于前端直传OSS
+     * 凭证按用户缓存并在到期前后台刷新，大多数请求不再同步调用 STS
      * @param userId
      * @return
      * @throws ClientException
      */
     public Map<String, String> getTempCredentials(Long userId) throws com.aliyuncs.exceptions.ClientException {
-        String accessKeyId = aliOssProperties.getAccessKeyId();
-        String accessKeySecret = aliOssProperties.getAccessKeySecret();
-        String roleArn = aliOssProperties.getRoleArn();
-        String region = aliOssProperties.getRegion();
-        String roleSessionName = aliOssProperties.getRoleSessionName();
-        // 1. 初始化客户端
-        DefaultProfile profile = DefaultProfile.getProfile(region, accessKeyId, accessKeySecret);
-        DefaultAcsClient client = new DefaultAcsClient(profile);
-
-        // 2. 构造请求
-        AssumeRoleRequest request = new AssumeRoleRequest();
-        request.setMethod(MethodType.POST);
-        request.setRoleArn(roleArn);
-        request.setRoleSessionName(roleSessionName + "-" + userId);
-        request.setDurationSeconds(900L); // 临时凭证有效期：15分钟 (此api最小允许15min，最大允许1h)
-
-        // 3. 限制上传路径（只能上传到自己的目录）
-        String policy = String.format("""
-            {
-              "Version": "1",
-              "Statement": [
-                {
-                  "Effect": "Allow",
-                  "Action": ["oss:PutObject", "oss:PostObject"],
-                  "Resource": "acs:oss:*:*:%s/music/%d/*"
-                }
-              ]
-            }
-            """,
-                aliOssProperties.getBucketName(),
-                userId
-        );
-        request.setPolicy(policy);
-
-        // 4. 获取临时凭证
-        AssumeRoleResponse response = client.getAcsResponse(request);
+        StsCredentials credentials = stsCredentialCache.get(userId);
 
         Map<String, String> result = new HashMap<>();
-        result.put("accessKeyId", response.getCredentials().getAccessKeyId());
-        result.put("accessKeySecret", response.getCredentials().getAccessKeySecret());
-        result.put("securityToken", response.getCredentials().getSecurityToken());
+        result.put("accessKeyId", credentials.accessKeyId());
+        result.put("accessKeySecret", credentials.accessKeySecret());
+        result.put("securityToken", credentials.securityToken());
+        result.put("expiration", credentials.expiration().toString());
         result.put("bucket", aliOssProperties.getBucketName());
-        result.put("region", region);
+        result.put("region", aliOssProperties.getRegion());
         result.put("endpoint", aliOssProperties.getEndpoint());
         result.put("dir", "music/" + userId + "/");
         return result;
     }
-}
\ No newline at end of file
+}
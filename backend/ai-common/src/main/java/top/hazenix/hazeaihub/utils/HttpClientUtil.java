@@ -1,76 +1,95 @@
 package top.hazenix.hazeaihub.utils;
 
 import com.alibaba.fastjson.JSONObject;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.pool.PoolStats;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import top.hazenix.hazeaihub.properties.HttpClientProperties;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Http工具类
+ * 所有请求共用一个 PoolingHttpClientConnectionManager（连接复用、按路由限流），超时由 ai.http-client 配置；
+ * 响应体以流的方式交给 ResponseHandler 处理，处理完自动归还连接；*Async 方法在虚拟线程（或固定大小的线程池）上执行
  */
+@Slf4j
+@Component
 public class HttpClientUtil {
 
-    static final  int TIMEOUT_MSEC = 5 * 1000;
+    private final HttpClientProperties properties;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final Executor asyncExecutor;
+
+    public HttpClientUtil(HttpClientProperties properties) {
+        this.properties = properties;
+        this.connectionManager = new PoolingHttpClientConnectionManager(
+                properties.getTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getDefaultMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        properties.getMaxPerRoute().forEach((target, max) -> connectionManager.setMaxPerRoute(route(target), max));
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(builderRequestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.asyncExecutor = asyncExecutor(properties);
+    }
 
     /**
      * 发送GET方式请求
      * @param url
      * @param paramMap
-     * @return
+     * @return 响应状态为200时返回响应体，否则返回空字符串
      */
-    public static String doGet(String url,Map<String,String> paramMap){
-        // 创建Httpclient对象
-        CloseableHttpClient httpClient = HttpClients.createDefault();
-
-        String result = "";
-        CloseableHttpResponse response = null;
-
-        try{
-            URIBuilder builder = new URIBuilder(url);
-            if(paramMap != null){
-                for (String key : paramMap.keySet()) {
-                    builder.addParameter(key,paramMap.get(key));
-                }
-            }
-            URI uri = builder.build();
-
-            //创建GET请求
-            HttpGet httpGet = new HttpGet(uri);
-
-            //发送请求
-            response = httpClient.execute(httpGet);
-
-            //判断响应状态
-            if(response.getStatusLine().getStatusCode() == 200){
-                result = EntityUtils.toString(response.getEntity(),"UTF-8");
-            }
-        }catch (Exception e){
-            e.printStackTrace();
-        }finally {
-            try {
-                response.close();
-                httpClient.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    public String doGet(String url, Map<String, String> paramMap) {
+        try {
+            return execute(new HttpGet(uri(url, paramMap)), response ->
+                    response.getStatusLine().getStatusCode() == 200 ? readBody(response.getEntity()) : "");
+        } catch (Exception e) {
+            log.error("GET请求失败 - url: {}, 消息: {}", url, e.getMessage());
+            return "";
         }
-
-        return result;
     }
 
     /**
@@ -80,44 +99,17 @@ public class HttpClientUtil {
      * @return
      * @throws IOException
      */
-    public static String doPost(String url, Map<String, String> paramMap) throws IOException {
-        // 创建Httpclient对象
-        CloseableHttpClient httpClient = HttpClients.createDefault();
-        CloseableHttpResponse response = null;
-        String resultString = "";
-
-        try {
-            // 创建Http Post请求
-            HttpPost httpPost = new HttpPost(url);
-
-            // 创建参数列表
-            if (paramMap != null) {
-                List<NameValuePair> paramList = new ArrayList();
-                for (Map.Entry<String, String> param : paramMap.entrySet()) {
-                    paramList.add(new BasicNameValuePair(param.getKey(), param.getValue()));
-                }
-                // 模拟表单
-                UrlEncodedFormEntity entity = new UrlEncodedFormEntity(paramList);
-                httpPost.setEntity(entity);
-            }
-
-            httpPost.setConfig(builderRequestConfig());
-
-            // 执行http请求
-            response = httpClient.execute(httpPost);
-
-            resultString = EntityUtils.toString(response.getEntity(), "UTF-8");
-        } catch (Exception e) {
-            throw e;
-        } finally {
-            try {
-                response.close();
-            } catch (IOException e) {
-                e.printStackTrace();
+    public String doPost(String url, Map<String, String> paramMap) throws IOException {
+        HttpPost httpPost = new HttpPost(url);
+        if (paramMap != null) {
+            List<NameValuePair> paramList = new ArrayList<>();
+            for (Map.Entry<String, String> param : paramMap.entrySet()) {
+                paramList.add(new BasicNameValuePair(param.getKey(), param.getValue()));
             }
+            // 模拟表单
+            httpPost.setEntity(new UrlEncodedFormEntity(paramList, StandardCharsets.UTF_8));
         }
-
-        return resultString;
+        return execute(httpPost, response -> readBody(response.getEntity()));
     }
 
     /**
@@ -127,53 +119,157 @@ public class HttpClientUtil {
      * @return
      * @throws IOException
      */
-    public static String doPost4Json(String url, Map<String, String> paramMap) throws IOException {
-        // 创建Httpclient对象
-        CloseableHttpClient httpClient = HttpClients.createDefault();
-        CloseableHttpResponse response = null;
-        String resultString = "";
-
-        try {
-            // 创建Http Post请求
-            HttpPost httpPost = new HttpPost(url);
-
-            if (paramMap != null) {
-                //构造json格式数据
-                JSONObject jsonObject = new JSONObject();
-                for (Map.Entry<String, String> param : paramMap.entrySet()) {
-                    jsonObject.put(param.getKey(),param.getValue());
-                }
-                StringEntity entity = new StringEntity(jsonObject.toString(),"utf-8");
-                //设置请求编码
-                entity.setContentEncoding("utf-8");
-                //设置数据类型
-                entity.setContentType("application/json");
-                httpPost.setEntity(entity);
+    public String doPost4Json(String url, Map<String, String> paramMap) throws IOException {
+        HttpPost httpPost = new HttpPost(url);
+        if (paramMap != null) {
+            //构造json格式数据
+            JSONObject jsonObject = new JSONObject();
+            for (Map.Entry<String, String> param : paramMap.entrySet()) {
+                jsonObject.put(param.getKey(), param.getValue());
             }
+            httpPost.setEntity(new StringEntity(jsonObject.toString(), ContentType.APPLICATION_JSON));
+        }
+        return execute(httpPost, response -> readBody(response.getEntity()));
+    }
+
+    /**
+     * 执行请求并以流的方式处理响应（handler 中读取 response.getEntity().getContent()），
+     * handler 返回后响应体被消费完、连接归还连接池
+     */
+    public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> handler) throws IOException {
+        return httpClient.execute(request, handler);
+    }
 
-            httpPost.setConfig(builderRequestConfig());
+    public CompletableFuture<String> doGetAsync(String url, Map<String, String> paramMap) {
+        return CompletableFuture.supplyAsync(() -> doGet(url, paramMap), asyncExecutor);
+    }
 
-            // 执行http请求
-            response = httpClient.execute(httpPost);
+    public CompletableFuture<String> doPostAsync(String url, Map<String, String> paramMap) {
+        return supplyAsync(() -> doPost(url, paramMap));
+    }
 
-            resultString = EntityUtils.toString(response.getEntity(), "UTF-8");
-        } catch (Exception e) {
-            throw e;
-        } finally {
+    public CompletableFuture<String> doPost4JsonAsync(String url, Map<String, String> paramMap) {
+        return supplyAsync(() -> doPost4Json(url, paramMap));
+    }
+
+    public <T> CompletableFuture<T> executeAsync(HttpUriRequest request, ResponseHandler<? extends T> handler) {
+        return supplyAsync(() -> execute(request, handler));
+    }
+
+    /**
+     * 连接池整体状态：leased（使用中）、available（空闲可复用）、pending（等待连接）、max
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * 各路由的连接池状态，key 为 scheme://host:port
+     */
+    public Map<String, PoolStats> getRouteStats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            stats.put(route.getTargetHost().toURI(), connectionManager.getStats(route));
+        }
+        return stats;
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+        if (asyncExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * 边读边累计长度，超过 maxResponseBytes 时中止（不把超大响应读进内存）
+     */
+    private String readBody(HttpEntity entity) throws IOException {
+        if (entity == null) {
+            return "";
+        }
+        long limit = properties.getMaxResponseBytes();
+        if (entity.getContentLength() > limit) {
+            throw new IOException("响应体过大: " + entity.getContentLength() + " bytes");
+        }
+        ContentType contentType = ContentType.get(entity);
+        Charset charset = contentType == null || contentType.getCharset() == null
+                ? StandardCharsets.UTF_8 : contentType.getCharset();
+        try (InputStream in = entity.getContent()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(
+                    entity.getContentLength() > 0 ? (int) entity.getContentLength() : 4096);
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > limit) {
+                    throw new IOException("响应体超过 " + limit + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toString(charset);
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(IoSupplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                response.close();
+                return supplier.get();
             } catch (IOException e) {
-                e.printStackTrace();
+                throw new UncheckedIOException(e);
+            }
+        }, asyncExecutor);
+    }
+
+    private RequestConfig builderRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .setSocketTimeout((int) properties.getSocketTimeout().toMillis()).build();
+    }
+
+    private static URI uri(String url, Map<String, String> paramMap) throws URISyntaxException {
+        URIBuilder builder = new URIBuilder(url);
+        if (paramMap != null) {
+            for (Map.Entry<String, String> param : paramMap.entrySet()) {
+                builder.addParameter(param.getKey(), param.getValue());
             }
         }
+        return builder.build();
+    }
 
-        return resultString;
+    /**
+     * 与 HttpClient 为请求计算出的路由一致：端口补全为协议默认端口，https 为安全路由
+     */
+    static HttpRoute route(String target) {
+        HttpHost host = HttpHost.create(target);
+        boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+        int port = host.getPort() > 0 ? host.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(host.getHostName(), port, host.getSchemeName()), null, secure);
     }
-    private static RequestConfig builderRequestConfig() {
-        return RequestConfig.custom()
-                .setConnectTimeout(TIMEOUT_MSEC)
-                .setConnectionRequestTimeout(TIMEOUT_MSEC)
-                .setSocketTimeout(TIMEOUT_MSEC).build();
+
+    private static Executor asyncExecutor(HttpClientProperties properties) {
+        if (properties.isAsyncVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("http-async-vt-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(properties.getAsyncWorkers(), r -> {
+            Thread thread = new Thread(r, "http-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
+    @FunctionalInterface
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
 }
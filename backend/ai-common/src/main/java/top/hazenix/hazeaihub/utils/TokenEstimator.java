@@ -0,0 +1,57 @@
+package top.hazenix.hazeaihub.utils;
+
+/**
+ * @description: token 数量估算（不依赖具体模型的分词器）
+ * 中日韩字符按 1 个 token 计，其余字符按约 4 个字符 1 个 token 计，偏保守，用于上下文窗口的预算控制
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public class TokenEstimator {
+
+    /**
+     * 每条消息的固定开销（role、分隔符等）
+     */
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * 估算一段文本的 token 数
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int cjk = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                cjk++;
+            } else {
+                other++;
+            }
+        }
+        return cjk + (other + 3) / 4;
+    }
+
+    /**
+     * 估算一条消息（内容 + 固定开销）的 token 数
+     */
+    public static int estimateMessage(String content) {
+        return estimate(content) + MESSAGE_OVERHEAD;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        return (codePoint >= 0x4E00 && codePoint <= 0x9FFF)     // CJK 统一汉字
+                || (codePoint >= 0x3400 && codePoint <= 0x4DBF) // 扩展 A
+                || (codePoint >= 0x3000 && codePoint <= 0x30FF) // 中文标点、假名
+                || (codePoint >= 0xAC00 && codePoint <= 0xD7AF) // 韩文
+                || (codePoint >= 0xF900 && codePoint <= 0xFAFF) // 兼容汉字
+                || (codePoint >= 0xFF00 && codePoint <= 0xFFEF) // 全角字符
+                || (codePoint >= 0x20000 && codePoint <= 0x2FA1F); // 扩展 B 及以后
+    }
+}
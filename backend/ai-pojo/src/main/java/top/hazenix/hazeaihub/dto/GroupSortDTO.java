@@ -0,0 +1,22 @@
+package top.hazenix.hazeaihub.dto;
+
+import io.swagger.annotations.ApiModelProperty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSortDTO {
+    @ApiModelProperty(value = "分组id", example = "1")
+    @NotNull(message = "分组ID不能为空")
+    private Long id;
+
+    @ApiModelProperty(value = "分组排序", example = "0")
+    @NotNull(message = "分组排序不能为空")
+    private Integer sort;
+}
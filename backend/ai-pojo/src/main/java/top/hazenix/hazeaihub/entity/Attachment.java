@@ -0,0 +1,45 @@
+package top.hazenix.hazeaihub.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("attachment")
+public class Attachment {
+
+    @ApiModelProperty(value = "附件id[主键]")
+    private Long id;
+
+    @ApiModelProperty(value = "消息id[外键]，上传时还没有消息可为空")
+    private Long messageId;
+
+    @ApiModelProperty(value = "原始文件名")
+    private String fileName;
+
+    @ApiModelProperty(value = "MIME 类型")
+    private String mimeType;
+
+    @ApiModelProperty(value = "文件大小（字节）")
+    private Long fileSize;
+
+    @ApiModelProperty(value = "存储路径（对象存储URL），内容相同的附件共用同一个对象")
+    private String storagePath;
+
+    @ApiModelProperty(value = "内容哈希（SHA-256，十六进制小写）")
+    private String sha256;
+
+    @ApiModelProperty(value = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+}
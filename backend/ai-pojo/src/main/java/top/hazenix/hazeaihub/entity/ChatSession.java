@@ -27,6 +27,9 @@ public class ChatSession {
     @NotNull(message = "用户ID不能为空")
     private Long userId;
 
+    @ApiModelProperty(value = "分组id[未分组时为空]")
+    private Long groupId;
+
     @ApiModelProperty(value = "会话类型")
     private String type;
 
@@ -36,6 +39,15 @@ public class ChatSession {
     @ApiModelProperty(value = "会话状态[true:正常 | false:已删除]")
     private Boolean status;
 
+    @ApiModelProperty(value = "滚动摘要[较早的对话被压缩后的内容]")
+    private String summary;
+
+    @ApiModelProperty(value = "摘要覆盖到的最后一条消息id")
+    private Long summaryUntilId;
+
+    @ApiModelProperty(value = "最后一条消息的预览[截断后的内容]")
+    private String lastMessagePreview;
+
     @ApiModelProperty(value = "最后活跃时间")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime lastActiveAt;
@@ -1,6 +1,7 @@
 package top.hazenix.hazeaihub.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.baomidou.mybatisplus.annotation.TableName;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@TableName("\"group\"")
 public class Group {
     @ApiModelProperty(value = "分组id[主键]")
     private Long id;
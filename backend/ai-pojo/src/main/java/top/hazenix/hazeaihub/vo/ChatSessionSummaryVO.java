@@ -0,0 +1,38 @@
+package top.hazenix.hazeaihub.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @description: 侧边栏会话列表的一项，只包含渲染列表需要的字段（不含摘要等大字段）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSessionSummaryVO {
+    @ApiModelProperty(value = "会话id", example = "1")
+    private Long id;
+
+    @ApiModelProperty(value = "会话标题")
+    private String title;
+
+    @ApiModelProperty(value = "分组id[未分组时为空]", example = "1")
+    private Long groupId;
+
+    @ApiModelProperty(value = "最后活跃时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastActiveAt;
+
+    @ApiModelProperty(value = "最后一条消息的预览")
+    private String lastMessagePreview;
+}
@@ -0,0 +1,27 @@
+package top.hazenix.hazeaihub.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * @description: 本地缓存的失效广播通道：一个节点修改数据后发布失效消息，所有节点（包括自己）上订阅了该缓存的监听器都会收到
+ * 实现：LocalCacheInvalidationChannel（单节点 / 测试）、PostgresCacheInvalidationChannel（LISTEN/NOTIFY，多节点）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * 发布失效消息
+     * @param cacheName 缓存名
+     * @param key 失效的 key
+     */
+    void publish(String cacheName, String key);
+
+    /**
+     * 订阅某个缓存的失效消息
+     * @param cacheName 缓存名
+     * @param listener 收到失效的 key；为 null 时表示可能丢失过消息（如监听连接重连），需要清空整个缓存
+     */
+    void subscribe(String cacheName, Consumer<String> listener);
+}
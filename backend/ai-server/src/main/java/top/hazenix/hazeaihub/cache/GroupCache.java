@@ -0,0 +1,87 @@
+package top.hazenix.hazeaihub.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import top.hazenix.hazeaihub.entity.Group;
+import top.hazenix.hazeaihub.properties.GroupCacheProperties;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @description: 按用户缓存分组列表（侧边栏每次切换页面都会查询分组）
+ * 分组增删改后调用 evict：本节点立即失效，并通过 CacheInvalidationChannel 通知其他节点；ttl 兜底丢失的通知。
+ * 指标 cache.gets 等以 cache=group.list 标签暴露，命中率为 cache.hit.ratio{cache=group.list}
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+public class GroupCache {
+
+    public static final String NAME = "group.list";
+
+    private final Cache<Long, List<Group>> cache;
+    private final CacheInvalidationChannel invalidationChannel;
+
+    public GroupCache(GroupCacheProperties properties,
+                      CacheInvalidationChannel invalidationChannel,
+                      MeterRegistry meterRegistry) {
+        this.invalidationChannel = invalidationChannel;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxUsers())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", NAME)
+                .description("分组列表缓存命中率（启动以来）")
+                .register(meterRegistry);
+        invalidationChannel.subscribe(NAME, this::onInvalidated);
+    }
+
+    /**
+     * 获取用户的分组列表，未命中时通过 loader 从数据库加载并缓存；返回的列表不可修改
+     */
+    public List<Group> get(Long userId, Function<Long, List<Group>> loader) {
+        return cache.get(userId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * 用户的分组有变化（需在数据库修改之后调用）；在事务中调用时等事务提交后再失效，
+     * 避免提交前有请求把旧数据重新加载进缓存
+     */
+    public void evict(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidationChannel.publish(NAME, String.valueOf(userId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidationChannel.publish(NAME, String.valueOf(userId));
+            }
+        });
+    }
+
+    private void onInvalidated(String key) {
+        if (key == null) {
+            cache.invalidateAll();
+            return;
+        }
+        try {
+            cache.invalidate(Long.valueOf(key));
+        } catch (NumberFormatException e) {
+            log.warn("无效的分组缓存失效 key: {}", key);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package top.hazenix.hazeaihub.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @description: 进程内的失效广播：发布时同步通知本 JVM 中的监听器，适用于单节点部署和测试
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+public class LocalCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String cacheName, String key) {
+        dispatch(cacheName, key);
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<String> listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 通知某个缓存的所有监听器，单个监听器出错不影响其他监听器
+     */
+    void dispatch(String cacheName, String key) {
+        for (Consumer<String> listener : listeners.getOrDefault(cacheName, List.of())) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                log.warn("缓存失效处理失败 - cache: {}, key: {}", cacheName, key, e);
+            }
+        }
+    }
+
+    /**
+     * 通知所有缓存的监听器清空（key 为 null）
+     */
+    void dispatchAll() {
+        listeners.keySet().forEach(cacheName -> dispatch(cacheName, null));
+    }
+}
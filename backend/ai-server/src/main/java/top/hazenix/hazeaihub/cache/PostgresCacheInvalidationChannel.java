@@ -0,0 +1,137 @@
+package top.hazenix.hazeaihub.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import top.hazenix.hazeaihub.properties.CacheInvalidationProperties;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * @description: 基于 PostgreSQL LISTEN/NOTIFY 的失效广播，多节点部署时不需要额外的消息中间件
+ * - 发布时先同步通知本节点的监听器，再通过 pg_notify 通知其他节点；本节点发出的通知回来时按节点ID忽略
+ * - 后台线程独占连接池中的一个连接执行 LISTEN；连接断开重连后，断开期间的通知可能已丢失，通知所有监听器清空缓存
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+public class PostgresCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final char SEPARATOR = '\n';
+
+    private final DataSource dataSource;
+    private final CacheInvalidationProperties properties;
+    private final LocalCacheInvalidationChannel local = new LocalCacheInvalidationChannel();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Thread listener;
+
+    private volatile boolean running = true;
+
+    public PostgresCacheInvalidationChannel(DataSource dataSource, CacheInvalidationProperties properties) {
+        if (!CHANNEL_NAME.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("无效的通道名: " + properties.getChannel());
+        }
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.listener = new Thread(this::listen, "cache-invalidation-listener");
+        this.listener.setDaemon(true);
+    }
+
+    public void start() {
+        listener.start();
+    }
+
+    public void close() throws InterruptedException {
+        // 监听线程最多等待一个 pollTimeout 就会检查到停机标志
+        running = false;
+        listener.join(properties.getPollTimeout().toMillis() * 2);
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        local.dispatch(cacheName, key);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, properties.getChannel());
+            statement.setString(2, nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+            statement.execute();
+        } catch (SQLException e) {
+            // 其他节点只能等缓存过期
+            log.warn("发布缓存失效通知失败 - cache: {}, key: {}, 消息: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<String> listener) {
+        local.subscribe(cacheName, listener);
+    }
+
+    private void listen() {
+        boolean reconnected = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("LISTEN " + properties.getChannel());
+                    }
+                    if (reconnected) {
+                        local.dispatchAll();
+                    }
+                    log.info("开始监听缓存失效通知: {}", properties.getChannel());
+                    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                    int timeoutMillis = (int) Math.max(1, properties.getPollTimeout().toMillis());
+                    while (running) {
+                        PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                handle(notification.getParameter());
+                            }
+                        }
+                    }
+                } finally {
+                    // 连接会回到连接池，取消监听
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("UNLISTEN *");
+                    } catch (SQLException ignored) {
+                        // 连接已断开
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("缓存失效监听连接断开，{} 后重连: {}", properties.getReconnectDelay(), e.getMessage());
+                reconnected = true;
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 通知内容：{节点ID}\n{缓存名}\n{key}
+     */
+    private void handle(String payload) {
+        String[] parts = payload.split(String.valueOf(SEPARATOR), 3);
+        if (parts.length < 3) {
+            log.warn("无法解析的缓存失效通知: {}", payload);
+            return;
+        }
+        if (!nodeId.equals(parts[0])) {
+            local.dispatch(parts[1], parts[2]);
+        }
+    }
+}
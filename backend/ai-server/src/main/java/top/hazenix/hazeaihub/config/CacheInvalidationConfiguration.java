@@ -0,0 +1,34 @@
+package top.hazenix.hazeaihub.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.hazenix.hazeaihub.cache.CacheInvalidationChannel;
+import top.hazenix.hazeaihub.cache.LocalCacheInvalidationChannel;
+import top.hazenix.hazeaihub.cache.PostgresCacheInvalidationChannel;
+import top.hazenix.hazeaihub.properties.CacheInvalidationProperties;
+
+import javax.sql.DataSource;
+
+/**
+ * @description: 本地缓存失效广播，ai.cache-invalidation.type 选择实现：local（默认，单节点）或 postgres（多节点）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Configuration
+public class CacheInvalidationConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ai.cache-invalidation", name = "type", havingValue = "local", matchIfMissing = true)
+    public CacheInvalidationChannel localCacheInvalidationChannel() {
+        return new LocalCacheInvalidationChannel();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "ai.cache-invalidation", name = "type", havingValue = "postgres")
+    public PostgresCacheInvalidationChannel postgresCacheInvalidationChannel(DataSource dataSource,
+                                                                             CacheInvalidationProperties properties) {
+        return new PostgresCacheInvalidationChannel(dataSource, properties);
+    }
+}
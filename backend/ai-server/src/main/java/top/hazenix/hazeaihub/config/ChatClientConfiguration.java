@@ -1,20 +1,30 @@
 package top.hazenix.hazeaihub.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.memory.InMemoryChatMemory;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import top.hazenix.hazeaihub.memory.BoundedChatMemory;
+import top.hazenix.hazeaihub.persistence.ChatTurnWriteBehind;
+import top.hazenix.hazeaihub.properties.ChatMemoryProperties;
+import top.hazenix.hazeaihub.service.IChatMessageService;
+import top.hazenix.hazeaihub.service.IChatSessionService;
 
 @Configuration
 public class ChatClientConfiguration {
 
+    // 有界的会话记忆：限制每个会话的消息数和总内存，空闲会话自动淘汰
     @Bean
-    public ChatMemory chatMemory(){
-        return new InMemoryChatMemory();
+    public ChatMemory chatMemory(ChatMemoryProperties chatMemoryProperties,
+                                 IChatMessageService chatMessageService,
+                                 IChatSessionService chatSessionService,
+                                 ChatTurnWriteBehind chatTurnWriteBehind,
+                                 MeterRegistry meterRegistry){
+        return new BoundedChatMemory(chatMemoryProperties, chatMessageService, chatSessionService, chatTurnWriteBehind, meterRegistry);
     }
 
     // 注意参数中的model就是使用的模型，用什么模型就指定什么模型
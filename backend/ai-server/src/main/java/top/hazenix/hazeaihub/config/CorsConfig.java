@@ -2,11 +2,14 @@ package top.hazenix.hazeaihub.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import top.hazenix.hazeaihub.controller.HistoryController;
 
 @Configuration
+@Profile("!reactive")
 public class CorsConfig {
     @Bean
     public CorsFilter corsFilter(){
@@ -15,6 +18,7 @@ public class CorsConfig {
         corsConfiguration.addAllowedOrigin("*");//1. 设置访问源地址
         corsConfiguration.addAllowedHeader("*");//2. 设置访问源请求头
         corsConfiguration.addAllowedMethod("*");//3. 设置访问源请求方法
+        corsConfiguration.addExposedHeader(HistoryController.NEXT_CURSOR_HEADER);//允许前端读取分页游标响应头
         source.registerCorsConfiguration("/**",corsConfiguration);//4. 对接口配置跨域设置
         return new CorsFilter(source);
     }
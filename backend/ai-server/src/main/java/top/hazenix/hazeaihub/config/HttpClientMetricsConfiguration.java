@@ -0,0 +1,42 @@
+package top.hazenix.hazeaihub.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.pool.PoolStats;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.hazenix.hazeaihub.utils.HttpClientUtil;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * @description: HttpClientUtil 连接池指标：http.client.pool.connections（state=leased/available/pending）和 http.client.pool.max，
+ * available 长期为 0 且 pending 上升说明连接池不够用；leased + available 稳定不增长说明连接在被复用
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Configuration
+public class HttpClientMetricsConfiguration {
+
+    @Bean
+    public MeterBinder httpClientPoolMetrics(HttpClientUtil httpClientUtil) {
+        return registry -> {
+            gauge(registry, httpClientUtil, "leased", PoolStats::getLeased);
+            gauge(registry, httpClientUtil, "available", PoolStats::getAvailable);
+            gauge(registry, httpClientUtil, "pending", PoolStats::getPending);
+            Gauge.builder("http.client.pool.max", httpClientUtil, util -> util.getTotalStats().getMax())
+                    .description("HttpClientUtil 连接池最大连接数")
+                    .register(registry);
+        };
+    }
+
+    private static void gauge(MeterRegistry registry, HttpClientUtil httpClientUtil,
+                              String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder("http.client.pool.connections", httpClientUtil, util -> value.applyAsInt(util.getTotalStats()))
+                .tag("state", state)
+                .description("HttpClientUtil 连接池的连接数")
+                .register(registry);
+    }
+}
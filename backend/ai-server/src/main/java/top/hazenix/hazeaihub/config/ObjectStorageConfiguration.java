@@ -0,0 +1,81 @@
+package top.hazenix.hazeaihub.config;
+
+import com.aliyun.oss.ClientBuilderConfiguration;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSClientBuilder;
+import com.aliyuncs.DefaultAcsClient;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.http.HttpClientConfig;
+import com.aliyuncs.profile.DefaultProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import top.hazenix.hazeaihub.properties.AliOssProperties;
+import top.hazenix.hazeaihub.properties.StorageProperties;
+import top.hazenix.hazeaihub.storage.AliOssObjectStorage;
+import top.hazenix.hazeaihub.storage.AliStsCredentialFetcher;
+import top.hazenix.hazeaihub.storage.LocalObjectStorage;
+import top.hazenix.hazeaihub.storage.ObjectStorage;
+import top.hazenix.hazeaihub.storage.StsCredentialCache;
+
+/**
+ * @description: 文件存储配置，ai.storage.type 选择后端：oss（默认）或 local
+ * OSS 客户端为单例，在第一次使用时创建（未配置 OSS 的环境也能正常启动），停机时关闭
+ * 前端直传用的 STS 临时凭证同样共用一个延迟创建的 ACS 客户端，按用户缓存（StsCredentialCache）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Configuration
+public class ObjectStorageConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    @Lazy
+    @ConditionalOnProperty(prefix = "ai.storage", name = "type", havingValue = "oss", matchIfMissing = true)
+    public OSS ossClient(AliOssProperties properties) {
+        log.info("创建 OSS 客户端: {}", properties.getEndpoint());
+        ClientBuilderConfiguration configuration = new ClientBuilderConfiguration();
+        configuration.setMaxConnections(properties.getMaxConnections());
+        configuration.setConnectionTimeout(properties.getConnectionTimeout());
+        configuration.setSocketTimeout(properties.getSocketTimeout());
+        configuration.setIdleConnectionTime(properties.getIdleConnectionTime());
+        return new OSSClientBuilder().build(properties.getEndpoint(),
+                properties.getAccessKeyId(), properties.getAccessKeySecret(), configuration);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "ai.storage", name = "type", havingValue = "oss", matchIfMissing = true)
+    public AliOssObjectStorage aliOssObjectStorage(@Lazy OSS ossClient,
+                                                   AliOssProperties aliOssProperties,
+                                                   StorageProperties storageProperties) {
+        return new AliOssObjectStorage(ossClient, aliOssProperties, storageProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ai.storage", name = "type", havingValue = "local")
+    public ObjectStorage localObjectStorage(StorageProperties properties) {
+        log.info("使用本地文件存储: {}", properties.getLocalRoot());
+        return new LocalObjectStorage(properties.getLocalRoot(), properties.getLocalBaseUrl());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @Lazy
+    public IAcsClient stsAcsClient(AliOssProperties properties) {
+        log.info("创建 STS 客户端: {}", properties.getRegion());
+        DefaultProfile profile = DefaultProfile.getProfile(properties.getRegion(),
+                properties.getAccessKeyId(), properties.getAccessKeySecret());
+        HttpClientConfig httpClientConfig = HttpClientConfig.getDefault();
+        httpClientConfig.setConnectionTimeoutMillis(properties.getConnectionTimeout());
+        httpClientConfig.setReadTimeoutMillis(properties.getSocketTimeout());
+        profile.setHttpClientConfig(httpClientConfig);
+        return new DefaultAcsClient(profile);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public StsCredentialCache stsCredentialCache(@Lazy IAcsClient stsAcsClient, AliOssProperties properties) {
+        return new StsCredentialCache(new AliStsCredentialFetcher(stsAcsClient, properties), properties);
+    }
+}
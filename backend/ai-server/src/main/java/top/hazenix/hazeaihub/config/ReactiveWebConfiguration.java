@@ -0,0 +1,93 @@
+package top.hazenix.hazeaihub.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import top.hazenix.hazeaihub.handler.ChatHandler;
+import top.hazenix.hazeaihub.json.JacksonObjectMapper;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * @description: reactive 配置（--spring.profiles.active=dev,reactive）：WebFlux + Reactor Netty 服务端，会话和消息走 R2DBC，
+ * /api/v1/ai/** 由函数式路由处理，用于和默认的 MVC（Tomcat + JDBC）栈做 A/B 压测。
+ * MVC 的控制器、拦截器和 WebMvcConfiguration 只在默认配置下生效
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfiguration implements WebFluxConfigurer {
+
+    /**
+     * classpath 上同时有 Tomcat，Spring Boot 默认会用 Tomcat 承载 WebFlux，这里显式指定 Reactor Netty
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        log.info("使用 Reactor Netty 作为 WebFlux 服务端");
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * ConnectionFactory（带连接池）由 Spring Boot 按 spring.r2dbc.* 创建
+     */
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * reactive 配置下只提供聊天和创建会话接口；/api/v1/ai/history/**、/api/v1/ai/session/list、
+     * /api/v1/ai/session/{id}（含删除消息）以及分组、附件接口只有 MVC 版本（@Profile("!reactive")），此配置下返回 404
+     */
+    @Bean
+    public RouterFunction<ServerResponse> chatRoutes(ChatHandler chatHandler) {
+        return route(POST("/api/v1/ai/chat"), chatHandler::chat)
+                .andRoute(POST("/api/v1/ai/chat-with-thinking"), chatHandler::chatWithThinking)
+                .andRoute(POST("/api/v1/ai/chat-with-thinking-text"), chatHandler::chatWithThinkingText)
+                .andRoute(POST("/api/v1/ai/session/create"), chatHandler::createSession);
+    }
+
+    /**
+     * 与 CorsConfig 相同的跨域设置，需要在 JWT 校验之前处理预检请求
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CorsWebFilter corsWebFilter() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        CorsConfiguration corsConfiguration = new CorsConfiguration();
+        corsConfiguration.addAllowedOrigin("*");
+        corsConfiguration.addAllowedHeader("*");
+        corsConfiguration.addAllowedMethod("*");
+        source.registerCorsConfiguration("/**", corsConfiguration);
+        return new CorsWebFilter(source);
+    }
+
+    /**
+     * 与 MVC 一致的 JSON 格式（时间格式等）
+     */
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        JacksonObjectMapper objectMapper = new JacksonObjectMapper();
+        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+        configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+    }
+}
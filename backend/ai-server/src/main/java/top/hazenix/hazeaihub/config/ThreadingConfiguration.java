@@ -0,0 +1,51 @@
+package top.hazenix.hazeaihub.config;
+
+import io.micrometer.context.ContextRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import top.hazenix.hazeaihub.context.BaseContext;
+
+/**
+ * @description: 线程模型配置
+ * spring.threads.virtual.enabled=true（需要 JDK 21+ 运行时）时：Tomcat 请求处理和 applicationTaskExecutor（MVC 异步流式输出）由 Spring Boot 切换为虚拟线程，
+ * blockingScheduler 为每个阻塞任务创建一个虚拟线程；否则 blockingScheduler 为有界的弹性线程池。
+ * BaseContext 注册到 context-propagation，配合 spring.reactor.context-propagation=auto，Reactor 流在任意线程上都能读到当前用户ID
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Configuration
+public class ThreadingConfiguration {
+
+    /**
+     * 把 BaseContext 注册到 context-propagation；自动传播由 spring.reactor.context-propagation=auto 开启
+     */
+    @PostConstruct
+    public void registerBaseContextAccessor() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(BaseContext.KEY,
+                BaseContext::getCurrentId, BaseContext::setCurrentId, BaseContext::removeCurrentId);
+    }
+
+    /**
+     * 执行阻塞调用（JDBC / MyBatis）的 Scheduler，避免在 Reactor Netty 的 I/O 线程上访问数据库
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("阻塞调用使用虚拟线程执行");
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("blocking-vt-");
+            executor.setVirtualThreads(true);
+            return Schedulers.fromExecutor(executor);
+        }
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "blocking");
+    }
+}
@@ -1,17 +1,92 @@
 package top.hazenix.hazeaihub.config;
 
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContextBuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import top.hazenix.hazeaihub.properties.UpstreamHttpProperties;
 
+import java.util.function.Function;
 
 
+/**
+ * @description: 上游 HTTP 客户端配置
+ * 所有 WebClient（包括 Spring AI 的 OpenAI 客户端）共用同一个 ConnectionProvider 和 HttpClient，
+ * 连接池大小、排队、空闲回收、超时、TLS 会话复用和 HTTP/2 均由 ai.upstream.http 配置
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
 @Configuration
+@RequiredArgsConstructor
 public class WebClientConfig {
 
+    private final UpstreamHttpProperties properties;
+
+    /**
+     * 共享连接池，开启 metrics 后指标名为 reactor.netty.connection.provider.*
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider() {
+        return ConnectionProvider.builder(properties.getPoolName())
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictInBackground())
+                .metrics(properties.isMetricsEnabled())
+                .build();
+    }
+
+    @Bean
+    public HttpClient upstreamHttpClient(ConnectionProvider upstreamConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(properties.getResponseTimeout())
+                // 上游的 uri 是固定的几个接口路径，直接作为标签不会造成标签爆炸
+                .metrics(properties.isMetricsEnabled(), Function.identity());
+
+        // SslContext 只构建一次并在所有连接间共享，会话缓存才能命中
+        if (properties.isHttp2()) {
+            Http2SslContextSpec sslContextSpec = Http2SslContextSpec.forClient().configure(this::configureTlsSession);
+            return httpClient
+                    .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                    .secure(spec -> spec.sslContext(sslContextSpec));
+        }
+        Http11SslContextSpec sslContextSpec = Http11SslContextSpec.forClient().configure(this::configureTlsSession);
+        return httpClient.secure(spec -> spec.sslContext(sslContextSpec));
+    }
+
+    @Bean
+    public ReactorClientHttpConnector upstreamHttpConnector(HttpClient upstreamHttpClient) {
+        return new ReactorClientHttpConnector(upstreamHttpClient);
+    }
+
+    /**
+     * 与 Spring Boot 默认的 WebClient.Builder 一致使用原型作用域，
+     * 每个注入点拿到独立的 builder，调用 baseUrl 等方法不会互相影响，但底层连接器是共享的
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+    public WebClient.Builder webClientBuilder(ReactorClientHttpConnector upstreamHttpConnector) {
+        return WebClient.builder().clientConnector(upstreamHttpConnector);
+    }
+
+    private void configureTlsSession(SslContextBuilder builder) {
+        builder.sessionCacheSize(properties.getTlsSessionCacheSize())
+                .sessionTimeout(properties.getTlsSessionTimeout().toSeconds());
     }
 }
@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
@@ -28,6 +31,7 @@ import java.util.List;
  * 配置类，注册web层相关组件
  */
 @Configuration
+@Profile("!reactive")
 @Slf4j
 @RequiredArgsConstructor
 public class WebMvcConfiguration extends WebMvcConfigurationSupport {
@@ -37,6 +41,9 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
 
     private final JwtTokenUserInterceptor jwtTokenUserInterceptor;
 
+    // Spring Boot 提供的 applicationTaskExecutor，开启虚拟线程时为虚拟线程执行器
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
     /**
      * 注册自定义拦截器
      *
@@ -52,6 +59,16 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
 
     }
 
+    /**
+     * 异步请求（Flux 流式输出）的执行器；继承 WebMvcConfigurationSupport 后 Spring Boot 不会自动设置，需要在这里指定
+     *
+     * @param configurer
+     */
+    @Override
+    protected void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(applicationTaskExecutor);
+    }
+
     /**
      * 通过knife4j生成接口文档的相关配置
      * @return
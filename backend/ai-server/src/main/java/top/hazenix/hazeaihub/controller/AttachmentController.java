@@ -0,0 +1,63 @@
+package top.hazenix.hazeaihub.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import top.hazenix.hazeaihub.constant.MessageConstant;
+import top.hazenix.hazeaihub.context.BaseContext;
+import top.hazenix.hazeaihub.entity.Attachment;
+import top.hazenix.hazeaihub.result.Result;
+import top.hazenix.hazeaihub.service.IAttachmentService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @description: 附件相关接口
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/attachment")
+@RequiredArgsConstructor
+@Slf4j
+@Api("附件相关接口")
+public class AttachmentController {
+    private final IAttachmentService attachmentService;
+
+    /**
+     * @description: 上传附件（内容相同的文件只存储一份）
+     * @param: file
+     * @version: 0.0.1
+     * @return
+     */
+    @PostMapping
+    @ApiOperation("上传附件")
+    public Result<Attachment> upload(@RequestParam("file") MultipartFile file) {
+        log.info("上传附件:{}, {} 字节", file.getOriginalFilename(), file.getSize());
+        try (InputStream in = file.getInputStream()) {
+            return Result.success(attachmentService.upload(in, file.getOriginalFilename(), file.getContentType()));
+        } catch (IOException e) {
+            log.error("读取上传文件失败", e);
+            return Result.error(MessageConstant.UPLOAD_FAILED);
+        }
+    }
+
+    /**
+     * @description: 按内容哈希查询当前用户自己的附件，已存在时客户端无需再上传（不返回其他用户的附件）
+     * @param: sha256
+     * @version: 0.0.1
+     * @return
+     */
+    @GetMapping("/sha256/{sha256}")
+    @ApiOperation("按内容哈希查询附件")
+    public Result<Attachment> findBySha256(@PathVariable String sha256) {
+        return Result.success(attachmentService.findBySha256(sha256, BaseContext.getCurrentId()));
+    }
+}
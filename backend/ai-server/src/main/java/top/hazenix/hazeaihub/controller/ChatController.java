@@ -3,13 +3,16 @@ package top.hazenix.hazeaihub.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
 import top.hazenix.hazeaihub.service.IBailianThinkingService;
+import top.hazenix.hazeaihub.stream.StreamEvent;
+import top.hazenix.hazeaihub.stream.StreamMetrics;
+import top.hazenix.hazeaihub.stream.ThinkingTextFramer;
 
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @description: 对话相关接口
@@ -19,6 +22,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @return
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/ai")
 @RequiredArgsConstructor
 public class ChatController {
@@ -46,7 +50,9 @@ public class ChatController {
      * {"type":"thinking","content":"然后考虑..."}
      * {"type":"answer","content":"根据分析，答案是..."}
      * {"type":"answer","content":"..."}
+     * {"type":"done","finish_reason":"stop"}
      * ```
+     * 上游返回用量时会有 usage 行，出错时以 {"type":"error","message":"..."} 结束
      * 
      * @param prompt 用户输入
      * @param chatId 会话ID，用于管理会话上下文（可选）
@@ -54,12 +60,13 @@ public class ChatController {
      * @param thinkingBudget 思考过程的最大 token 数（可选，默认无限制）
      */
     @PostMapping(value = "/chat-with-thinking", produces = MediaType.APPLICATION_NDJSON_VALUE)
-    public Flux<Map<String, String>> chatWithThinking(
+    public Flux<StreamEvent> chatWithThinking(
             @RequestParam String prompt,
             @RequestParam(required = false) String chatId,
             @RequestParam(required = false) Boolean enableThinking,
             @RequestParam(required = false) Integer thinkingBudget) {
-        return bailianThinkingService.chatWithThinking(prompt, enableThinking, thinkingBudget, chatId);
+        return bailianThinkingService.chatWithThinking(prompt, enableThinking, thinkingBudget, chatId)
+                .contextWrite(Context.of(StreamMetrics.ENDPOINT_KEY, "chat-with-thinking"));
     }
 
     /**
@@ -77,29 +84,14 @@ public class ChatController {
             @RequestParam(required = false) String chatId,
             @RequestParam(required = false) Boolean enableThinking,
             @RequestParam(required = false) Integer thinkingBudget) {
-        
-        AtomicBoolean thinkingStarted = new AtomicBoolean(false);
-
-        return bailianThinkingService.chatWithThinking(prompt, enableThinking, thinkingBudget, chatId)
-                .map(chunk -> {
-                    String type = chunk.get("type");
-                    String content = chunk.get("content");
-                    
-                    if ("thinking".equals(type)) {
-                        if (thinkingStarted.compareAndSet(false, true)) {
-                            return "<think>" + content;
-                        }
-                        return content;
-                    } else if ("answer".equals(type)) {
-                        if (thinkingStarted.getAndSet(false)) {
-                            return "</think>" + content;
-                        }
-                        return content;
-                    }
-                    return "";
+        return Flux.defer(() -> {
+                    ThinkingTextFramer framer = new ThinkingTextFramer();
+                    return bailianThinkingService.chatWithThinking(prompt, enableThinking, thinkingBudget, chatId)
+                            .map(framer::frame);
                 })
                 .filter(s -> !s.isEmpty())
-                .switchIfEmpty(Flux.just("[ERROR]未收到任何响应数据，请查看服务器日志了解详情[/ERROR]"));
+                .switchIfEmpty(Flux.just("[ERROR]未收到任何响应数据，请查看服务器日志了解详情[/ERROR]"))
+                .contextWrite(Context.of(StreamMetrics.ENDPOINT_KEY, "chat-with-thinking-text"));
     }
 }
 
@@ -3,10 +3,14 @@ package top.hazenix.hazeaihub.controller;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import top.hazenix.hazeaihub.dto.GroupDTO;
+import top.hazenix.hazeaihub.dto.GroupSortDTO;
 import top.hazenix.hazeaihub.entity.Group;
 import top.hazenix.hazeaihub.result.Result;
 import top.hazenix.hazeaihub.service.IGroupService;
@@ -21,9 +25,11 @@ import java.util.List;
  * @return
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/group")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 @Api("分组相关接口")
 public class GroupController {
     private final IGroupService groupService;
@@ -84,5 +90,45 @@ public class GroupController {
         return Result.success();
     }
 
+    /**
+     * @description: 批量修改分组排序（拖拽排序后一次提交所有分组的新排序号）
+     * @param: [{id, sort}]
+     * @version: 0.0.1
+     * @return
+     */
+    @PutMapping("/sort")
+    @ApiOperation("批量修改分组排序")
+    public Result sortGroups(@NotEmpty(message = "分组排序不能为空") @RequestBody List<@Valid GroupSortDTO> items) {
+        log.info("批量修改分组排序:{}", items.size());
+        groupService.sortGroups(items);
+        return Result.success();
+    }
 
+    /**
+     * @description: 批量删除分组，分组下的会话移出分组
+     * @param: ids 分组ID
+     * @version: 0.0.1
+     * @return
+     */
+    @DeleteMapping
+    @ApiOperation("批量删除分组")
+    public Result deleteGroups(@NotEmpty(message = "分组ID不能为空") @RequestParam List<Long> ids) {
+        log.info("批量删除分组:{}", ids);
+        groupService.deleteGroups(ids);
+        return Result.success();
+    }
+
+    /**
+     * @description: 把多个会话移入分组
+     * @param: sessionIds 会话ID
+     * @version: 0.0.1
+     * @return
+     */
+    @PutMapping("/{id}/sessions")
+    @ApiOperation("会话批量移入分组")
+    public Result moveSessions(@PathVariable Long id, @NotEmpty(message = "会话ID不能为空") @RequestBody List<Long> sessionIds) {
+        log.info("会话批量移入分组:{}, 会话数:{}", id, sessionIds.size());
+        groupService.moveSessions(id, sessionIds);
+        return Result.success();
+    }
 }
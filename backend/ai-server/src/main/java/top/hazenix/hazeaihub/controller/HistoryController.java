@@ -1,18 +1,113 @@
 package top.hazenix.hazeaihub.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import top.hazenix.hazeaihub.context.BaseContext;
+import top.hazenix.hazeaihub.json.JacksonObjectMapper;
+import top.hazenix.hazeaihub.result.CursorPage;
+import top.hazenix.hazeaihub.service.IChatMessageService;
+import top.hazenix.hazeaihub.service.IChatSessionService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * @description: 历史记录 相关接口
+ * 会话列表和消息都使用 keyset 游标分页（不使用 OFFSET）；响应体保持前端需要的 JSON 数组格式，
+ * 会话列表的下一页游标放在响应头 X-Next-Cursor 中，消息列表以最后一条消息的 id 作为下一页的 afterId
  * @author: Hazenix
  * @version: 0.0.1
  * @date: 2026/1/15
  * @return
  */
+@Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/ai/history")
 @RequiredArgsConstructor
 public class HistoryController {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final ObjectMapper OBJECT_MAPPER = new JacksonObjectMapper();
+    // 逐条写入时不刷新，由 JsonGenerator 的缓冲区写满后再写出
+    private static final ObjectWriter MESSAGE_WRITER = OBJECT_MAPPER.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final IChatSessionService chatSessionService;
+    private final IChatMessageService chatMessageService;
+
+    /**
+     * 查询当前用户某类会话的ID列表，按最后活跃时间倒序
+     * @param type 会话类型 (chat/pdf/game/service)
+     * @param cursor 上一页响应头 X-Next-Cursor 的值，为空时查第一页
+     * @param limit 每页条数（最大 100）
+     * @return 会话ID数组
+     */
+    @GetMapping("/{type}")
+    public ResponseEntity<List<String>> listSessions(@PathVariable String type,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") Integer limit) {
+        CursorPage<Long> page;
+        try {
+            page = chatSessionService.pageSessionIds(BaseContext.getCurrentId(), type, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> chatIds = page.getRecords().stream().map(String::valueOf).toList();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(chatIds);
+    }
+
+    /**
+     * 按时间正序查询会话消息，边读数据库边写响应，大会话不会整体加载到内存
+     * @param type 会话类型
+     * @param chatId 会话ID
+     * @param afterId 上一页最后一条消息的 id，为空时从第一条开始
+     * @param limit 每页条数（最大 1000），返回条数小于 limit 说明已经是最后一页
+     * @return 消息数组 [{id, sessionId, role, content, createdAt}]
+     */
+    @GetMapping("/{type}/{chatId}")
+    public ResponseEntity<StreamingResponseBody> listMessages(@PathVariable String type,
+                                                              @PathVariable Long chatId,
+                                                              @RequestParam(required = false) Long afterId,
+                                                              @RequestParam(defaultValue = "200") Integer limit) {
+        if (!chatSessionService.isOwnedBy(chatId, BaseContext.getCurrentId(), type)) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                chatMessageService.streamMessages(chatId, afterId, limit, message -> {
+                    try {
+                        MESSAGE_WRITER.writeValue(generator, message);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                log.warn("写出历史消息失败 - chatId: {}, 消息: {}", chatId, e.getMessage());
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -2,10 +2,18 @@ package top.hazenix.hazeaihub.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import top.hazenix.hazeaihub.context.BaseContext;
 import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.result.CursorPage;
 import top.hazenix.hazeaihub.result.Result;
+import top.hazenix.hazeaihub.service.IChatMessageService;
 import top.hazenix.hazeaihub.service.IChatSessionService;
+import top.hazenix.hazeaihub.vo.ChatSessionSummaryVO;
+
+import java.util.List;
 
 /**
  * @description: 会话管理接口
@@ -15,11 +23,13 @@ import top.hazenix.hazeaihub.service.IChatSessionService;
  */
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/ai/session")
 @RequiredArgsConstructor
 public class SessionController {
     
     private final IChatSessionService chatSessionService;
+    private final IChatMessageService chatMessageService;
     
     /**
      * 创建新会话
@@ -42,4 +52,66 @@ public class SessionController {
             return Result.error("创建会话失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 侧边栏会话列表（按最后活跃时间倒序），一次查询返回标题、分组和最后一条消息预览，
+     * 前端不需要再逐个会话查询消息
+     * @param type 会话类型 (chat/pdf/game/service)
+     * @param cursor 上一页返回的 nextCursor，为空时查第一页
+     * @param limit 每页条数（最大 100）
+     * @return 会话列表项和下一页游标
+     */
+    @GetMapping("/list")
+    public Result<CursorPage<ChatSessionSummaryVO>> listSessions(
+            @RequestParam String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") Integer limit) {
+
+        try {
+            return Result.success(chatSessionService.pageSessionSummaries(BaseContext.getCurrentId(), type, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 删除会话（软删除，保留期后由后台任务清理）
+     * @param id 会话ID
+     * @return 会话不存在、已删除或无权限时返回错误
+     */
+    @DeleteMapping("/{id}")
+    public Result<Void> deleteSession(@PathVariable Long id) {
+        if (chatSessionService.deleteSessions(BaseContext.getCurrentId(), List.of(id)) == 0) {
+            return Result.error("会话不存在或无权限删除");
+        }
+        return Result.success();
+    }
+
+    /**
+     * 批量删除会话（软删除），不存在或无权限的会话被忽略
+     * @param ids 会话ID（单次最多 500 个）
+     * @return 实际删除的会话数；ids 为空或超过上限时返回 400
+     */
+    @DeleteMapping
+    public ResponseEntity<Result<Integer>> deleteSessions(@RequestParam(required = false) List<Long> ids) {
+        try {
+            return ResponseEntity.ok(Result.success(chatSessionService.deleteSessions(BaseContext.getCurrentId(), ids)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Result.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 删除会话中的一条消息（软删除），之后不再出现在历史记录和对话上下文中
+     * @param id 会话ID
+     * @param messageId 消息ID
+     * @return 消息不存在、已删除或无权限时返回错误
+     */
+    @DeleteMapping("/{id}/messages/{messageId}")
+    public Result<Void> deleteMessage(@PathVariable Long id, @PathVariable Long messageId) {
+        if (!chatMessageService.deleteMessage(BaseContext.getCurrentId(), id, messageId)) {
+            return Result.error("消息不存在或无权限删除");
+        }
+        return Result.success();
+    }
 }
@@ -0,0 +1,12 @@
+package top.hazenix.hazeaihub.event;
+
+import java.util.Collection;
+
+/**
+ * @description: 会话被删除（含软删除）后发布的事件，缓存等组件据此失效对应数据
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public record ChatSessionDeletedEvent(Collection<Long> sessionIds) {
+}
@@ -0,0 +1,155 @@
+package top.hazenix.hazeaihub.handler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.repository.ChatSessionR2dbcRepository;
+import top.hazenix.hazeaihub.result.Result;
+import top.hazenix.hazeaihub.service.IBailianThinkingService;
+import top.hazenix.hazeaihub.stream.StreamEvent;
+import top.hazenix.hazeaihub.stream.StreamMetrics;
+import top.hazenix.hazeaihub.stream.ThinkingTextFramer;
+
+import java.time.LocalDateTime;
+
+/**
+ * @description: /api/v1/ai/** 的 WebFlux 函数式处理器（reactive 配置），请求参数和返回格式与 ChatController、SessionController 一致
+ * 参数可以放在 query string 或 application/x-www-form-urlencoded 请求体中
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ChatHandler {
+
+    private static final MediaType TEXT_HTML_UTF8 = MediaType.parseMediaType("text/html;charset=utf-8");
+
+    private final ChatClient chatClient;
+    private final IBailianThinkingService bailianThinkingService;
+    private final ChatSessionR2dbcRepository chatSessionRepository;
+
+    /**
+     * 原有的聊天接口（不包含思考过程）
+     */
+    public Mono<ServerResponse> chat(ServerRequest request) {
+        return params(request).flatMap(params -> {
+            String prompt = params.getFirst("prompt");
+            if (prompt == null) {
+                return ServerResponse.badRequest().build();
+            }
+            Flux<String> content = chatClient.prompt()
+                    .user(prompt)
+                    .advisors(a -> a.param(AbstractChatMemoryAdvisor.CHAT_MEMORY_CONVERSATION_ID_KEY, params.getFirst("chatId")))
+                    .stream()
+                    .content();
+            return ServerResponse.ok().contentType(TEXT_HTML_UTF8).body(content, String.class);
+        });
+    }
+
+    /**
+     * 带思考过程的聊天接口（NDJSON 流式返回）
+     */
+    public Mono<ServerResponse> chatWithThinking(ServerRequest request) {
+        return params(request).flatMap(params -> {
+            String prompt = params.getFirst("prompt");
+            if (prompt == null) {
+                return ServerResponse.badRequest().build();
+            }
+            Flux<StreamEvent> events = bailianThinkingService.chatWithThinking(prompt,
+                            booleanParam(params, "enableThinking"), intParam(params, "thinkingBudget"), params.getFirst("chatId"))
+                    .contextWrite(Context.of(StreamMetrics.ENDPOINT_KEY, "chat-with-thinking"));
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(events, StreamEvent.class);
+        });
+    }
+
+    /**
+     * 带思考过程的聊天接口（纯文本流式返回，<think>思考内容</think>回答内容）
+     */
+    public Mono<ServerResponse> chatWithThinkingText(ServerRequest request) {
+        return params(request).flatMap(params -> {
+            String prompt = params.getFirst("prompt");
+            if (prompt == null) {
+                return ServerResponse.badRequest().build();
+            }
+            Boolean enableThinking = booleanParam(params, "enableThinking");
+            Integer thinkingBudget = intParam(params, "thinkingBudget");
+            String chatId = params.getFirst("chatId");
+            Flux<String> text = Flux.defer(() -> {
+                        ThinkingTextFramer framer = new ThinkingTextFramer();
+                        return bailianThinkingService.chatWithThinking(prompt, enableThinking, thinkingBudget, chatId)
+                                .map(framer::frame);
+                    })
+                    .filter(s -> !s.isEmpty())
+                    .switchIfEmpty(Flux.just("[ERROR]未收到任何响应数据，请查看服务器日志了解详情[/ERROR]"))
+                    .contextWrite(Context.of(StreamMetrics.ENDPOINT_KEY, "chat-with-thinking-text"));
+            return ServerResponse.ok().contentType(TEXT_HTML_UTF8).body(text, String.class);
+        });
+    }
+
+    /**
+     * 创建新会话
+     */
+    public Mono<ServerResponse> createSession(ServerRequest request) {
+        return params(request).flatMap(params -> {
+            String userId = params.getFirst("userId");
+            String type = params.getFirst("type");
+            if (userId == null || type == null) {
+                return ServerResponse.badRequest().build();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            ChatSession session = ChatSession.builder()
+                    .userId(Long.valueOf(userId))
+                    .type(type)
+                    .title(params.getFirst("title"))
+                    .status(true)
+                    .lastActiveAt(now)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            return chatSessionRepository.insert(session)
+                    .doOnNext(id -> log.info("创建新会话成功，会话ID: {}, 用户ID: {}, 类型: {}", id, userId, type))
+                    .map(Result::success)
+                    .onErrorResume(e -> {
+                        log.error("创建会话失败", e);
+                        return Mono.just(Result.error("创建会话失败: " + e.getMessage()));
+                    })
+                    .flatMap(result -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(result));
+        });
+    }
+
+    /**
+     * 合并 query string 和表单参数
+     */
+    private static Mono<MultiValueMap<String, String>> params(ServerRequest request) {
+        return request.formData().map(form -> {
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>(request.queryParams());
+            params.addAll(form);
+            return params;
+        });
+    }
+
+    private static Boolean booleanParam(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        return value == null ? null : Boolean.valueOf(value);
+    }
+
+    private static Integer intParam(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        return value == null || value.isEmpty() ? null : Integer.valueOf(value);
+    }
+}
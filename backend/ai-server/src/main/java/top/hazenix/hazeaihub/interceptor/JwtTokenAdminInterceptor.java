@@ -1,15 +1,12 @@
 package top.hazenix.hazeaihub.interceptor;
 
-import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.HandlerInterceptor;
-import top.hazenix.hazeaihub.constant.JwtClaimsConstant;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 import top.hazenix.hazeaihub.context.BaseContext;
 import top.hazenix.hazeaihub.properties.JwtProperties;
-import top.hazenix.hazeaihub.utils.JwtUtil;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,11 +18,13 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 @Slf4j
 @RequiredArgsConstructor
-public class JwtTokenAdminInterceptor implements HandlerInterceptor {
+public class JwtTokenAdminInterceptor implements AsyncHandlerInterceptor {
 
 
     private final JwtProperties jwtProperties;
 
+    private final JwtVerifier jwtVerifier;
+
     /**
      * 校验jwt
      *
@@ -48,11 +47,9 @@ public class JwtTokenAdminInterceptor implements HandlerInterceptor {
 
         //2、校验令牌
         try {
-            log.info("jwt校验:{}", token);
-            Claims claims = JwtUtil.parseJWT(jwtProperties.getUserSecretKey(), token);
-            Long userId = Long.valueOf(claims.get(JwtClaimsConstant.USER_ID).toString());
+            Long userId = jwtVerifier.verify(token);
             BaseContext.setCurrentId(userId);
-            log.info("当前用户id：", userId);
+            log.debug("当前用户id：{}", userId);
             //如果id不为1，就不是管理员，不放行
             if(userId != 1L){
                 return false;
@@ -65,4 +62,17 @@ public class JwtTokenAdminInterceptor implements HandlerInterceptor {
             return false;
         }
     }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        BaseContext.removeCurrentId();
+    }
+
+    /**
+     * 异步请求（流式接口）在请求线程上返回后不会调用 afterCompletion，需要在这里清理，避免用户ID残留在复用的线程上
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        BaseContext.removeCurrentId();
+    }
 }
@@ -1,16 +1,13 @@
 package top.hazenix.hazeaihub.interceptor;
 
-import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.HandlerInterceptor;
-import top.hazenix.hazeaihub.constant.JwtClaimsConstant;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 import top.hazenix.hazeaihub.context.BaseContext;
 import top.hazenix.hazeaihub.properties.JwtProperties;
-import top.hazenix.hazeaihub.utils.JwtUtil;
 
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,11 +19,13 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 @Slf4j
 @RequiredArgsConstructor
-public class JwtTokenUserInterceptor implements HandlerInterceptor {
+public class JwtTokenUserInterceptor implements AsyncHandlerInterceptor {
 
 
     private final JwtProperties jwtProperties;
 
+    private final JwtVerifier jwtVerifier;
+
 //    private final RedisTemplate redisTemplate;
 
     /**
@@ -39,7 +38,7 @@ public class JwtTokenUserInterceptor implements HandlerInterceptor {
      * @throws Exception
      */
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        log.info("JWT User Interceptor 执行: URI = {}", request.getRequestURI());
+        log.debug("JWT User Interceptor 执行: URI = {}", request.getRequestURI());
 
         //判断当前拦截到的是Controller的方法还是其他资源
         if (!(handler instanceof HandlerMethod)) {
@@ -56,12 +55,10 @@ public class JwtTokenUserInterceptor implements HandlerInterceptor {
 
         //2、校验令牌
         try {
-            log.info("jwt校验:{}", token);
-            Claims claims = JwtUtil.parseJWT(jwtProperties.getUserSecretKey(), token);
-            log.info("1");
-            Long userId = Long.valueOf(claims.get(JwtClaimsConstant.USER_ID).toString());
+            // 令牌本身不写日志
+            Long userId = jwtVerifier.verify(token);
             BaseContext.setCurrentId(userId);
-            log.info("当前用户id：{}", userId);
+            log.debug("当前用户id：{}", userId);
 
             //3、通过，放行
             return true;
@@ -92,6 +89,14 @@ public class JwtTokenUserInterceptor implements HandlerInterceptor {
         BaseContext.removeCurrentId();
     }
 
+    /**
+     * 异步请求（流式接口）在请求线程上返回后不会调用 afterCompletion，需要在这里清理，避免用户ID残留在复用的线程上
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        BaseContext.removeCurrentId();
+    }
+
 
 
 
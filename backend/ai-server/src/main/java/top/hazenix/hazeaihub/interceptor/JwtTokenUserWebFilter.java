@@ -0,0 +1,58 @@
+package top.hazenix.hazeaihub.interceptor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import top.hazenix.hazeaihub.context.BaseContext;
+import top.hazenix.hazeaihub.properties.JwtProperties;
+
+/**
+ * @description: JwtTokenUserInterceptor 的 WebFlux 版本（reactive 配置）
+ * 校验 /api/v1/** 请求的 JWT，用户ID以 BaseContext.KEY 写入 Reactor Context 而不是 ThreadLocal；校验失败返回 401。
+ * spring.reactor.context-propagation=auto 时 Reactor 在执行算子前把它恢复到 BaseContext，
+ * 下游（如 ChatHandler 调用链中的 BoundedChatMemory）直接用 BaseContext.getCurrentId() 读取
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+@Order(0)
+@RequiredArgsConstructor
+public class JwtTokenUserWebFilter implements WebFilter {
+
+    private static final PathPattern USER_PATHS = PathPatternParser.defaultInstance.parse("/api/v1/**");
+
+    private final JwtProperties jwtProperties;
+    private final JwtVerifier jwtVerifier;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())
+                || !USER_PATHS.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        String token = exchange.getRequest().getHeaders().getFirst(jwtProperties.getUserTokenName());
+        Long userId;
+        try {
+            userId = jwtVerifier.verify(token);
+        } catch (Exception ex) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+        log.debug("当前用户id：{}", userId);
+        return chain.filter(exchange).contextWrite(Context.of(BaseContext.KEY, userId));
+    }
+}
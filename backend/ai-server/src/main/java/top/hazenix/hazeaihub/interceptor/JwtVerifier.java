@@ -0,0 +1,116 @@
+package top.hazenix.hazeaihub.interceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.DefaultClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import top.hazenix.hazeaihub.constant.JwtClaimsConstant;
+import top.hazenix.hazeaihub.properties.JwtProperties;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 用户端 JWT 校验（JwtTokenUserInterceptor / JwtTokenAdminInterceptor / JwtTokenUserWebFilter 共用）
+ * HMAC 密钥和解析器只在启动时构建一次；校验通过的令牌按整串缓存用户ID和过期时间（Caffeine，条数上限 ai.jwt.verify-cache-size），
+ * 同一令牌的重复请求跳过验签和 base64/JSON 解析。命中时按令牌的 exp 重新判断是否过期，与 jjwt 的判断一致（now > exp 即过期）；
+ * 校验失败的令牌不缓存。指标以 cache=jwt.claims 标签暴露
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final Clock clock;
+    private final Cache<String, VerifiedToken> cache;
+
+    @Autowired
+    public JwtVerifier(JwtProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, DefaultClock.INSTANCE);
+    }
+
+    JwtVerifier(JwtProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        SecretKeySpec key = new SecretKeySpec(properties.getUserSecretKey().getBytes(StandardCharsets.UTF_8),
+                SignatureAlgorithm.HS256.getJcaName());
+        this.parser = Jwts.parser().setSigningKey(key).setClock(clock);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getVerifyCacheSize())
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return verified.expiresAt() == null ? Long.MAX_VALUE
+                                : TimeUnit.MILLISECONDS.toNanos(Math.max(0, verified.expiresAt() - clock.now().getTime() + 1));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.claims");
+    }
+
+    /**
+     * 校验令牌并返回用户ID
+     * @param token 请求头中的令牌
+     * @return 用户ID
+     * @throws io.jsonwebtoken.JwtException 签名不正确、格式错误或已过期
+     * @throws IllegalArgumentException 令牌为空
+     */
+    public Long verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT 为空");
+        }
+        VerifiedToken cached = cache.getIfPresent(token);
+        if (cached != null) {
+            // Caffeine 的过期清理是近似的，命中时按 exp 精确判断
+            if (cached.expiresAt() == null || clock.now().getTime() <= cached.expiresAt()) {
+                return cached.userId();
+            }
+            cache.invalidate(token);
+            throw new ExpiredJwtException(null, null, "JWT 已过期");
+        }
+        Claims claims = parse(token);
+        Long userId = Long.valueOf(claims.get(JwtClaimsConstant.USER_ID).toString());
+        Date expiration = claims.getExpiration();
+        cache.put(token, new VerifiedToken(userId, expiration == null ? null : expiration.getTime()));
+        return userId;
+    }
+
+    /**
+     * 不经过缓存，用预先构建的解析器验签并解析 claims
+     */
+    public Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * 校验通过的令牌
+     * @param userId 用户ID
+     * @param expiresAt 过期时间（毫秒时间戳），令牌没有 exp 时为空
+     */
+    private record VerifiedToken(Long userId, Long expiresAt) {
+    }
+}
@@ -0,0 +1,33 @@
+package top.hazenix.hazeaihub.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import top.hazenix.hazeaihub.entity.Attachment;
+
+@Mapper
+public interface AttachmentMapper extends BaseMapper<Attachment> {
+
+    /**
+     * 按内容哈希查找已上传过的附件（走 idx_attachment_sha256），不区分用户，仅供上传去重内部使用，不能直接返回给客户端
+     * @param sha256 内容哈希
+     * @return 最早的一条，不存在时为 null
+     */
+    @Select("SELECT id, message_id, file_name, mime_type, file_size, storage_path, sha256, created_at " +
+            "FROM attachment WHERE sha256 = #{sha256} ORDER BY id LIMIT 1")
+    Attachment selectOneBySha256(@Param("sha256") String sha256);
+
+    /**
+     * 按内容哈希查找属于该用户的附件（通过消息所属会话的 user_id 判断归属）
+     * @param sha256 内容哈希
+     * @param userId 用户ID
+     * @return 该用户最早的一条，不存在时为 null
+     */
+    @Select("SELECT a.id, a.message_id, a.file_name, a.mime_type, a.file_size, a.storage_path, a.sha256, a.created_at " +
+            "FROM attachment a " +
+            "JOIN chat_message m ON m.id = a.message_id " +
+            "JOIN chat_session s ON s.id = m.session_id " +
+            "WHERE a.sha256 = #{sha256} AND s.user_id = #{userId} ORDER BY a.id LIMIT 1")
+    Attachment selectOwnedBySha256(@Param("sha256") String sha256, @Param("userId") Long userId);
+}
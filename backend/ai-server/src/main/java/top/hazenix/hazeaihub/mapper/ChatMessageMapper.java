@@ -1,21 +1,135 @@
 package top.hazenix.hazeaihub.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import top.hazenix.hazeaihub.entity.ChatMessage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
 public interface ChatMessageMapper extends BaseMapper<ChatMessage> {
+
+    /**
+     * 清理语句的公共部分：删除 CTE m 选中的消息，引用它们的附件解除关联，按需归档，返回删除行数
+     */
+    String PURGE_SQL =
+            "a AS (UPDATE attachment SET message_id = NULL WHERE message_id IN (SELECT id FROM m)), " +
+            "d AS (DELETE FROM chat_message WHERE id IN (SELECT id FROM m) RETURNING *), " +
+            "ar AS (INSERT INTO chat_message_archive SELECT * FROM d WHERE #{archive}) " +
+            "SELECT count(*) FROM d";
+
     /**
-     * 根据会话ID获取消息列表（按创建时间升序）
+     * 按 id 倒序取会话中最近的 limit 条消息（走 (session_id, id DESC) WHERE status = true 部分索引，与会话长度无关）
+     * 不查 metadata_json，上下文只需要角色和内容；已软删除的消息不参与上下文
      * @param sessionId 会话ID
      * @param limit 限制数量
-     * @return 消息列表
+     * @return 消息列表（从新到旧）
+     */
+    @Select("SELECT id, session_id, role, content, created_at FROM chat_message " +
+            "WHERE session_id = #{sessionId} AND status = true ORDER BY id DESC LIMIT #{limit}")
+    List<ChatMessage> selectLatestBySessionId(@Param("sessionId") Long sessionId, @Param("limit") Integer limit);
+
+    /**
+     * 按 id 倒序取 (afterId, beforeId) 区间内最近的 limit 条消息，用于把较早的对话合并进摘要
+     * @param sessionId 会话ID
+     * @param afterId 起始id（不含）
+     * @param beforeId 结束id（不含）
+     * @param limit 限制数量
+     * @return 消息列表（从新到旧）
+     */
+    @Select("SELECT id, session_id, role, content, created_at FROM chat_message " +
+            "WHERE session_id = #{sessionId} AND id > #{afterId} AND id < #{beforeId} AND status = true " +
+            "ORDER BY id DESC LIMIT #{limit}")
+    List<ChatMessage> selectBetween(@Param("sessionId") Long sessionId,
+                                    @Param("afterId") Long afterId,
+                                    @Param("beforeId") Long beforeId,
+                                    @Param("limit") Integer limit);
+
+    /**
+     * 按 id 正序分页读取会话消息（keyset 分页，走 (session_id, id) 索引），以游标逐行返回，
+     * fetchSize 让 JDBC 驱动分批拉取，整页不会一次性读进内存（需要在事务内遍历）
+     * @param sessionId 会话ID
+     * @param afterId 上一页最后一条消息id（不含），从头开始时传 0
+     * @param limit 每页条数
+     * @return 消息游标（从旧到新）
+     */
+    @Options(fetchSize = 100, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Select("SELECT id, session_id, role, content, created_at FROM chat_message " +
+            "WHERE session_id = #{sessionId} AND id > #{afterId} AND status = true ORDER BY id LIMIT #{limit}")
+    Cursor<ChatMessage> selectPageCursor(@Param("sessionId") Long sessionId,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") Integer limit);
+
+    /**
+     * 多行 INSERT 批量写入消息
+     * @param messages 消息列表
+     * @return 写入条数
+     */
+    @Insert("<script>" +
+            "INSERT INTO chat_message (session_id, role, content, metadata_json, created_at) VALUES " +
+            "<foreach collection='messages' item='m' separator=','>" +
+            "(#{m.sessionId}, #{m.role}, #{m.content}, " +
+            "#{m.metadataJson,typeHandler=com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler}::jsonb, " +
+            "#{m.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("messages") List<ChatMessage> messages);
+
+    /**
+     * 软删除会话中的一条消息，条件中校验会话属于该用户
+     * @param userId 用户ID
+     * @param sessionId 会话ID
+     * @param messageId 消息ID
+     * @return 更新行数，消息不存在、已删除或无权限时为 0
+     */
+    @Update("UPDATE chat_message AS m SET status = false, deleted_at = now() " +
+            "FROM chat_session AS s " +
+            "WHERE m.id = #{messageId} AND m.session_id = #{sessionId} AND m.status = true " +
+            "AND s.id = m.session_id AND s.user_id = #{userId}")
+    int softDelete(@Param("userId") Long userId,
+                   @Param("sessionId") Long sessionId,
+                   @Param("messageId") Long messageId);
+
+    /**
+     * 清理一批软删除时间早于 before 的消息（走 idx_chat_message_deleted_at）
+     * 引用这些消息的附件记录解除关联；SKIP LOCKED 使多个节点同时清理时互不等待
+     * @param before 删除时间早于该时间的消息
+     * @param limit 本批最多删除的行数
+     * @param archive 是否同时写入 chat_message_archive
+     * @return 删除行数
+     */
+    // DELETE ... RETURNING 走 @Select 取返回值，需要刷新一级缓存以免同一 SqlSession 内命中旧结果
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    @Select("WITH m AS (" +
+            "SELECT id FROM chat_message WHERE status = false AND deleted_at < #{before} " +
+            "ORDER BY deleted_at LIMIT #{limit} FOR UPDATE SKIP LOCKED), " +
+            PURGE_SQL)
+    int purgeDeleted(@Param("before") LocalDateTime before,
+                     @Param("limit") Integer limit,
+                     @Param("archive") Boolean archive);
+
+    /**
+     * 清理一批属于已删除会话（软删除时间早于 before）的消息，会话中的消息清空后会话本身才能删除
+     * @param before 会话删除时间早于该时间
+     * @param limit 本批最多删除的行数
+     * @param archive 是否同时写入 chat_message_archive
+     * @return 删除行数
      */
-    @Select("SELECT * FROM chat_message WHERE session_id = #{sessionId} ORDER BY created_at ASC LIMIT #{limit}")
-    List<ChatMessage> selectBySessionIdOrderByCreatedAt(@Param("sessionId") Long sessionId, @Param("limit") Integer limit);
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    @Select("WITH m AS (" +
+            "SELECT m.id FROM chat_message m JOIN chat_session s ON s.id = m.session_id " +
+            "WHERE s.status = false AND s.deleted_at < #{before} " +
+            "LIMIT #{limit} FOR UPDATE OF m SKIP LOCKED), " +
+            PURGE_SQL)
+    int purgeOfDeletedSessions(@Param("before") LocalDateTime before,
+                               @Param("limit") Integer limit,
+                               @Param("archive") Boolean archive);
 }
@@ -2,9 +2,174 @@ package top.hazenix.hazeaihub.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.persistence.ChatTurn;
+import top.hazenix.hazeaihub.vo.ChatSessionSummaryVO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface ChatSessionMapper extends BaseMapper<ChatSession> {
-}
 
+    /**
+     * 一条语句批量更新多个会话的最后活跃时间和最后一条消息预览（只会往后推，重放旧数据时不会回退）
+     * @param sessions 只需要 id、lastActiveAt 和 lastMessagePreview
+     * @return 实际存在（未删除）并被更新的会话ID
+     */
+    // UPDATE ... RETURNING 走 @Select 取返回值，需要刷新一级缓存以免同一 SqlSession 内命中旧结果
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    @Select("<script>" +
+            "UPDATE chat_session AS s " +
+            "SET last_active_at = GREATEST(s.last_active_at, v.last_active_at), " +
+            "last_message_preview = CASE WHEN v.last_active_at &gt;= s.last_active_at " +
+            "THEN v.last_message_preview ELSE s.last_message_preview END, " +
+            "updated_at = now() " +
+            "FROM (VALUES " +
+            "<foreach collection='sessions' item='item' separator=','>" +
+            "(#{item.id}::bigint, #{item.lastActiveAt}::timestamp, #{item.lastMessagePreview}::varchar)" +
+            "</foreach>" +
+            ") AS v(id, last_active_at, last_message_preview) " +
+            "WHERE s.id = v.id AND s.status = true " +
+            "RETURNING s.id" +
+            "</script>")
+    List<Long> touchSessions(@Param("sessions") List<ChatSession> sessions);
+
+    /**
+     * 按最后活跃时间倒序分页查询用户某类会话（keyset 分页，走 idx_chat_session_user_type_active_live）
+     * 只查 id 和 last_active_at
+     * @param userId 用户ID
+     * @param type 会话类型
+     * @param lastActiveAt 上一页最后一条的最后活跃时间，为空时从第一页开始
+     * @param lastId 上一页最后一条的会话ID
+     * @param limit 每页条数
+     * @return 会话列表
+     */
+    @Select("<script>" +
+            "SELECT id, last_active_at FROM chat_session " +
+            "WHERE user_id = #{userId} AND type = #{type} AND status = true " +
+            "<if test='lastActiveAt != null'>AND (last_active_at, id) &lt; (#{lastActiveAt}, #{lastId}) </if>" +
+            "ORDER BY last_active_at DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<ChatSession> selectPageByUserAndType(@Param("userId") Long userId,
+                                              @Param("type") String type,
+                                              @Param("lastActiveAt") LocalDateTime lastActiveAt,
+                                              @Param("lastId") Long lastId,
+                                              @Param("limit") Integer limit);
+
+    /**
+     * 侧边栏会话列表：一条语句查出一页会话及其最后一条消息的预览（keyset 分页，同 selectPageByUserAndType）
+     * 预览优先取冗余列 last_message_preview；该列为空（加列之前的旧会话）时才执行 LATERAL 子查询，
+     * 按 idx_chat_message_session_id_id 取该会话最新的一条消息
+     * @param userId 用户ID
+     * @param type 会话类型
+     * @param lastActiveAt 上一页最后一条的最后活跃时间，为空时从第一页开始
+     * @param lastId 上一页最后一条的会话ID
+     * @param limit 每页条数
+     * @return 会话列表项
+     */
+    @Select("<script>" +
+            "SELECT s.id, s.title, s.group_id, s.last_active_at, " +
+            "COALESCE(s.last_message_preview, m.preview) AS last_message_preview " +
+            "FROM chat_session s " +
+            "LEFT JOIN LATERAL (" +
+            "SELECT LEFT(btrim(regexp_replace(content, '\\s+', ' ', 'g')), " + ChatTurn.PREVIEW_LENGTH + ") AS preview " +
+            "FROM chat_message " +
+            "WHERE session_id = s.id AND status = true AND s.last_message_preview IS NULL " +
+            "ORDER BY id DESC LIMIT 1" +
+            ") m ON true " +
+            "WHERE s.user_id = #{userId} AND s.type = #{type} AND s.status = true " +
+            "<if test='lastActiveAt != null'>AND (s.last_active_at, s.id) &lt; (#{lastActiveAt}, #{lastId}) </if>" +
+            "ORDER BY s.last_active_at DESC, s.id DESC LIMIT #{limit}" +
+            "</script>")
+    List<ChatSessionSummaryVO> selectSummaryPageByUserAndType(@Param("userId") Long userId,
+                                                              @Param("type") String type,
+                                                              @Param("lastActiveAt") LocalDateTime lastActiveAt,
+                                                              @Param("lastId") Long lastId,
+                                                              @Param("limit") Integer limit);
+
+    /**
+     * 把用户的多个会话移入分组；分组不属于该用户时不更新任何会话
+     * @param userId 用户ID
+     * @param groupId 目标分组ID
+     * @param sessionIds 会话ID
+     * @return 实际更新的会话数
+     */
+    @Update("<script>" +
+            "UPDATE chat_session SET group_id = #{groupId}, updated_at = now() " +
+            "WHERE user_id = #{userId} AND status = true AND id IN " +
+            "<foreach collection='sessionIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND EXISTS (SELECT 1 FROM \"group\" WHERE id = #{groupId} AND user_id = #{userId})" +
+            "</script>")
+    int moveToGroup(@Param("userId") Long userId,
+                    @Param("groupId") Long groupId,
+                    @Param("sessionIds") Collection<Long> sessionIds);
+
+    /**
+     * 按该会话最新一条未删除的消息重新计算 last_message_preview（规则同 selectSummaryPageByUserAndType 的 LATERAL 子查询），
+     * 没有未删除的消息时置为 NULL
+     * @param sessionId 会话ID
+     * @return 更新行数
+     */
+    @Update("UPDATE chat_session AS s SET last_message_preview = (" +
+            "SELECT LEFT(btrim(regexp_replace(content, '\\s+', ' ', 'g')), " + ChatTurn.PREVIEW_LENGTH + ") " +
+            "FROM chat_message " +
+            "WHERE session_id = s.id AND status = true " +
+            "ORDER BY id DESC LIMIT 1), updated_at = now() " +
+            "WHERE s.id = #{sessionId}")
+    int refreshLastMessagePreview(@Param("sessionId") Long sessionId);
+
+    /**
+     * 软删除用户的多个会话（消息保留，由后台清理任务在保留期后删除）
+     * @param userId 用户ID
+     * @param ids 会话ID
+     * @return 实际删除的会话ID（不存在、已删除或不属于该用户的不在其中）
+     */
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    @Select("<script>" +
+            "UPDATE chat_session SET status = false, deleted_at = now(), updated_at = now() " +
+            "WHERE user_id = #{userId} AND status = true AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "RETURNING id" +
+            "</script>")
+    List<Long> softDeleteByIdsAndUserId(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 清理一批软删除时间早于 before、且消息已清空的会话（走 idx_chat_session_deleted_at）
+     * @param before 删除时间早于该时间的会话
+     * @param limit 本批最多删除的行数
+     * @param archive 是否同时写入 chat_session_archive
+     * @return 删除行数
+     */
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    @Select("WITH c AS (" +
+            "SELECT id FROM chat_session s WHERE status = false AND deleted_at < #{before} " +
+            "AND NOT EXISTS (SELECT 1 FROM chat_message m WHERE m.session_id = s.id) " +
+            "ORDER BY deleted_at LIMIT #{limit} FOR UPDATE SKIP LOCKED), " +
+            "d AS (DELETE FROM chat_session WHERE id IN (SELECT id FROM c) RETURNING *), " +
+            "ar AS (INSERT INTO chat_session_archive SELECT * FROM d WHERE #{archive}) " +
+            "SELECT count(*) FROM d")
+    int purgeDeleted(@Param("before") LocalDateTime before,
+                     @Param("limit") Integer limit,
+                     @Param("archive") Boolean archive);
+
+    /**
+     * 更新滚动摘要；expectedUntilId 与当前值不一致时说明已被其他节点更新，不覆盖
+     * @param sessionId 会话ID
+     * @param summary 新摘要
+     * @param untilId 新摘要覆盖到的最后一条消息id
+     * @param expectedUntilId 生成摘要时读到的 summary_until_id（为空时传 0）
+     * @return 更新行数
+     */
+    @Update("UPDATE chat_session SET summary = #{summary}, summary_until_id = #{untilId} " +
+            "WHERE id = #{sessionId} AND COALESCE(summary_until_id, 0) = #{expectedUntilId}")
+    int updateSummary(@Param("sessionId") Long sessionId,
+                      @Param("summary") String summary,
+                      @Param("untilId") Long untilId,
+                      @Param("expectedUntilId") Long expectedUntilId);
+}
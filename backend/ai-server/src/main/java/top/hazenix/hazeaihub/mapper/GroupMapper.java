@@ -2,14 +2,67 @@ package top.hazenix.hazeaihub.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
-import top.hazenix.hazeaihub.entity.ChatMessage;
+import org.apache.ibatis.annotations.Update;
+import top.hazenix.hazeaihub.dto.GroupSortDTO;
 import top.hazenix.hazeaihub.entity.Group;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface GroupMapper extends BaseMapper<Group> {
 
+    /**
+     * 修改用户的一个分组，条件带上 user_id，一条语句完成权限校验和修改
+     * @param userId 用户ID
+     * @param id 分组ID
+     * @param name 新名称
+     * @param sort 新排序号
+     * @return 实际更新的行数，分组不存在或不属于该用户时为 0
+     */
+    @Update("UPDATE \"group\" SET name = #{name}, sort = #{sort} WHERE id = #{id} AND user_id = #{userId}")
+    int updateByIdAndUserId(@Param("userId") Long userId,
+                            @Param("id") Long id,
+                            @Param("name") String name,
+                            @Param("sort") Integer sort);
+
+    /**
+     * 一条语句批量修改分组排序，只更新属于该用户的分组
+     * @param userId 用户ID
+     * @param items 分组ID和新的排序号（id 不能重复）
+     * @return 实际更新的行数
+     */
+    @Update("<script>" +
+            "UPDATE \"group\" AS g SET sort = v.sort " +
+            "FROM (VALUES " +
+            "<foreach collection='items' item='item' separator=','>" +
+            "(#{item.id}::bigint, #{item.sort}::int4)" +
+            "</foreach>" +
+            ") AS v(id, sort) " +
+            "WHERE g.id = v.id AND g.user_id = #{userId}" +
+            "</script>")
+    int updateSorts(@Param("userId") Long userId, @Param("items") List<GroupSortDTO> items);
+
+    /**
+     * 一条语句删除用户的多个分组，并把这些分组下的会话移出分组（group_id 置空）
+     * @param userId 用户ID
+     * @param ids 分组ID
+     * @return 实际删除的分组数
+     */
+    // DELETE ... RETURNING 走 @Select 取返回值，需要刷新一级缓存以免同一 SqlSession 内命中旧结果
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    @Select("<script>" +
+            "WITH d AS (" +
+            "DELETE FROM \"group\" WHERE user_id = #{userId} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "RETURNING id), " +
+            "u AS (" +
+            "UPDATE chat_session SET group_id = NULL, updated_at = now() " +
+            "WHERE user_id = #{userId} AND group_id IN (SELECT id FROM d)) " +
+            "SELECT count(*) FROM d" +
+            "</script>")
+    int deleteByIdsAndUserId(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 }
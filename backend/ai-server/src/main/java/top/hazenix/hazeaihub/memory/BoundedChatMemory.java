@@ -0,0 +1,304 @@
+package top.hazenix.hazeaihub.memory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import top.hazenix.hazeaihub.context.BaseContext;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.persistence.ChatTurn;
+import top.hazenix.hazeaihub.persistence.ChatTurnWriteBehind;
+import top.hazenix.hazeaihub.properties.ChatMemoryProperties;
+import top.hazenix.hazeaihub.service.IChatMessageService;
+import top.hazenix.hazeaihub.service.IChatSessionService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 有界的 ChatMemory，替代无限增长的 InMemoryChatMemory
+ * 每个会话只保留最近 maxMessagesPerConversation 条消息；所有会话按估算字节数共享 maxBytes 预算（Caffeine，W-TinyLFU 淘汰），
+ * 空闲超过 idleTtl 的会话被淘汰。开启 spillEnabled 后，被淘汰或被截掉的未落库对话交给 write-behind 写入 chat_message，
+ * 再次访问时从数据库恢复。会话按 (当前用户ID, chatId) 区分，只有 chat_session 属于当前用户时才会从数据库恢复或写入，
+ * 客户端传入其他用户的 chatId 时只得到一个不落库的空会话。
+ * 指标：chat.memory.conversations、chat.memory.bytes，以及 cache=chat.memory 的缓存指标
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+public class BoundedChatMemory implements ChatMemory {
+
+    /**
+     * 每条消息除内容外的固定开销估算（对象头、字段、元数据 Map、List 槽位）
+     */
+    private static final int MESSAGE_OVERHEAD_BYTES = 160;
+
+    private final Cache<Key, Conversation> cache;
+    private final ChatMemoryProperties properties;
+    private final IChatMessageService chatMessageService;
+    private final IChatSessionService chatSessionService;
+    private final ChatTurnWriteBehind chatTurnWriteBehind;
+
+    public BoundedChatMemory(ChatMemoryProperties properties,
+                             IChatMessageService chatMessageService,
+                             IChatSessionService chatSessionService,
+                             ChatTurnWriteBehind chatTurnWriteBehind,
+                             MeterRegistry meterRegistry) {
+        this(properties, chatMessageService, chatSessionService, chatTurnWriteBehind, meterRegistry, Ticker.systemTicker());
+    }
+
+    BoundedChatMemory(ChatMemoryProperties properties,
+                      IChatMessageService chatMessageService,
+                      IChatSessionService chatSessionService,
+                      ChatTurnWriteBehind chatTurnWriteBehind,
+                      MeterRegistry meterRegistry,
+                      Ticker ticker) {
+        this.properties = properties;
+        this.chatMessageService = chatMessageService;
+        this.chatSessionService = chatSessionService;
+        this.chatTurnWriteBehind = chatTurnWriteBehind;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((Key key, Conversation conversation) -> conversation.bytes())
+                .expireAfterAccess(properties.getIdleTtl())
+                .ticker(ticker)
+                .removalListener((Key key, Conversation conversation, RemovalCause cause) -> {
+                    // 主动 clear 的会话不落库
+                    if (cause.wasEvicted() && conversation != null) {
+                        spill(conversation.sessionId(), conversation.unpersisted());
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.memory");
+        Gauge.builder("chat.memory.conversations", cache, Cache::estimatedSize)
+                .description("ChatMemory 中保留的会话数")
+                .register(meterRegistry);
+        Gauge.builder("chat.memory.bytes", this, BoundedChatMemory::retainedBytes)
+                .description("ChatMemory 中保留的消息估算字节数")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        Key key = key(conversationId);
+        int maxMessages = properties.getMaxMessagesPerConversation();
+        List<Message> dropped = new ArrayList<>();
+        // 数据库加载放在 compute 之外，不在 map 的锁内执行阻塞的 JDBC 调用；加载期间其他线程已写入时以已有的为准
+        Conversation loaded = null;
+        Conversation updated = null;
+        while (updated == null) {
+            if (loaded == null && cache.getIfPresent(key) == null) {
+                loaded = load(key);
+            }
+            Conversation fallback = loaded;
+            updated = cache.asMap().compute(key, (k, current) -> {
+                Conversation base = current != null ? current : fallback;
+                if (base == null) {
+                    // 检查之后会话被淘汰了，回到循环开头加载
+                    return null;
+                }
+                Conversation next = base.append(messages, maxMessages);
+                dropped.addAll(next.droppedFrom(base, messages));
+                return next;
+            });
+        }
+        spill(updated.sessionId(), dropped);
+    }
+
+    @Override
+    public List<Message> get(String conversationId, int lastN) {
+        Key key = key(conversationId);
+        Conversation conversation = cache.getIfPresent(key);
+        if (conversation == null) {
+            conversation = load(key);
+            if (conversation.messages().isEmpty()) {
+                return List.of();
+            }
+            conversation = cache.asMap().merge(key, conversation, (current, loaded) -> current);
+        }
+        List<Message> messages = conversation.messages();
+        return messages.subList(Math.max(0, messages.size() - lastN), messages.size());
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        cache.invalidate(key(conversationId));
+    }
+
+    /**
+     * 停机时把所有会话中未落库的对话交给 write-behind（write-behind 在本 bean 之后销毁）
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!properties.isSpillEnabled()) {
+            return;
+        }
+        cache.asMap().forEach((key, conversation) -> spill(conversation.sessionId(), conversation.unpersisted()));
+        cache.asMap().clear();
+    }
+
+    /**
+     * 所有会话的估算字节数
+     */
+    public long retainedBytes() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * 执行 Caffeine 的延迟维护（过期、淘汰）
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * 开启落库且会话属于当前用户时从数据库恢复会话最近的消息（从旧到新），否则返回不落库的空会话
+     */
+    private Conversation load(Key key) {
+        Long sessionId = null;
+        try {
+            sessionId = ownedSessionId(key);
+            if (sessionId == null) {
+                return Conversation.EMPTY;
+            }
+            List<ChatMessage> newestFirst = chatMessageService.loadContext(sessionId).recentMessages();
+            int limit = Math.min(newestFirst.size(), properties.getMaxMessagesPerConversation());
+            List<Message> messages = new ArrayList<>(limit);
+            for (int i = limit - 1; i >= 0; i--) {
+                ChatMessage message = newestFirst.get(i);
+                if ("user".equals(message.getRole())) {
+                    messages.add(new UserMessage(message.getContent()));
+                } else if ("assistant".equals(message.getRole())) {
+                    messages.add(new AssistantMessage(message.getContent()));
+                }
+            }
+            return Conversation.of(sessionId, messages, messages.size());
+        } catch (Exception e) {
+            log.warn("从数据库恢复会话记忆失败，会话ID: {}, 原因: {}", key.conversationId(), e.getMessage());
+            // 已确认归属时仍可落库，只是没有恢复历史消息
+            return sessionId == null ? Conversation.EMPTY : Conversation.of(sessionId, new ArrayList<>(), 0);
+        }
+    }
+
+    /**
+     * 把未落库的消息按 user/assistant 配对成轮次交给 write-behind，无法配对的消息丢弃
+     */
+    private void spill(Long sessionId, List<Message> messages) {
+        if (sessionId == null || messages.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i + 1 < messages.size(); i++) {
+            if (messages.get(i) instanceof UserMessage user && messages.get(i + 1) instanceof AssistantMessage assistant) {
+                chatTurnWriteBehind.submit(new ChatTurn(sessionId, user.getText(), assistant.getText(),
+                        Map.of("source", "chat-memory"), now));
+                i++;
+            }
+        }
+    }
+
+    private static Key key(String conversationId) {
+        return new Key(BaseContext.getCurrentId(), conversationId);
+    }
+
+    /**
+     * 开启落库、chatId 为数字且 chat_session 属于当前用户时返回会话ID，否则返回 null（不访问数据库）
+     */
+    private Long ownedSessionId(Key key) {
+        if (!properties.isSpillEnabled() || key.userId() == null || key.conversationId() == null) {
+            return null;
+        }
+        long sessionId;
+        try {
+            sessionId = Long.parseLong(key.conversationId());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (!chatSessionService.isOwnedBy(sessionId, key.userId())) {
+            log.warn("会话不属于当前用户，不恢复也不落库 - 会话ID: {}, 用户ID: {}", sessionId, key.userId());
+            return null;
+        }
+        return sessionId;
+    }
+
+    /**
+     * 缓存 key：不同用户使用相同的 chatId 时互不可见
+     * @param userId 当前用户ID，未登录时为 null
+     * @param conversationId 客户端传入的 chatId
+     */
+    record Key(Long userId, String conversationId) {
+    }
+
+    /**
+     * 会话消息快照（从旧到新，不可变）；前 persisted 条已在数据库中
+     * @param sessionId 已确认属于当前用户的会话ID，为 null 时不落库
+     */
+    record Conversation(Long sessionId, List<Message> messages, int persisted, int bytes) {
+
+        static final Conversation EMPTY = new Conversation(null, List.of(), 0, 0);
+
+        static Conversation of(Long sessionId, List<Message> messages, int persisted) {
+            long bytes = 0;
+            for (Message message : messages) {
+                bytes += weigh(message);
+            }
+            return new Conversation(sessionId, Collections.unmodifiableList(messages), persisted,
+                    (int) Math.min(bytes, Integer.MAX_VALUE));
+        }
+
+        /**
+         * 追加消息，超出上限时从最早的消息开始丢弃；丢弃后开头是 assistant 时一并丢弃，保持 user/assistant 成对
+         */
+        Conversation append(List<Message> added, int maxMessages) {
+            List<Message> all = new ArrayList<>(messages.size() + added.size());
+            all.addAll(messages);
+            all.addAll(added);
+            int from = Math.max(0, all.size() - maxMessages);
+            while (from < all.size() && from > 0 && all.get(from) instanceof AssistantMessage) {
+                from++;
+            }
+            return of(sessionId, new ArrayList<>(all.subList(from, all.size())), Math.max(0, persisted - from));
+        }
+
+        /**
+         * 相对 base 追加 added 后被丢弃、且尚未落库的消息
+         */
+        List<Message> droppedFrom(Conversation base, List<Message> added) {
+            int dropped = base.messages.size() + added.size() - messages.size();
+            if (dropped <= base.persisted) {
+                return List.of();
+            }
+            List<Message> all = new ArrayList<>(base.messages.size() + added.size());
+            all.addAll(base.messages);
+            all.addAll(added);
+            return all.subList(base.persisted, dropped);
+        }
+
+        List<Message> unpersisted() {
+            return messages.subList(Math.min(persisted, messages.size()), messages.size());
+        }
+
+        private static long weigh(Message message) {
+            String text = message.getText();
+            return MESSAGE_OVERHEAD_BYTES + (text == null ? 0 : 2L * text.length());
+        }
+    }
+}
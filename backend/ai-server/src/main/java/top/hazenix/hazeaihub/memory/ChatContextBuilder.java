@@ -0,0 +1,145 @@
+package top.hazenix.hazeaihub.memory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.stereotype.Component;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.persistence.ChatContext;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+import top.hazenix.hazeaihub.utils.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 构建发送给模型的消息列表（OpenAI 兼容格式）
+ * 历史消息按模型的 token 预算从新到旧装入；会话有滚动摘要时以 system 消息放在最前，
+ * 未压缩的历史超过预算的 compactionTriggerRatio 时异步触发压缩，当前请求不等待
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatContextBuilder {
+
+    private static final String SUMMARY_PREFIX = "以下是此前对话的摘要：\n";
+
+    private final ChatContextCompactor chatContextCompactor;
+    private final ChatContextProperties properties;
+
+    /**
+     * 从已加载的会话上下文（ChatHistoryStore）构建上下文
+     * @param sessionId 会话ID，为空时只包含当前用户消息
+     * @param context 会话上下文，为空时只包含当前用户消息
+     * @param userMessage 当前用户消息
+     * @param model 模型名，用于确定 token 预算
+     */
+    public List<Map<String, String>> build(Long sessionId, ChatContext context, String userMessage, String model) {
+        List<Map<String, String>> messages = new ArrayList<>();
+        int available = properties.maxTokensFor(model) - TokenEstimator.estimateMessage(userMessage);
+        if (sessionId != null && context != null && available > 0) {
+            appendHistory(messages, sessionId, context, available, model);
+        }
+        messages.add(message("user", userMessage));
+        return messages;
+    }
+
+    /**
+     * 从 ChatMemory 的历史消息（从旧到新）构建上下文
+     */
+    public List<Map<String, String>> build(List<Message> history, String userMessage, String model) {
+        List<Map<String, String>> messages = new ArrayList<>();
+        int available = properties.maxTokensFor(model) - TokenEstimator.estimateMessage(userMessage);
+        if (history != null && available > 0) {
+            List<ChatMessage> newestFirst = new ArrayList<>(history.size());
+            for (int i = history.size() - 1; i >= 0; i--) {
+                Message msg = history.get(i);
+                if (msg instanceof UserMessage) {
+                    newestFirst.add(ChatMessage.builder().role("user").content(msg.getText()).build());
+                } else if (msg instanceof AssistantMessage) {
+                    newestFirst.add(ChatMessage.builder().role("assistant").content(msg.getText()).build());
+                }
+            }
+            appendMessages(messages, toContextWindow(newestFirst, available));
+        }
+        messages.add(message("user", userMessage));
+        return messages;
+    }
+
+    private void appendHistory(List<Map<String, String>> messages, Long sessionId,
+                               ChatContext context, int available, String model) {
+        // 从新到旧收集未被摘要覆盖的消息
+        List<ChatMessage> unsummarized = new ArrayList<>(context.recentMessages().size());
+        int unsummarizedTokens = 0;
+        for (ChatMessage message : context.recentMessages()) {
+            if (!context.isUnsummarized(message)) {
+                break;
+            }
+            unsummarized.add(message);
+            unsummarizedTokens += TokenEstimator.estimateMessage(message.getContent());
+        }
+
+        int historyBudget = available;
+        String summary = context.summary();
+        if (summary != null && !summary.isEmpty()) {
+            String content = SUMMARY_PREFIX + summary;
+            int summaryTokens = TokenEstimator.estimateMessage(content);
+            if (summaryTokens < historyBudget) {
+                messages.add(message("system", content));
+                historyBudget -= summaryTokens;
+            }
+        }
+        appendMessages(messages, toContextWindow(unsummarized, historyBudget));
+
+        if (properties.isCompactionEnabled()
+                && unsummarizedTokens >= properties.getCompactionTriggerRatio() * available) {
+            chatContextCompactor.requestCompaction(sessionId, model);
+        }
+    }
+
+    private static void appendMessages(List<Map<String, String>> messages, List<ChatMessage> window) {
+        for (ChatMessage msg : window) {
+            if ("user".equals(msg.getRole()) || "assistant".equals(msg.getRole())) {
+                messages.add(message(msg.getRole(), msg.getContent()));
+            }
+        }
+    }
+
+    private static Map<String, String> message(String role, String content) {
+        Map<String, String> msgMap = new HashMap<>(4);
+        msgMap.put("role", role);
+        msgMap.put("content", content);
+        return msgMap;
+    }
+
+    /**
+     * 从新到旧累加 token，超出预算即停止，然后恢复为从旧到新的顺序
+     * @param newestFirst 按 id 倒序的消息
+     * @param maxTokens token 预算
+     */
+    static List<ChatMessage> toContextWindow(List<ChatMessage> newestFirst, int maxTokens) {
+        int count = 0;
+        int used = 0;
+        for (ChatMessage message : newestFirst) {
+            int tokens = TokenEstimator.estimateMessage(message.getContent());
+            if (used + tokens > maxTokens) {
+                break;
+            }
+            used += tokens;
+            count++;
+        }
+        // 截断后最旧的一条不是 user 时，说明它所在那一轮的提问已被截掉，一并丢弃
+        while (count > 0 && !"user".equals(newestFirst.get(count - 1).getRole())) {
+            count--;
+        }
+        List<ChatMessage> window = new ArrayList<>(newestFirst.subList(0, count));
+        Collections.reverse(window);
+        return window;
+    }
+}
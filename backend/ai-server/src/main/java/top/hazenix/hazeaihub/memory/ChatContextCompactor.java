@@ -0,0 +1,161 @@
+package top.hazenix.hazeaihub.memory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.stereotype.Component;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.mapper.ChatMessageMapper;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.persistence.ChatContextCache;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+import top.hazenix.hazeaihub.utils.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 上下文压缩：把超出保留范围的较早对话与已有摘要合并为新的滚动摘要，保存到 chat_session
+ * 在单独的后台线程执行，同一会话同时只有一个压缩任务；每次合并保留区之前最近的 compactionBatchMessages 条消息，
+ * 更早且未被摘要覆盖的消息不再参与上下文
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+public class ChatContextCompactor {
+
+    private static final String SUMMARY_PROMPT = "你是对话摘要助手。请把【已有摘要】和【新的对话】合并为一份简洁的摘要，"
+            + "保留用户的身份信息、偏好、已经确认的结论和尚未解决的问题，使用第三人称陈述，不要编造内容，不超过%d字。只输出摘要正文。";
+
+    private final ChatModel chatModel;
+    private final ChatSessionMapper chatSessionMapper;
+    private final ChatMessageMapper chatMessageMapper;
+    private final ChatContextCache chatContextCache;
+    private final ChatContextProperties properties;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+
+    public ChatContextCompactor(ChatModel chatModel,
+                                ChatSessionMapper chatSessionMapper,
+                                ChatMessageMapper chatMessageMapper,
+                                ChatContextCache chatContextCache,
+                                ChatContextProperties properties) {
+        this.chatModel = chatModel;
+        this.chatSessionMapper = chatSessionMapper;
+        this.chatMessageMapper = chatMessageMapper;
+        this.chatContextCache = chatContextCache;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64), r -> {
+            Thread thread = new Thread(r, "chat-context-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 提交压缩任务，不阻塞调用方；会话已有压缩任务或队列已满时忽略，下一轮对话会再次触发
+     */
+    public void requestCompaction(Long sessionId, String model) {
+        if (!inFlight.add(sessionId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    compact(sessionId, model);
+                } catch (Exception e) {
+                    log.warn("会话上下文压缩失败，会话ID: {}, 原因: {}", sessionId, e.getMessage());
+                } finally {
+                    inFlight.remove(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sessionId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void compact(Long sessionId, String model) {
+        ChatSession session = chatSessionMapper.selectById(sessionId);
+        if (session == null) {
+            return;
+        }
+        long untilId = session.getSummaryUntilId() == null ? 0L : session.getSummaryUntilId();
+
+        // 从数据库取最近的消息（缓存中新写入的消息还没有 id），确定保留原文的范围
+        List<ChatMessage> latest = chatMessageMapper.selectLatestBySessionId(sessionId, properties.getMaxMessages());
+        if (latest.isEmpty()) {
+            return;
+        }
+        int keepTokens = (int) (properties.maxTokensFor(model) * properties.getCompactionKeepRatio());
+        List<ChatMessage> kept = ChatContextBuilder.toContextWindow(latest, keepTokens);
+        long boundaryId = kept.isEmpty() ? latest.get(0).getId() + 1 : kept.get(0).getId();
+        if (boundaryId <= untilId + 1) {
+            return;
+        }
+
+        List<ChatMessage> toSummarize = new ArrayList<>(chatMessageMapper.selectBetween(
+                sessionId, untilId, boundaryId, properties.getCompactionBatchMessages()));
+        Collections.reverse(toSummarize);
+        // 只合并完整的轮次：开头的回复缺少提问、结尾的提问缺少回复时去掉
+        while (!toSummarize.isEmpty() && !"user".equals(toSummarize.get(0).getRole())) {
+            toSummarize.remove(0);
+        }
+        while (!toSummarize.isEmpty() && "user".equals(toSummarize.get(toSummarize.size() - 1).getRole())) {
+            toSummarize.remove(toSummarize.size() - 1);
+        }
+        if (toSummarize.isEmpty()) {
+            return;
+        }
+
+        String summary = summarize(session.getSummary(), toSummarize);
+        if (summary == null || summary.isBlank()) {
+            return;
+        }
+        Long newUntilId = toSummarize.get(toSummarize.size() - 1).getId();
+        if (chatSessionMapper.updateSummary(sessionId, summary, newUntilId, untilId) == 1) {
+            // 缓存中可能有已被摘要覆盖但没有 id 的消息，直接失效，下一轮从数据库重新加载
+            chatContextCache.invalidate(sessionId);
+            log.debug("会话上下文压缩完成，会话ID: {}, 摘要覆盖到消息ID: {}", sessionId, newUntilId);
+        }
+    }
+
+    private String summarize(String previousSummary, List<ChatMessage> messages) {
+        StringBuilder content = new StringBuilder();
+        if (previousSummary != null && !previousSummary.isEmpty()) {
+            content.append("【已有摘要】\n").append(previousSummary).append("\n\n");
+        }
+        content.append("【新的对话】\n");
+        for (ChatMessage message : messages) {
+            content.append("user".equals(message.getRole()) ? "用户：" : "助手：")
+                    .append(message.getContent())
+                    .append('\n');
+        }
+        int maxTokens = properties.getSummaryMaxTokens();
+        Prompt prompt = new Prompt(List.of(
+                new SystemMessage(String.format(SUMMARY_PROMPT, maxTokens)),
+                new UserMessage(content.toString())));
+        String summary = chatModel.call(prompt).getResult().getOutput().getText();
+        if (summary != null && TokenEstimator.estimate(summary) > maxTokens) {
+            summary = summary.substring(0, Math.min(summary.length(), maxTokens));
+        }
+        return summary;
+    }
+}
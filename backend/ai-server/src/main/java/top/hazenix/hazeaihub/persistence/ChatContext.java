@@ -0,0 +1,53 @@
+package top.hazenix.hazeaihub.persistence;
+
+import top.hazenix.hazeaihub.entity.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @description: 会话上下文快照：滚动摘要 + 最近的消息（从新到旧）
+ * summaryUntilId 之前（含）的消息已被合并进摘要；刚写入缓存、尚未落库的消息 id 为空
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public record ChatContext(String summary, Long summaryUntilId, List<ChatMessage> recentMessages) {
+
+    /**
+     * 在最前面加入一轮新对话，超出 maxMessages 的旧消息被丢弃
+     */
+    public ChatContext withTurn(ChatTurn turn, int maxMessages) {
+        List<ChatMessage> updated = new ArrayList<>(Math.min(recentMessages.size() + 2, maxMessages + 2));
+        updated.add(ChatMessage.builder()
+                .sessionId(turn.sessionId())
+                .role("assistant")
+                .content(turn.assistantMessage())
+                .createdAt(turn.createdAt())
+                .build());
+        updated.add(ChatMessage.builder()
+                .sessionId(turn.sessionId())
+                .role("user")
+                .content(turn.userMessage())
+                .createdAt(turn.createdAt())
+                .build());
+        for (ChatMessage message : recentMessages) {
+            if (updated.size() >= maxMessages) {
+                break;
+            }
+            updated.add(message);
+        }
+        if (updated.size() > maxMessages) {
+            updated = updated.subList(0, maxMessages);
+        }
+        return new ChatContext(summary, summaryUntilId, Collections.unmodifiableList(updated));
+    }
+
+    /**
+     * 消息是否还没有被合并进摘要
+     */
+    public boolean isUnsummarized(ChatMessage message) {
+        return summaryUntilId == null || message.getId() == null || message.getId() > summaryUntilId;
+    }
+}
@@ -0,0 +1,96 @@
+package top.hazenix.hazeaihub.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.event.ChatSessionDeletedEvent;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * @description: 会话上下文的本地缓存（Caffeine，W-TinyLFU 淘汰），按会话ID缓存滚动摘要和最近 maxMessages 条消息
+ * 容量按摘要和消息内容估算的字节数限制；新的对话在提交落库时同步写入缓存（write-through），会话删除时失效；
+ * 指标 cache.gets / cache.evictions 等以 cache=chat.context 标签暴露
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+public class ChatContextCache {
+
+    /**
+     * 每条消息除内容外的固定开销估算（对象头、字段、List 槽位）
+     */
+    private static final int MESSAGE_OVERHEAD_BYTES = 96;
+
+    private final Cache<Long, ChatContext> cache;
+    private final int maxMessages;
+
+    public ChatContextCache(ChatContextProperties properties, MeterRegistry meterRegistry) {
+        this.maxMessages = properties.getMaxMessages();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getCacheMaxBytes())
+                .weigher((Long sessionId, ChatContext context) -> weigh(context))
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.context");
+    }
+
+    /**
+     * 获取会话上下文，未命中时通过 loader 从数据库加载并缓存
+     */
+    public ChatContext get(Long sessionId, Function<Long, ChatContext> loader) {
+        return cache.get(sessionId, loader);
+    }
+
+    /**
+     * 只查缓存，未命中时返回 null（异步加载的调用方自行加载后 putIfAbsent）
+     */
+    public ChatContext getIfPresent(Long sessionId) {
+        return cache.getIfPresent(sessionId);
+    }
+
+    /**
+     * 缓存异步加载的上下文；加载期间已有其他请求写入时保留已有的值
+     */
+    public ChatContext putIfAbsent(Long sessionId, ChatContext context) {
+        ChatContext existing = cache.asMap().putIfAbsent(sessionId, context);
+        return existing == null ? context : existing;
+    }
+
+    /**
+     * 写入一轮新对话：只更新已缓存的会话，未缓存的会话下次读取时再从数据库加载
+     */
+    public void append(ChatTurn turn) {
+        cache.asMap().computeIfPresent(turn.sessionId(), (sessionId, context) -> context.withTurn(turn, maxMessages));
+    }
+
+    public void invalidate(Long sessionId) {
+        cache.invalidate(sessionId);
+    }
+
+    public void invalidate(Collection<Long> sessionIds) {
+        cache.invalidateAll(sessionIds);
+    }
+
+    @EventListener
+    public void onSessionDeleted(ChatSessionDeletedEvent event) {
+        invalidate(event.sessionIds());
+    }
+
+    private static int weigh(ChatContext context) {
+        long bytes = context.summary() == null ? 0 : 2L * context.summary().length();
+        for (ChatMessage message : context.recentMessages()) {
+            String content = message.getContent();
+            bytes += MESSAGE_OVERHEAD_BYTES + (content == null ? 0 : 2L * content.length());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,137 @@
+package top.hazenix.hazeaihub.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import top.hazenix.hazeaihub.mapper.ChatMessageMapper;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.properties.ChatPurgeProperties;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * @description: 已软删除数据的后台清理（ai.purge.enabled=true 时启用）
+ * 每轮依次清理：超过保留期的已删除消息 → 超过保留期的已删除会话中的消息 → 消息已清空的会话；
+ * 每批一条语句（短事务、行锁 SKIP LOCKED，多节点可同时运行），批之间停顿 batchPause，
+ * 每类最多 maxBatchesPerRun 批，剩余的留到下一轮，避免长时间占用 I/O 和产生大量 WAL。
+ * 指标 chat.purge.rows{table=chat_message|chat_session}
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ai.purge", name = "enabled", havingValue = "true")
+public class ChatHistoryPurger {
+
+    private final ChatMessageMapper chatMessageMapper;
+    private final ChatSessionMapper chatSessionMapper;
+    private final ChatPurgeProperties properties;
+    private final Counter purgedMessages;
+    private final Counter purgedSessions;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean running = true;
+
+    public ChatHistoryPurger(ChatMessageMapper chatMessageMapper,
+                             ChatSessionMapper chatSessionMapper,
+                             ChatPurgeProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.chatMessageMapper = chatMessageMapper;
+        this.chatSessionMapper = chatSessionMapper;
+        this.properties = properties;
+        this.purgedMessages = purgedCounter(meterRegistry, "chat_message");
+        this.purgedSessions = purgedCounter(meterRegistry, "chat_session");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        log.info("启用已删除数据清理，模式: {}, 保留期: {}", properties.getMode(), properties.getRetention());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                purgeOnce();
+            } catch (RuntimeException e) {
+                // 下一轮重试
+                log.warn("清理已删除数据失败: {}", e.getMessage());
+            }
+        }, properties.getInitialDelay().toMillis(), properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // 不中断正在执行的语句，当前批结束后检查到停机标志就退出
+        running = false;
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 执行一轮清理
+     * @return 本轮删除的总行数
+     */
+    public int purgeOnce() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        int limit = properties.getBatchSize();
+        boolean archive = properties.isArchive();
+        int messages = drain(() -> chatMessageMapper.purgeDeleted(before, limit, archive), purgedMessages)
+                + drain(() -> chatMessageMapper.purgeOfDeletedSessions(before, limit, archive), purgedMessages);
+        int sessions = drain(() -> chatSessionMapper.purgeDeleted(before, limit, archive), purgedSessions);
+        if (messages + sessions > 0) {
+            log.info("清理已删除数据完成，消息: {}, 会话: {}", messages, sessions);
+        }
+        return messages + sessions;
+    }
+
+    /**
+     * 反复执行一批删除，直到不满一批、达到 maxBatchesPerRun 或正在停机
+     */
+    private int drain(IntSupplier batch, Counter counter) {
+        int total = 0;
+        for (int i = 0; i < properties.getMaxBatchesPerRun() && running; i++) {
+            int deleted = batch.getAsInt();
+            counter.increment(deleted);
+            total += deleted;
+            if (deleted < properties.getBatchSize()) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        long millis = properties.getBatchPause().toMillis();
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter purgedCounter(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("chat.purge.rows")
+                .description("后台清理删除的已软删除行数")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package top.hazenix.hazeaihub.persistence;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * @description: 流式对话读写会话历史的入口：请求开始时加载上下文，流式响应结束后保存这一轮对话
+ * 默认实现走 MyBatis（JdbcChatHistoryStore），reactive 配置下走 R2DBC（R2dbcChatHistoryStore），两者都不阻塞调用线程
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public interface ChatHistoryStore {
+
+    /**
+     * 加载会话上下文（滚动摘要 + 最近的消息），会话不存在时返回空的上下文
+     * @param sessionId 会话ID
+     */
+    Mono<ChatContext> loadContext(Long sessionId);
+
+    /**
+     * 保存一轮对话，立即返回，落库在后台完成
+     * @param turn 一轮对话
+     */
+    void save(ChatTurn turn);
+}
@@ -0,0 +1,47 @@
+package top.hazenix.hazeaihub.persistence;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * @description: 一轮完整的对话（用户消息 + AI 回复），流式响应结束后交给 ChatTurnWriteBehind 异步落库
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public record ChatTurn(Long sessionId,
+                       String userMessage,
+                       String assistantMessage,
+                       Map<String, Object> metadata,
+                       LocalDateTime createdAt) {
+
+    /**
+     * 会话列表中消息预览的最大字符数（chat_session.last_message_preview 为 varchar(200)）
+     */
+    public static final int PREVIEW_LENGTH = 100;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * 本轮对话作为会话最后一条消息的预览：取 AI 回复，回复为空时取用户消息
+     */
+    public String preview() {
+        String preview = preview(assistantMessage);
+        return preview.isEmpty() ? preview(userMessage) : preview;
+    }
+
+    /**
+     * 去掉首尾空白、连续空白（含换行）合并为一个空格，按码点截断，不会拆开代理对
+     */
+    static String preview(String content) {
+        if (content == null) {
+            return "";
+        }
+        String flat = WHITESPACE.matcher(content.strip()).replaceAll(" ");
+        if (flat.codePointCount(0, flat.length()) <= PREVIEW_LENGTH) {
+            return flat;
+        }
+        return flat.substring(0, flat.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+}
@@ -0,0 +1,109 @@
+package top.hazenix.hazeaihub.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @description: 对话溢出文件（每行一个 ChatTurn 的 JSON）
+ * 追加写入 spill 文件；重放时先把 spill 文件原子地改名为 .replay 再读取，重放期间新的溢出仍写入 spill 文件，
+ * 重放成功后删除 .replay。进程在重放中途退出时，下次启动会优先重放遗留的 .replay 文件（至少一次语义）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+public class ChatTurnSpillFile {
+
+    private final Path spillPath;
+    private final Path replayPath;
+    private final ObjectMapper objectMapper;
+
+    public ChatTurnSpillFile(Path spillPath, ObjectMapper objectMapper) {
+        this.spillPath = spillPath;
+        this.replayPath = spillPath.resolveSibling(spillPath.getFileName() + ".replay");
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 追加写入，成功返回 true
+     */
+    public synchronized boolean append(Collection<ChatTurn> turns) {
+        if (turns.isEmpty()) {
+            return true;
+        }
+        try {
+            Path parent = spillPath.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(spillPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ChatTurn turn : turns) {
+                    writer.write(objectMapper.writeValueAsString(turn));
+                    writer.newLine();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("写入对话溢出文件失败，{} 轮对话将丢失: {}", turns.size(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 是否有待重放的数据
+     */
+    public synchronized boolean hasPending() {
+        return Files.exists(replayPath) || Files.exists(spillPath);
+    }
+
+    /**
+     * 取出待重放的文件：优先返回上次未完成的 .replay，否则把 spill 文件改名为 .replay；没有数据时返回 null
+     */
+    public synchronized Path rotate() throws IOException {
+        if (Files.exists(replayPath)) {
+            return replayPath;
+        }
+        if (!Files.exists(spillPath)) {
+            return null;
+        }
+        return Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 读取文件中的全部对话，无法解析的行记录日志后跳过
+     */
+    public List<ChatTurn> read(Path path) throws IOException {
+        List<ChatTurn> turns = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    turns.add(objectMapper.readValue(line, ChatTurn.class));
+                } catch (IOException e) {
+                    log.warn("跳过无法解析的溢出记录: {}", e.getMessage());
+                }
+            }
+        }
+        return turns;
+    }
+
+    public void delete(Path path) throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
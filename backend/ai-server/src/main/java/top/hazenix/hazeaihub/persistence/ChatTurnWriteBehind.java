@@ -0,0 +1,239 @@
+package top.hazenix.hazeaihub.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+import top.hazenix.hazeaihub.properties.ChatPersistenceProperties;
+import top.hazenix.hazeaihub.service.IChatMessageService;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 对话消息的异步批量落库（write-behind）
+ * 流式响应结束后只把 ChatTurn 写入会话上下文缓存并放进有界队列，不在 Reactor Netty 的 I/O 线程上访问数据库；
+ * 后台线程按 batchSize 或 flushInterval 攒批，通过 IChatMessageService.saveTurns 在一个事务里批量写入。
+ * 队列满、写库失败、停机超时的对话写入本地溢出文件，空闲时和下次启动后重放。
+ * 整批写入失败时逐轮重试：因数据本身的问题（约束冲突等）仍然失败的对话写入死信文件并计入 chat.persistence.dead_letters，
+ * 不再重放，避免一条坏数据让整批反复失败；数据库不可用等可恢复的错误则把剩余的对话留在溢出文件中
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+public class ChatTurnWriteBehind {
+
+    private final IChatMessageService chatMessageService;
+    private final ChatContextCache chatContextCache;
+    private final ChatPersistenceProperties properties;
+    private final BlockingQueue<ChatTurn> queue;
+    private final ChatTurnSpillFile spillFile;
+    private final ChatTurnSpillFile deadLetterFile;
+    private final Counter deadLetters;
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    public ChatTurnWriteBehind(IChatMessageService chatMessageService,
+                               ChatContextCache chatContextCache,
+                               ChatPersistenceProperties properties,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.chatMessageService = chatMessageService;
+        this.chatContextCache = chatContextCache;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Path spillPath = Paths.get(properties.getSpillFile());
+        this.spillFile = new ChatTurnSpillFile(spillPath, objectMapper);
+        this.deadLetterFile = new ChatTurnSpillFile(StringUtils.isNotBlank(properties.getDeadLetterFile())
+                ? Paths.get(properties.getDeadLetterFile())
+                : spillPath.resolveSibling(spillPath.getFileName() + ".dead"), objectMapper);
+        this.deadLetters = Counter.builder("chat.persistence.dead_letters")
+                .description("逐轮重试后仍无法落库、写入死信文件的对话轮数")
+                .register(meterRegistry);
+        this.flusher = new Thread(this::runFlusher, "chat-write-behind");
+        this.flusher.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.start();
+    }
+
+    /**
+     * 提交一轮对话，不阻塞调用线程；队列已满或正在停机时直接写入溢出文件
+     */
+    public void submit(ChatTurn turn) {
+        // 先写缓存：下一轮对话的上下文不依赖本轮是否已经落库
+        chatContextCache.append(turn);
+        if (!running || !queue.offer(turn)) {
+            log.warn("对话落库队列已满或正在停机，写入溢出文件，会话ID: {}", turn.sessionId());
+            spillFile.append(List.of(turn));
+        }
+    }
+
+    /**
+     * 队列中等待落库的对话轮数
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // 不中断后台线程，避免打断正在进行的数据库写入；poll 最多等待一个 flushInterval 就会检查到停机标志
+        running = false;
+        flusher.join(properties.getShutdownTimeout().toMillis());
+        // 超时未写完的部分写入溢出文件，下次启动重放
+        List<ChatTurn> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            log.warn("停机时仍有 {} 轮对话未落库，已写入溢出文件", rest.size());
+            spillFile.append(rest);
+        }
+    }
+
+    private void runFlusher() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        long replayIntervalNanos = properties.getReplayInterval().toNanos();
+        List<ChatTurn> batch = new ArrayList<>(batchSize);
+
+        // 启动后先重放上次遗留的溢出文件
+        replaySpilled();
+        long lastReplay = System.nanoTime();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatTurn first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    // 空闲时重放溢出文件
+                    if (running && System.nanoTime() - lastReplay >= replayIntervalNanos && spillFile.hasPending()) {
+                        replaySpilled();
+                        lastReplay = System.nanoTime();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                // 攒批：直到满一批或 flushInterval 到期
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    ChatTurn next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 被外部中断视为停机：不恢复中断标志，继续把队列中剩余的对话写完
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ChatTurn> batch) {
+        List<ChatTurn> rest = save(batch);
+        if (!rest.isEmpty()) {
+            log.error("保存对话失败，{} 轮对话写入溢出文件", rest.size());
+            spillFile.append(rest);
+        }
+    }
+
+    /**
+     * 批量写入；整批失败时逐轮重试，数据本身有问题的对话转入死信文件
+     * @return 因可恢复的错误（如数据库不可用）未写入的对话，即从第一次遇到这类错误的那一轮起的剩余部分
+     */
+    private List<ChatTurn> save(List<ChatTurn> batch) {
+        try {
+            chatMessageService.saveTurns(batch);
+            return List.of();
+        } catch (Exception e) {
+            log.warn("批量保存 {} 轮对话失败，逐轮重试: {}", batch.size(), e.getMessage());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            ChatTurn turn = batch.get(i);
+            try {
+                chatMessageService.saveTurns(List.of(turn));
+            } catch (Exception e) {
+                if (!isPoison(e)) {
+                    log.warn("保存对话失败，稍后重试: {}", e.getMessage());
+                    return batch.subList(i, batch.size());
+                }
+                log.error("对话无法落库，写入死信文件，会话ID: {}, 原因: {}", turn.sessionId(), e.getMessage());
+                deadLetterFile.append(List.of(turn));
+                deadLetters.increment();
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * 重试也不会成功的错误：约束冲突、SQL 错误等；连接失败归为可恢复
+     */
+    private static boolean isPoison(Exception e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private void replaySpilled() {
+        Path file;
+        List<ChatTurn> turns;
+        try {
+            file = spillFile.rotate();
+            if (file == null) {
+                return;
+            }
+            turns = spillFile.read(file);
+        } catch (Exception e) {
+            log.error("读取对话溢出文件失败: {}", e.getMessage(), e);
+            return;
+        }
+
+        int batchSize = properties.getBatchSize();
+        int processed = 0;
+        while (processed < turns.size()) {
+            int end = Math.min(processed + batchSize, turns.size());
+            List<ChatTurn> rest = save(turns.subList(processed, end));
+            processed = end - rest.size();
+            if (!rest.isEmpty()) {
+                log.warn("重放对话溢出文件中断，剩余 {} 轮稍后重试", turns.size() - processed);
+                // 只把未处理的部分重新追加到溢出文件，已写入和已转入死信的部分不再重复
+                if (!spillFile.append(turns.subList(processed, turns.size()))) {
+                    return;
+                }
+                break;
+            }
+        }
+        try {
+            spillFile.delete(file);
+        } catch (Exception e) {
+            log.error("删除对话溢出文件失败: {}", e.getMessage(), e);
+        }
+        if (processed > 0) {
+            log.info("已重放溢出文件中的 {} 轮对话", processed);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package top.hazenix.hazeaihub.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import top.hazenix.hazeaihub.service.IChatMessageService;
+
+/**
+ * @description: 基于 MyBatis 的会话历史：上下文加载放到 blockingScheduler 上执行，保存交给 write-behind 队列批量落库
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class JdbcChatHistoryStore implements ChatHistoryStore {
+
+    private final IChatMessageService chatMessageService;
+    private final ChatTurnWriteBehind chatTurnWriteBehind;
+    private final Scheduler blockingScheduler;
+
+    @Override
+    public Mono<ChatContext> loadContext(Long sessionId) {
+        return Mono.fromCallable(() -> chatMessageService.loadContext(sessionId))
+                .subscribeOn(blockingScheduler);
+    }
+
+    @Override
+    public void save(ChatTurn turn) {
+        chatTurnWriteBehind.submit(turn);
+    }
+}
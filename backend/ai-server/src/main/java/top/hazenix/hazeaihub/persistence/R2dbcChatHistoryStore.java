@@ -0,0 +1,71 @@
+package top.hazenix.hazeaihub.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+import top.hazenix.hazeaihub.repository.ChatMessageR2dbcRepository;
+import top.hazenix.hazeaihub.repository.ChatSessionR2dbcRepository;
+
+/**
+ * @description: 基于 R2DBC 的会话历史（reactive 配置）：上下文加载和对话保存都不占用线程等待数据库
+ * 与 JdbcChatHistoryStore 共用 ChatContextCache；单轮写库失败时转交 ChatTurnWriteBehind（重试和溢出文件兜底）
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class R2dbcChatHistoryStore implements ChatHistoryStore {
+
+    private final ChatSessionR2dbcRepository chatSessionRepository;
+    private final ChatMessageR2dbcRepository chatMessageRepository;
+    private final ChatContextCache chatContextCache;
+    private final ChatContextProperties chatContextProperties;
+    private final ChatTurnWriteBehind chatTurnWriteBehind;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<ChatContext> loadContext(Long sessionId) {
+        ChatContext cached = chatContextCache.getIfPresent(sessionId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.zip(
+                        chatSessionRepository.findSummaryById(sessionId).defaultIfEmpty(new ChatSession()),
+                        chatMessageRepository.findLatestBySessionId(sessionId, chatContextProperties.getMaxMessages()).collectList())
+                .map(tuple -> chatContextCache.putIfAbsent(sessionId,
+                        new ChatContext(tuple.getT1().getSummary(), tuple.getT1().getSummaryUntilId(), tuple.getT2())));
+    }
+
+    @Override
+    public void save(ChatTurn turn) {
+        String metadataJson;
+        try {
+            metadataJson = objectMapper.writeValueAsString(turn.metadata());
+        } catch (JsonProcessingException e) {
+            log.warn("metadata 序列化失败，转交 write-behind 保存: {}", e.getMessage());
+            chatTurnWriteBehind.submit(turn);
+            return;
+        }
+        chatContextCache.append(turn);
+        chatMessageRepository.insertTurn(turn, metadataJson)
+                .subscribe(rows -> {
+                    if (rows == 0) {
+                        log.warn("会话 {} 不存在，消息未保存", turn.sessionId());
+                    }
+                }, error -> {
+                    log.error("R2DBC 保存会话 {} 的消息失败，转交 write-behind: {}", turn.sessionId(), error.getMessage());
+                    // 缓存里已经有这一轮，先失效再转交，避免 write-behind 再次追加
+                    chatContextCache.invalidate(turn.sessionId());
+                    chatTurnWriteBehind.submit(turn);
+                });
+    }
+}
@@ -0,0 +1,81 @@
+package top.hazenix.hazeaihub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.persistence.ChatTurn;
+
+import java.time.LocalDateTime;
+
+/**
+ * @description: chat_message 的 R2DBC 访问（reactive 配置），SQL 与 ChatMessageMapper 保持一致
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ChatMessageR2dbcRepository {
+
+    /**
+     * 一条语句写入一轮对话并推进会话的最后活跃时间和最后一条消息预览；会话不存在或已删除时 UPDATE 没有返回行，不会写入消息
+     */
+    private static final String INSERT_TURN_SQL =
+            "WITH s AS (" +
+            "UPDATE chat_session SET last_active_at = GREATEST(last_active_at, :createdAt), " +
+            "last_message_preview = CASE WHEN :createdAt >= last_active_at " +
+            "THEN CAST(:preview AS varchar) ELSE last_message_preview END, " +
+            "updated_at = now() " +
+            "WHERE id = :sessionId AND status = true RETURNING id) " +
+            "INSERT INTO chat_message (session_id, role, content, metadata_json, created_at) " +
+            "SELECT s.id, v.role, v.content, CAST(v.metadata AS jsonb), :createdAt " +
+            "FROM s, (VALUES (1, 'user', CAST(:userMessage AS text), CAST(NULL AS text)), " +
+            "(2, 'assistant', CAST(:assistantMessage AS text), CAST(:metadata AS text))) AS v(seq, role, content, metadata) " +
+            "ORDER BY v.seq";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * 按 id 倒序取会话中最近的 limit 条消息，不查 metadata_json
+     * @param sessionId 会话ID
+     * @param limit 限制数量
+     * @return 消息列表（从新到旧）
+     */
+    public Flux<ChatMessage> findLatestBySessionId(Long sessionId, int limit) {
+        return databaseClient.sql("SELECT id, session_id, role, content, created_at FROM chat_message " +
+                        "WHERE session_id = :sessionId AND status = true ORDER BY id DESC LIMIT :limit")
+                .bind("sessionId", sessionId)
+                .bind("limit", limit)
+                .map((row, metadata) -> ChatMessage.builder()
+                        .id(row.get("id", Long.class))
+                        .sessionId(row.get("session_id", Long.class))
+                        .role(row.get("role", String.class))
+                        .content(row.get("content", String.class))
+                        .createdAt(row.get("created_at", LocalDateTime.class))
+                        .build())
+                .all();
+    }
+
+    /**
+     * 写入一轮对话（用户消息 + AI 回复）
+     * @param turn 一轮对话
+     * @param metadataJson AI 回复的扩展信息（JSON）
+     * @return 写入条数，会话不存在时为 0
+     */
+    public Mono<Long> insertTurn(ChatTurn turn, String metadataJson) {
+        return databaseClient.sql(INSERT_TURN_SQL)
+                .bind("sessionId", turn.sessionId())
+                .bind("createdAt", turn.createdAt())
+                .bind("userMessage", turn.userMessage())
+                .bind("assistantMessage", turn.assistantMessage())
+                .bind("metadata", metadataJson)
+                .bind("preview", turn.preview())
+                .fetch()
+                .rowsUpdated();
+    }
+}
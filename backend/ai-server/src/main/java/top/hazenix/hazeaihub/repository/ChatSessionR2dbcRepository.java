@@ -0,0 +1,57 @@
+package top.hazenix.hazeaihub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import top.hazenix.hazeaihub.entity.ChatSession;
+
+/**
+ * @description: chat_session 的 R2DBC 访问（reactive 配置），SQL 与 ChatSessionMapper 保持一致
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ChatSessionR2dbcRepository {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * 查询会话的滚动摘要
+     * @param id 会话ID
+     * @return 只包含 id、summary、summaryUntilId，会话不存在时为空
+     */
+    public Mono<ChatSession> findSummaryById(Long id) {
+        return databaseClient.sql("SELECT id, summary, summary_until_id FROM chat_session WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> ChatSession.builder()
+                        .id(row.get("id", Long.class))
+                        .summary(row.get("summary", String.class))
+                        .summaryUntilId(row.get("summary_until_id", Long.class))
+                        .build())
+                .one();
+    }
+
+    /**
+     * 新建会话
+     * @param session 会话（userId、type 必填）
+     * @return 自增生成的会话ID
+     */
+    public Mono<Long> insert(ChatSession session) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "INSERT INTO chat_session (user_id, type, title, status, last_active_at, created_at, updated_at) " +
+                        "VALUES (:userId, :type, :title, :status, :lastActiveAt, :createdAt, :updatedAt) RETURNING id")
+                .bind("userId", session.getUserId())
+                .bind("type", session.getType())
+                .bind("status", session.getStatus())
+                .bind("lastActiveAt", session.getLastActiveAt())
+                .bind("createdAt", session.getCreatedAt())
+                .bind("updatedAt", session.getUpdatedAt());
+        spec = session.getTitle() == null ? spec.bindNull("title", String.class) : spec.bind("title", session.getTitle());
+        return spec.map((row, metadata) -> row.get("id", Long.class)).one();
+    }
+}
@@ -0,0 +1,25 @@
+package top.hazenix.hazeaihub.service;
+
+import top.hazenix.hazeaihub.entity.Attachment;
+
+import java.io.InputStream;
+
+public interface IAttachmentService {
+    /**
+     * 上传附件：边读边计算 SHA-256，内容已存在时不再上传，只新增一条附件记录
+     * @param in 文件内容，调用方负责关闭
+     * @param fileName 原始文件名
+     * @param mimeType MIME 类型
+     * @return 附件记录
+     */
+    Attachment upload(InputStream in, String fileName, String mimeType);
+
+    /**
+     * 按内容哈希查找当前用户自己的附件，客户端可先算哈希再决定是否需要上传
+     * 只返回已关联到该用户会话消息的附件，不会暴露其他用户的附件记录
+     * @param sha256 内容哈希（十六进制）
+     * @param userId 用户ID
+     * @return 附件记录，不存在时为 null
+     */
+    Attachment findBySha256(String sha256, Long userId);
+}
@@ -2,13 +2,12 @@ package top.hazenix.hazeaihub.service;
 
 
 import reactor.core.publisher.Flux;
-
-import java.util.Map;
+import top.hazenix.hazeaihub.stream.StreamEvent;
 
 public interface IBailianThinkingService {
-    Flux<Map<String, String>> chatWithThinking(String userMessage,
-                                               Boolean enableThinking,
-                                               Integer thinkingBudget,
-                                               String chatId);
+    Flux<StreamEvent> chatWithThinking(String userMessage,
+                                       Boolean enableThinking,
+                                       Integer thinkingBudget,
+                                       String chatId);
 
 }
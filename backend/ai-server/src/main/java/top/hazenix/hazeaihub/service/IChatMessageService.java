@@ -1,4 +1,45 @@
 package top.hazenix.hazeaihub.service;
 
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.persistence.ChatContext;
+import top.hazenix.hazeaihub.persistence.ChatTurn;
+
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface IChatMessageService {
+
+    /**
+     * 批量保存多轮对话：每个会话只更新一次 last_active_at，消息用一条多行 INSERT 写入
+     * 会话不存在或已删除的对话会被丢弃
+     * @param turns 对话列表
+     * @return 写入的消息条数
+     */
+    int saveTurns(List<ChatTurn> turns);
+
+    /**
+     * 获取会话上下文：滚动摘要和最近 ai.context.max-messages 条消息（从新到旧），优先读缓存
+     * @param sessionId 会话ID
+     * @return 会话上下文，会话不存在时摘要为空、消息列表为空
+     */
+    ChatContext loadContext(Long sessionId);
+
+    /**
+     * 按 id 正序分页读取会话消息，逐条交给 consumer（数据库游标逐行读取，不把整页放进内存）
+     * @param sessionId 会话ID
+     * @param afterId 上一页最后一条消息id，为空时从第一条开始
+     * @param limit 每页条数
+     * @param consumer 消息处理
+     * @return 本页消息条数，小于 limit 说明已经是最后一页
+     */
+    int streamMessages(Long sessionId, Long afterId, int limit, Consumer<ChatMessage> consumer);
+
+    /**
+     * 软删除会话中的一条消息，重新计算会话列表中的消息预览，并使该会话的上下文缓存失效
+     * @param userId 用户ID
+     * @param sessionId 会话ID
+     * @param messageId 消息ID
+     * @return 是否删除成功，消息不存在、已删除或会话不属于该用户时为 false
+     */
+    boolean deleteMessage(Long userId, Long sessionId, Long messageId);
 }
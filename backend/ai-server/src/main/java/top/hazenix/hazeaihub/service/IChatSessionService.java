@@ -1,6 +1,10 @@
 package top.hazenix.hazeaihub.service;
 
 import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.result.CursorPage;
+import top.hazenix.hazeaihub.vo.ChatSessionSummaryVO;
+
+import java.util.Collection;
 
 public interface IChatSessionService {
     /**
@@ -11,4 +15,48 @@ public interface IChatSessionService {
      * @return 创建的会话对象（包含自增生成的ID）
      */
     ChatSession createSession(Long userId, String type, String title);
+
+    /**
+     * 按最后活跃时间倒序分页查询用户某类会话的ID（keyset 分页，翻页开销与页码无关）
+     * @param userId 用户ID
+     * @param type 会话类型
+     * @param cursor 上一页返回的 nextCursor，为空时查第一页
+     * @param limit 每页条数
+     * @return 会话ID和下一页游标
+     */
+    CursorPage<Long> pageSessionIds(Long userId, String type, String cursor, int limit);
+
+    /**
+     * 侧边栏会话列表：一次查询取出一页会话的标题、分组、最后活跃时间和最后一条消息预览
+     * @param userId 用户ID
+     * @param type 会话类型
+     * @param cursor 上一页返回的 nextCursor，为空时查第一页（与 pageSessionIds 的游标通用）
+     * @param limit 每页条数
+     * @return 会话列表项和下一页游标
+     */
+    CursorPage<ChatSessionSummaryVO> pageSessionSummaries(Long userId, String type, String cursor, int limit);
+
+    /**
+     * 会话是否存在且属于该用户
+     * @param sessionId 会话ID
+     * @param userId 用户ID
+     * @param type 会话类型
+     */
+    boolean isOwnedBy(Long sessionId, Long userId, String type);
+
+    /**
+     * 会话是否存在且属于该用户（不限会话类型）
+     * @param sessionId 会话ID
+     * @param userId 用户ID
+     */
+    boolean isOwnedBy(Long sessionId, Long userId);
+
+    /**
+     * 软删除用户的会话，删除后发布 ChatSessionDeletedEvent
+     * @param userId 用户ID
+     * @param sessionIds 会话ID
+     * @return 实际删除的会话数（不存在、已删除或不属于该用户的会话被忽略）
+     * @throws IllegalArgumentException 会话ID为空或超过单次删除上限
+     */
+    int deleteSessions(Long userId, Collection<Long> sessionIds);
 }
@@ -2,6 +2,7 @@ package top.hazenix.hazeaihub.service;
 
 import jakarta.validation.Valid;
 import top.hazenix.hazeaihub.dto.GroupDTO;
+import top.hazenix.hazeaihub.dto.GroupSortDTO;
 import top.hazenix.hazeaihub.entity.Group;
 
 import java.util.List;
@@ -26,4 +27,19 @@ public interface IGroupService {
      * 修改分组信息（名称，排序号）
      */
     void updateGroup(Long id, @Valid GroupDTO groupDTO);
+
+    /**
+     * 批量修改分组排序（拖拽排序），一条语句更新；有分组不属于当前用户时整体失败
+     */
+    void sortGroups(List<GroupSortDTO> items);
+
+    /**
+     * 批量删除分组，分组下的会话移出分组；有分组不属于当前用户时整体失败
+     */
+    void deleteGroups(List<Long> ids);
+
+    /**
+     * 把多个会话移入分组；分组或会话不属于当前用户时整体失败
+     */
+    void moveSessions(Long groupId, List<Long> sessionIds);
 }
@@ -0,0 +1,113 @@
+package top.hazenix.hazeaihub.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import top.hazenix.hazeaihub.constant.MessageConstant;
+import top.hazenix.hazeaihub.entity.Attachment;
+import top.hazenix.hazeaihub.mapper.AttachmentMapper;
+import top.hazenix.hazeaihub.service.IAttachmentService;
+import top.hazenix.hazeaihub.storage.ObjectStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * @description: 附件服务：按内容寻址存储，对象名为 files/{sha256}.{ext}
+ * 上传内容在写入本地临时文件的同时计算 SHA-256（只读一遍），哈希已存在时跳过上传、复用已有对象；
+ * 不存在时把临时文件交给 ObjectStorage（大文件分片并行上传、断点续传）。并发上传同一内容时对象名相同，重复写入结果一致
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttachmentServiceImpl implements IAttachmentService {
+
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final AttachmentMapper attachmentMapper;
+    private final ObjectStorage objectStorage;
+
+    @Override
+    public Attachment upload(InputStream in, String fileName, String mimeType) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("haze-attachment-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = in.transferTo(out);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+
+            Attachment existing = attachmentMapper.selectOneBySha256(sha256);
+            String storagePath;
+            if (existing != null) {
+                log.info("附件内容已存在，跳过上传: {} -> {}", fileName, existing.getStoragePath());
+                storagePath = existing.getStoragePath();
+            } else {
+                storagePath = objectStorage.upload(objectName(sha256, fileName), temp, mimeType);
+            }
+
+            Attachment attachment = Attachment.builder()
+                    .fileName(fileName)
+                    .mimeType(mimeType == null ? "application/octet-stream" : mimeType)
+                    .fileSize(size)
+                    .storagePath(storagePath)
+                    .sha256(sha256)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            attachmentMapper.insert(attachment);
+            return attachment;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException(MessageConstant.UPLOAD_FAILED, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public Attachment findBySha256(String sha256, Long userId) {
+        String normalized = sha256 == null ? "" : sha256.toLowerCase(Locale.ROOT);
+        if (userId == null || !SHA256.matcher(normalized).matches()) {
+            return null;
+        }
+        // 全局查找只用于上传去重；对外只查当前用户自己的附件
+        return attachmentMapper.selectOwnedBySha256(normalized, userId);
+    }
+
+    /**
+     * files/{sha256}.{ext}，后缀取原始文件名的后缀（小写），不合法时省略
+     */
+    static String objectName(String sha256, String fileName) {
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches()
+                ? "files/" + sha256 + "." + extension
+                : "files/" + sha256;
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败: {}", temp, e);
+        }
+    }
+}
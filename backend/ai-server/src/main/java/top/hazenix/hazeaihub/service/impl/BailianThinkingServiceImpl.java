@@ -1,7 +1,5 @@
 package top.hazenix.hazeaihub.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
@@ -9,17 +7,21 @@ import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
+import top.hazenix.hazeaihub.memory.ChatContextBuilder;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+import top.hazenix.hazeaihub.properties.DashScopeProperties;
 import top.hazenix.hazeaihub.service.IBailianThinkingService;
+import top.hazenix.hazeaihub.stream.ChatDelta;
+import top.hazenix.hazeaihub.stream.ChatDeltaExtractor;
+import top.hazenix.hazeaihub.stream.SseEventDecoder;
+import top.hazenix.hazeaihub.stream.StreamEvent;
 
 import java.net.ConnectException;
 import java.nio.channels.UnresolvedAddressException;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,8 +41,10 @@ import java.util.Map;
 public class BailianThinkingServiceImpl  {
 
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final ChatDeltaExtractor chatDeltaExtractor;
     private final ChatMemory chatMemory;
+    private final ChatContextBuilder chatContextBuilder;
+    private final ChatContextProperties chatContextProperties;
 
     @Value("${spring.ai.openai.api-key}")
     private String apiKey;
@@ -49,13 +53,18 @@ public class BailianThinkingServiceImpl  {
     private String model;
 
     public BailianThinkingServiceImpl(WebClient.Builder webClientBuilder,
-                                      ObjectMapper objectMapper,
-                                      ChatMemory chatMemory) {
+                                      ChatDeltaExtractor chatDeltaExtractor,
+                                      ChatMemory chatMemory,
+                                      ChatContextBuilder chatContextBuilder,
+                                      DashScopeProperties dashScopeProperties,
+                                      ChatContextProperties chatContextProperties) {
         this.webClient = webClientBuilder
-                .baseUrl("https://dashscope.aliyuncs.com/compatible-mode/v1")
+                .baseUrl(dashScopeProperties.getBaseUrl())
                 .build();
-        this.objectMapper = objectMapper;
+        this.chatDeltaExtractor = chatDeltaExtractor;
         this.chatMemory = chatMemory;
+        this.chatContextBuilder = chatContextBuilder;
+        this.chatContextProperties = chatContextProperties;
     }
 
     /**
@@ -70,43 +79,20 @@ public class BailianThinkingServiceImpl  {
      * @param thinkingBudget 思考过程的最大 token 数
      * @param chatId 会话ID，用于获取和保存会话上下文（可选）
      */
-    public Flux<Map<String, String>> chatWithThinking(String userMessage, 
+    public Flux<StreamEvent> chatWithThinking(String userMessage, 
                                                        Boolean enableThinking,
                                                        Integer thinkingBudget,
                                                        String chatId) {
-        // 构建消息列表，包含历史消息和当前用户消息
-        List<Map<String, String>> messages = new ArrayList<>();
-        
-        // 如果有 chatId，从 ChatMemory 获取历史消息
+        // 如果有 chatId，从 ChatMemory 获取历史消息，按模型的 token 预算截取后与当前用户消息组成消息列表
+        List<Message> historyMessages = null;
         if (chatId != null && !chatId.trim().isEmpty()) {
             try {
-                List<Message> historyMessages = chatMemory.get(chatId,5);// 获取最近的5条消息作为上下文
-                if (historyMessages != null && !historyMessages.isEmpty()) {
-                    // 将历史消息转换为 API 格式
-                    for (Message msg : historyMessages) {
-                        Map<String, String> msgMap = new HashMap<>();
-                        if (msg instanceof UserMessage) {
-                            msgMap.put("role", "user");
-                            msgMap.put("content", msg.getText());
-                        } else if (msg instanceof AssistantMessage) {
-                            msgMap.put("role", "assistant");
-                            msgMap.put("content", msg.getText());
-                        }
-                        if (!msgMap.isEmpty()) {
-                            messages.add(msgMap);
-                        }
-                    }
-                }
+                historyMessages = chatMemory.get(chatId, chatContextProperties.getMaxMessages());
             } catch (Exception e) {
                 log.warn("获取会话历史失败，将使用新会话: {}", e.getMessage());
             }
         }
-        
-        // 添加当前用户消息
-        Map<String, String> currentMessage = new HashMap<>();
-        currentMessage.put("role", "user");
-        currentMessage.put("content", userMessage);
-        messages.add(currentMessage);
+        List<Map<String, String>> messages = chatContextBuilder.build(historyMessages, userMessage, model);
         
         // 构建请求体
         Map<String, Object> requestBody = new HashMap<>();
@@ -133,42 +119,13 @@ public class BailianThinkingServiceImpl  {
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToFlux(DataBuffer.class)
-                // 实时处理：将每个 DataBuffer 转换为字符串并按行拆分
-                .flatMap(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    String content = new String(bytes, StandardCharsets.UTF_8);
-                    
-                    // 按行拆分，支持跨 buffer 的行
-                    String[] lines = content.split("\\r?\\n");
-                    List<String> lineList = new ArrayList<>();
-                    for (String line : lines) {
-                        if (!line.isEmpty()) {
-                            lineList.add(line);
-                        }
-                    }
-                    return Flux.fromIterable(lineList);
-                })
-                .filter(line -> {
-                    return line.startsWith("data: ") && !line.contains("[DONE]");
-                })
-                .map(line -> {
-                    String json = line.substring(6).trim(); // 移除 "data: " 前缀并去除空白
-                    if (json.isEmpty()) {
-                        return null;
-                    }
-                    return json;
-                })
-                .filter(json -> json != null && !json.isEmpty()) // 过滤空 JSON
-                .mapNotNull(chunk -> parseStreamChunk(chunk))
-                .doOnNext(result -> {
+                // 增量解码 SSE：跨 buffer 的半行会被保留并在下一个 buffer 到达时拼接
+                .transform(body -> SseEventDecoder.decodeStream(body, this::extractDelta))
+                .concatMapIterable(StreamEvent::from)
+                .doOnNext(event -> {
                     // 收集 answer 类型的内容，用于保存到 ChatMemory
-                    if (result != null && "answer".equals(result.get("type"))) {
-                        String content = result.get("content");
-                        if (content != null) {
-                            assistantResponse.append(content);
-                        }
+                    if (event instanceof StreamEvent.Answer answer) {
+                        assistantResponse.append(answer.content());
                     }
                 })
                 .doOnComplete(() -> {
@@ -196,78 +153,12 @@ public class BailianThinkingServiceImpl  {
     }
 
     /**
-     * 解析流式响应的每个 chunk
+     * 从 SSE data 负载中提取 delta，跳过空负载和结束标记 [DONE]
      */
-    private Map<String, String> parseStreamChunk(String json) {
-        try {
-            // 处理空行或空白
-            if (json == null || json.trim().isEmpty()) {
-                return null;
-            }
-            
-            JsonNode root = objectMapper.readTree(json);
-            JsonNode choices = root.path("choices");
-            
-            if (!choices.isArray() || choices.size() == 0) {
-                return null;
-            }
-            
-            JsonNode delta = choices.get(0).path("delta");
-            if (delta.isMissingNode() || delta.isEmpty()) {
-                return null;
-            }
-            
-            // 提取各个字段的值（不自动转换为null，而是检查是否为null node或空字符串）
-            String reasoningContent = null;
-            if (delta.has("reasoning_content") && !delta.get("reasoning_content").isNull()) {
-                String rc = delta.get("reasoning_content").asText();
-                if (rc != null && !rc.isEmpty() && !rc.equals("null")) {
-                    reasoningContent = rc;
-                }
-            }
-            
-            String reasoning = null;
-            if (delta.has("reasoning") && !delta.get("reasoning").isNull()) {
-                String r = delta.get("reasoning").asText();
-                if (r != null && !r.isEmpty() && !r.equals("null")) {
-                    reasoning = r;
-                }
-            }
-            
-            String content = null;
-            if (delta.has("content") && !delta.get("content").isNull()) {
-                String c = delta.get("content").asText();
-                if (c != null && !c.isEmpty() && !c.equals("null")) {
-                    content = c;
-                }
-            }
-            
-            Map<String, String> result = new HashMap<>();
-            
-            // 优先级：content > reasoning_content > reasoning
-            // 如果 content 存在，优先返回 answer（因为这是最终答案）
-            if (content != null) {
-                result.put("type", "answer");
-                result.put("content", content);
-                return result;
-            }
-            
-            // 如果没有 content，但有 reasoning_content，返回 thinking
-            if (reasoningContent != null) {
-                result.put("type", "thinking");
-                result.put("content", reasoningContent);
-                return result;
-            }
-            
-            // 如果只有 reasoning 字段，返回 thinking
-            if (reasoning != null) {
-                result.put("type", "thinking");
-                result.put("content", reasoning);
-                return result;
-            }
-        } catch (Exception e) {
-            log.error("解析响应失败: {}", json, e);
+    private ChatDelta extractDelta(byte[] buf, int offset, int length) {
+        if (length == 0 || SseEventDecoder.isDone(buf, offset, length)) {
+            return null;
         }
-        return null;
+        return chatDeltaExtractor.extract(buf, offset, length);
     }
 }
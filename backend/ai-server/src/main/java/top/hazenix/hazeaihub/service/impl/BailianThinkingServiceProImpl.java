@@ -1,30 +1,32 @@
 package top.hazenix.hazeaihub.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
-import top.hazenix.hazeaihub.entity.ChatMessage;
-import top.hazenix.hazeaihub.entity.ChatSession;
-import top.hazenix.hazeaihub.mapper.ChatMessageMapper;
-import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import reactor.core.publisher.Mono;
+import top.hazenix.hazeaihub.constant.MessageConstant;
+import top.hazenix.hazeaihub.memory.ChatContextBuilder;
+import top.hazenix.hazeaihub.persistence.ChatTurn;
+import top.hazenix.hazeaihub.persistence.ChatHistoryStore;
+import top.hazenix.hazeaihub.properties.DashScopeProperties;
 import top.hazenix.hazeaihub.service.IBailianThinkingService;
+import top.hazenix.hazeaihub.stream.ChatDelta;
+import top.hazenix.hazeaihub.stream.ChatDeltaExtractor;
+import top.hazenix.hazeaihub.stream.ChatResponseCache;
+import top.hazenix.hazeaihub.stream.SseEventDecoder;
+import top.hazenix.hazeaihub.stream.StreamEvent;
+import top.hazenix.hazeaihub.stream.StreamMetrics;
 
 import java.net.ConnectException;
 import java.nio.channels.UnresolvedAddressException;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,9 +42,11 @@ import java.util.Map;
 public class BailianThinkingServiceProImpl implements IBailianThinkingService {
 
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
-    private final ChatSessionMapper chatSessionMapper;
-    private final ChatMessageMapper chatMessageMapper;
+    private final ChatDeltaExtractor chatDeltaExtractor;
+    private final ChatHistoryStore chatHistoryStore;
+    private final ChatContextBuilder chatContextBuilder;
+    private final StreamMetrics streamMetrics;
+    private final ChatResponseCache chatResponseCache;
 
     @Value("${spring.ai.openai.api-key}")
     private String apiKey;
@@ -51,15 +55,20 @@ public class BailianThinkingServiceProImpl implements IBailianThinkingService {
     private String model;
 
     public BailianThinkingServiceProImpl(WebClient.Builder webClientBuilder,
-                                        ObjectMapper objectMapper,
-                                        ChatSessionMapper chatSessionMapper,
-                                        ChatMessageMapper chatMessageMapper) {
+                                        ChatDeltaExtractor chatDeltaExtractor,
+                                        ChatHistoryStore chatHistoryStore,
+                                        ChatContextBuilder chatContextBuilder,
+                                        StreamMetrics streamMetrics,
+                                        ChatResponseCache chatResponseCache,
+                                        DashScopeProperties dashScopeProperties) {
         this.webClient = webClientBuilder
-                .baseUrl("https://dashscope.aliyuncs.com/compatible-mode/v1")
+                .baseUrl(dashScopeProperties.getBaseUrl())
                 .build();
-        this.objectMapper = objectMapper;
-        this.chatSessionMapper = chatSessionMapper;
-        this.chatMessageMapper = chatMessageMapper;
+        this.chatDeltaExtractor = chatDeltaExtractor;
+        this.chatHistoryStore = chatHistoryStore;
+        this.chatContextBuilder = chatContextBuilder;
+        this.streamMetrics = streamMetrics;
+        this.chatResponseCache = chatResponseCache;
     }
 
     /**
@@ -72,62 +81,123 @@ public class BailianThinkingServiceProImpl implements IBailianThinkingService {
      * @param chatId 会话ID，用于获取和保存会话上下文（可选）
      */
     @Override
-    public Flux<Map<String, String>> chatWithThinking(String userMessage,
-                                                       Boolean enableThinking,
-                                                       Integer thinkingBudget,
-                                                       String chatId) {
-        // 构建消息列表，包含历史消息和当前用户消息
-        List<Map<String, String>> messages = new ArrayList<>();
+    public Flux<StreamEvent> chatWithThinking(String userMessage,
+                                              Boolean enableThinking,
+                                              Integer thinkingBudget,
+                                              String chatId) {
         Long sessionIdLong = null;
-        
-        // 如果有 chatId，从数据库获取历史消息
         if (chatId != null && !chatId.trim().isEmpty()) {
             try {
-                // 尝试将 chatId 转换为 Long
-                try {
-                    sessionIdLong = Long.parseLong(chatId);
-                } catch (NumberFormatException e) {
-                    log.warn("chatId 无法转换为 Long，将创建新会话: {}", chatId);
-                    // 如果无法转换，可能需要根据业务逻辑处理，这里先设为 null
-                    sessionIdLong = null;
-                }
-                
-                if (sessionIdLong != null) {
-                    // 从数据库获取历史消息（最近5条）
-                    List<ChatMessage> historyMessages = chatMessageMapper.selectBySessionIdOrderByCreatedAt(sessionIdLong, 5);
-                    if (historyMessages != null && !historyMessages.isEmpty()) {
-                        // 将历史消息转换为 API 格式
-                        for (ChatMessage msg : historyMessages) {
-                            Map<String, String> msgMap = new HashMap<>();
-                            if ("user".equals(msg.getRole())) {
-                                msgMap.put("role", "user");
-                                msgMap.put("content", msg.getContent());
-                            } else if ("assistant".equals(msg.getRole())) {
-                                msgMap.put("role", "assistant");
-                                msgMap.put("content", msg.getContent());
-                            }
-                            if (!msgMap.isEmpty()) {
-                                messages.add(msgMap);
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("获取会话历史失败，将使用新会话: {}", e.getMessage());
+                sessionIdLong = Long.parseLong(chatId);
+            } catch (NumberFormatException e) {
+                log.warn("chatId 无法转换为 Long，将创建新会话: {}", chatId);
             }
         }
+
+        // 保存最终会话ID（可能需要在流式响应中创建新会话）
+        final Long finalSessionId = sessionIdLong;
         
-        // 添加当前用户消息
-        Map<String, String> currentMessage = new HashMap<>();
-        currentMessage.put("role", "user");
-        currentMessage.put("content", userMessage);
-        messages.add(currentMessage);
-        
-        // 构建请求体
+        return Flux.deferContextual(ctx -> {
+            // 用于收集完整的AI回复内容和思考过程片段（每次订阅独立）
+            StringBuilder assistantResponse = new StringBuilder();
+            StringBuilder thinkingContent = new StringBuilder();
+            StreamMetrics.Recorder recorder = streamMetrics.start(model, ctx.getOrDefault(StreamMetrics.ENDPOINT_KEY, null));
+            // 构建消息列表：滚动摘要 + token 预算内的最近历史 + 当前用户消息
+            return buildMessages(finalSessionId, userMessage)
+                    .flatMapMany(messages -> streamEvents(messages, enableThinking, thinkingBudget))
+                    .doOnNext(recorder::onEvent)
+                    .doOnNext(event -> {
+                        // 收集 answer / thinking 内容，用于保存到数据库
+                        if (event instanceof StreamEvent.Answer answer) {
+                            assistantResponse.append(answer.content());
+                        } else if (event instanceof StreamEvent.Thinking thinking) {
+                            thinkingContent.append(thinking.content());
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        // 流式响应完成后，提交到异步落库队列
+                        if (assistantResponse.length() > 0) {
+                            submitTurn(finalSessionId, userMessage, assistantResponse.toString(),
+                                    thinkingContent.toString(), enableThinking, thinkingBudget);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (error instanceof UnresolvedAddressException) {
+                            log.error("DNS 解析失败，无法连接到 dashscope.aliyuncs.com。请检查：1) 网络连接 2) DNS 配置 3) 是否需要代理", error);
+                        } else if (error instanceof ConnectException) {
+                            log.error("连接失败，无法连接到 dashscope.aliyuncs.com。请检查：1) 网络连接 2) 防火墙设置 3) 代理配置", error);
+                        } else {
+                            log.error("调用百炼 API 出错: {}", error.getMessage(), error);
+                        }
+                    })
+                    .doFinally(recorder::finish)
+                    // 出错时以 error 事件结束流，前端可以给出提示而不是连接被直接断开
+                    .onErrorResume(error -> Flux.just(new StreamEvent.Error(MessageConstant.AI_SERVICE_ERROR)));
+        });
+    }
+
+    /**
+     * 通过 ChatHistoryStore 异步加载会话上下文并构建消息列表，加载失败时按新会话处理
+     * @param sessionId 会话ID（可选）
+     * @param userMessage 用户消息
+     */
+    private Mono<List<Map<String, String>>> buildMessages(Long sessionId, String userMessage) {
+        if (sessionId == null) {
+            return Mono.fromSupplier(() -> chatContextBuilder.build(null, null, userMessage, model));
+        }
+        return chatHistoryStore.loadContext(sessionId)
+                .onErrorResume(e -> {
+                    log.warn("获取会话历史失败，将使用新会话: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .map(context -> chatContextBuilder.build(sessionId, context, userMessage, model))
+                .switchIfEmpty(Mono.fromSupplier(() -> chatContextBuilder.build(sessionId, null, userMessage, model)));
+    }
+
+    /**
+     * 开启响应缓存时，相同的请求（提示词、上下文、模型和思考参数）命中缓存或与进行中的请求共用一次上游调用
+     */
+    private Flux<StreamEvent> streamEvents(List<Map<String, String>> messages,
+                                           Boolean enableThinking, Integer thinkingBudget) {
+        if (!chatResponseCache.isEnabled()) {
+            return callUpstream(messages, enableThinking, thinkingBudget);
+        }
+        return chatResponseCache.get(ChatResponseCache.key(messages, model, enableThinking, thinkingBudget),
+                () -> callUpstream(messages, enableThinking, thinkingBudget));
+    }
+
+    /**
+     * 调用百炼 API，将 SSE 响应解析为事件流
+     */
+    private Flux<StreamEvent> callUpstream(List<Map<String, String>> messages,
+                                           Boolean enableThinking, Integer thinkingBudget) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .header("Authorization", "Bearer " + apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(buildRequestBody(messages, enableThinking, thinkingBudget))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                // 增量解码 SSE：跨 buffer 的半行会被保留并在下一个 buffer 到达时拼接
+                .transform(body -> SseEventDecoder.decodeStream(body, this::extractDelta))
+                .concatMapIterable(StreamEvent::from);
+    }
+
+    /**
+     * 构建请求体
+     * @param messages 消息列表
+     * @param enableThinking 是否启用思考过程
+     * @param thinkingBudget 思考预算
+     */
+    private Map<String, Object> buildRequestBody(List<Map<String, String>> messages,
+                                                 Boolean enableThinking, Integer thinkingBudget) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", model);
         requestBody.put("stream", true);
         requestBody.put("messages", messages);
+        // 让上游在最后一个 chunk 中返回 usage
+        requestBody.put("stream_options", Map.of("include_usage", true));
         
         // 添加思考过程相关参数（针对 qwen3-vl-plus 等模型）
         if (enableThinking != null && enableThinking) {
@@ -136,90 +206,11 @@ public class BailianThinkingServiceProImpl implements IBailianThinkingService {
                 requestBody.put("thinking_budget", thinkingBudget);
             }
         }
-
-        // 用于收集完整的AI回复内容
-        StringBuilder assistantResponse = new StringBuilder();
-        // 用于收集思考过程片段
-        StringBuilder thinkingContent = new StringBuilder();
-        
-        // 保存最终会话ID（可能需要在流式响应中创建新会话）
-        final Long finalSessionId = sessionIdLong;
-        
-        return webClient.post()
-                .uri("/chat/completions")
-                .header("Authorization", "Bearer " + apiKey)
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.TEXT_EVENT_STREAM)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToFlux(DataBuffer.class)
-                // 实时处理：将每个 DataBuffer 转换为字符串并按行拆分
-                .flatMap(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    String content = new String(bytes, StandardCharsets.UTF_8);
-                    
-                    // 按行拆分，支持跨 buffer 的行
-                    String[] lines = content.split("\\r?\\n");
-                    List<String> lineList = new ArrayList<>();
-                    for (String line : lines) {
-                        if (!line.isEmpty()) {
-                            lineList.add(line);
-                        }
-                    }
-                    return Flux.fromIterable(lineList);
-                })
-                .filter(line -> {
-                    return line.startsWith("data: ") && !line.contains("[DONE]");
-                })
-                .map(line -> {
-                    String json = line.substring(6).trim(); // 移除 "data: " 前缀并去除空白
-                    if (json.isEmpty()) {
-                        return null;
-                    }
-                    return json;
-                })
-                .filter(json -> json != null && !json.isEmpty()) // 过滤空 JSON
-                .mapNotNull(chunk -> parseStreamChunk(chunk))
-                .doOnNext(result -> {
-                    // 收集 answer 类型的内容，用于保存到数据库
-                    if (result != null) {
-                        String type = result.get("type");
-                        String content = result.get("content");
-                        if (content != null) {
-                            if ("answer".equals(type)) {
-                                assistantResponse.append(content);
-                            } else if ("thinking".equals(type)) {
-                                thinkingContent.append(content);
-                            }
-                        }
-                    }
-                })
-                .doOnComplete(() -> {
-                    // 流式响应完成后，保存消息到数据库
-                    if (assistantResponse.length() > 0) {
-                        try {
-                            saveMessagesToDatabase(finalSessionId, userMessage, assistantResponse.toString(), 
-                                                 thinkingContent.toString(), enableThinking, thinkingBudget);
-                        } catch (Exception e) {
-                            log.error("保存会话历史失败: {}", e.getMessage(), e);
-                        }
-                    }
-                })
-                .doOnError(error -> {
-                    if (error instanceof UnresolvedAddressException) {
-                        log.error("DNS 解析失败，无法连接到 dashscope.aliyuncs.com。请检查：1) 网络连接 2) DNS 配置 3) 是否需要代理", error);
-                    } else if (error instanceof ConnectException) {
-                        log.error("连接失败，无法连接到 dashscope.aliyuncs.com。请检查：1) 网络连接 2) 防火墙设置 3) 代理配置", error);
-                    } else {
-                        log.error("调用百炼 API 出错: {}", error.getMessage(), error);
-                    }
-                });
+        return requestBody;
     }
 
     /**
-     * 保存消息到数据库
+     * 构建一轮对话，交给 ChatHistoryStore 异步落库（不在 I/O 线程上访问数据库）
      * @param sessionId 会话ID
      * @param userMessage 用户消息
      * @param assistantResponse AI回复
@@ -227,156 +218,38 @@ public class BailianThinkingServiceProImpl implements IBailianThinkingService {
      * @param enableThinking 是否启用思考过程
      * @param thinkingBudget 思考预算
      */
-    @Transactional
-    protected void saveMessagesToDatabase(Long sessionId, String userMessage, 
-                                         String assistantResponse, String thinkingContent,
-                                         Boolean enableThinking, Integer thinkingBudget) {
-        try {
-            // 如果 sessionId 为空，需要创建新会话
-            // 注意：这里需要 userId，可能需要从安全上下文获取或作为参数传入
-            // 暂时先使用 sessionId，如果不存在则创建
-            ChatSession session = null;
-            if (sessionId != null) {
-                session = chatSessionMapper.selectById(sessionId);
-            }
-            
-            // 如果会话不存在，创建新会话
-            // TODO: 需要从安全上下文获取 userId，这里暂时使用默认值或抛出异常
-            if (session == null) {
-                log.warn("会话不存在，无法保存消息。需要先创建会话或提供有效的 sessionId");
-                // 可以选择创建新会话，但需要 userId
-                // session = ChatSession.builder()
-                //         .userId(userId) // 需要从安全上下文获取
-                //         .type("chat")
-                //         .status(true)
-                //         .lastActiveAt(LocalDateTime.now())
-                //         .createdAt(LocalDateTime.now())
-                //         .updatedAt(LocalDateTime.now())
-                //         .build();
-                // chatSessionMapper.insert(session);
-                // sessionId = session.getId();
-                return;
+    private void submitTurn(Long sessionId, String userMessage,
+                            String assistantResponse, String thinkingContent,
+                            Boolean enableThinking, Integer thinkingBudget) {
+        // TODO: sessionId 为空时需要从安全上下文获取 userId 并创建新会话
+        if (sessionId == null) {
+            log.warn("会话不存在，无法保存消息。需要先创建会话或提供有效的 sessionId");
+            return;
+        }
+
+        // 构建 metadataJson，包含思考过程相关信息
+        Map<String, Object> metadata = new HashMap<>();
+        if (enableThinking != null && enableThinking) {
+            metadata.put("enable_thinking", true);
+            if (thinkingBudget != null) {
+                metadata.put("thinking_budget", thinkingBudget);
             }
-            
-            // 更新会话的最后活跃时间
-            session.setLastActiveAt(LocalDateTime.now());
-            session.setUpdatedAt(LocalDateTime.now());
-            chatSessionMapper.updateById(session);
-            
-            LocalDateTime now = LocalDateTime.now();
-            
-            // 保存用户消息
-            ChatMessage userMsg = ChatMessage.builder()
-                    .sessionId(sessionId)
-                    .role("user")
-                    .content(userMessage)
-                    .createdAt(now)
-                    .build();
-            chatMessageMapper.insert(userMsg);
-            
-            // 构建 metadataJson，包含思考过程相关信息
-            Map<String, Object> metadata = new HashMap<>();
-            if (enableThinking != null && enableThinking) {
-                metadata.put("enable_thinking", true);
-                if (thinkingBudget != null) {
-                    metadata.put("thinking_budget", thinkingBudget);
-                }
-                if (thinkingContent != null && !thinkingContent.isEmpty()) {
-                    metadata.put("thinking_content", thinkingContent);
-                }
+            if (thinkingContent != null && !thinkingContent.isEmpty()) {
+                metadata.put("thinking_content", thinkingContent);
             }
-            metadata.put("model", model);
-            
-            // 保存AI回复
-            ChatMessage assistantMsg = ChatMessage.builder()
-                    .sessionId(sessionId)
-                    .role("assistant")
-                    .content(assistantResponse)
-                    .metadataJson(metadata.isEmpty() ? null : metadata)
-                    .createdAt(now)
-                    .build();
-            chatMessageMapper.insert(assistantMsg);
-            
-            log.debug("成功保存消息到数据库，会话ID: {}", sessionId);
-        } catch (Exception e) {
-            log.error("保存消息到数据库失败: {}", e.getMessage(), e);
-            throw e;
         }
+        metadata.put("model", model);
+
+        chatHistoryStore.save(new ChatTurn(sessionId, userMessage, assistantResponse, metadata, LocalDateTime.now()));
     }
 
     /**
-     * 解析流式响应的每个 chunk
+     * 从 SSE data 负载中提取 delta，跳过空负载和结束标记 [DONE]
      */
-    private Map<String, String> parseStreamChunk(String json) {
-        try {
-            // 处理空行或空白
-            if (json == null || json.trim().isEmpty()) {
-                return null;
-            }
-            
-            JsonNode root = objectMapper.readTree(json);
-            JsonNode choices = root.path("choices");
-            
-            if (!choices.isArray() || choices.size() == 0) {
-                return null;
-            }
-            
-            JsonNode delta = choices.get(0).path("delta");
-            if (delta.isMissingNode() || delta.isEmpty()) {
-                return null;
-            }
-            
-            // 提取各个字段的值（不自动转换为null，而是检查是否为null node或空字符串）
-            String reasoningContent = null;
-            if (delta.has("reasoning_content") && !delta.get("reasoning_content").isNull()) {
-                String rc = delta.get("reasoning_content").asText();
-                if (rc != null && !rc.isEmpty() && !rc.equals("null")) {
-                    reasoningContent = rc;
-                }
-            }
-            
-            String reasoning = null;
-            if (delta.has("reasoning") && !delta.get("reasoning").isNull()) {
-                String r = delta.get("reasoning").asText();
-                if (r != null && !r.isEmpty() && !r.equals("null")) {
-                    reasoning = r;
-                }
-            }
-            
-            String content = null;
-            if (delta.has("content") && !delta.get("content").isNull()) {
-                String c = delta.get("content").asText();
-                if (c != null && !c.isEmpty() && !c.equals("null")) {
-                    content = c;
-                }
-            }
-            
-            Map<String, String> result = new HashMap<>();
-            
-            // 优先级：content > reasoning_content > reasoning
-            // 如果 content 存在，优先返回 answer（因为这是最终答案）
-            if (content != null) {
-                result.put("type", "answer");
-                result.put("content", content);
-                return result;
-            }
-            
-            // 如果没有 content，但有 reasoning_content，返回 thinking
-            if (reasoningContent != null) {
-                result.put("type", "thinking");
-                result.put("content", reasoningContent);
-                return result;
-            }
-            
-            // 如果只有 reasoning 字段，返回 thinking
-            if (reasoning != null) {
-                result.put("type", "thinking");
-                result.put("content", reasoning);
-                return result;
-            }
-        } catch (Exception e) {
-            log.error("解析响应失败: {}", json, e);
+    private ChatDelta extractDelta(byte[] buf, int offset, int length) {
+        if (length == 0 || SseEventDecoder.isDone(buf, offset, length)) {
+            return null;
         }
-        return null;
+        return chatDeltaExtractor.extract(buf, offset, length);
     }
 }
@@ -1,8 +1,135 @@
 package top.hazenix.hazeaihub.service.impl;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.mapper.ChatMessageMapper;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.persistence.ChatContext;
+import top.hazenix.hazeaihub.persistence.ChatContextCache;
+import top.hazenix.hazeaihub.persistence.ChatTurn;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
 import top.hazenix.hazeaihub.service.IChatMessageService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class ChatMessageServiceImpl implements IChatMessageService {
+
+    /**
+     * 历史消息单页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ChatMessageMapper chatMessageMapper;
+    private final ChatSessionMapper chatSessionMapper;
+    private final ChatContextCache chatContextCache;
+    private final ChatContextProperties chatContextProperties;
+
+    @Override
+    @Transactional
+    public int saveTurns(List<ChatTurn> turns) {
+        if (turns.isEmpty()) {
+            return 0;
+        }
+
+        // 每个会话只更新一次，取该会话最后一轮对话的时间和预览（时间相同时后写入的为准）
+        Map<Long, ChatTurn> lastTurns = new LinkedHashMap<>();
+        for (ChatTurn turn : turns) {
+            lastTurns.merge(turn.sessionId(), turn, (a, b) -> a.createdAt().isAfter(b.createdAt()) ? a : b);
+        }
+        List<ChatSession> sessions = new ArrayList<>(lastTurns.size());
+        lastTurns.forEach((id, turn) -> sessions.add(ChatSession.builder()
+                .id(id)
+                .lastActiveAt(turn.createdAt())
+                .lastMessagePreview(turn.preview())
+                .build()));
+        Set<Long> existing = new HashSet<>(chatSessionMapper.touchSessions(sessions));
+
+        List<ChatMessage> messages = new ArrayList<>(turns.size() * 2);
+        int dropped = 0;
+        for (ChatTurn turn : turns) {
+            if (!existing.contains(turn.sessionId())) {
+                dropped++;
+                continue;
+            }
+            messages.add(ChatMessage.builder()
+                    .sessionId(turn.sessionId())
+                    .role("user")
+                    .content(turn.userMessage())
+                    .createdAt(turn.createdAt())
+                    .build());
+            messages.add(ChatMessage.builder()
+                    .sessionId(turn.sessionId())
+                    .role("assistant")
+                    .content(turn.assistantMessage())
+                    .metadataJson(turn.metadata())
+                    .createdAt(turn.createdAt())
+                    .build());
+        }
+        if (dropped > 0) {
+            log.warn("会话不存在，丢弃 {} 轮对话", dropped);
+        }
+        if (!messages.isEmpty()) {
+            chatMessageMapper.insertBatch(messages);
+        }
+        log.debug("批量保存对话完成，会话数: {}, 消息数: {}", existing.size(), messages.size());
+        return messages.size();
+    }
+
+    @Override
+    public ChatContext loadContext(Long sessionId) {
+        // 缓存命中时不访问数据库
+        return chatContextCache.get(sessionId, id -> {
+            ChatSession session = chatSessionMapper.selectById(id);
+            List<ChatMessage> latest = chatMessageMapper.selectLatestBySessionId(id, chatContextProperties.getMaxMessages());
+            return session == null
+                    ? new ChatContext(null, null, latest)
+                    : new ChatContext(session.getSummary(), session.getSummaryUntilId(), latest);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int streamMessages(Long sessionId, Long afterId, int limit, Consumer<ChatMessage> consumer) {
+        int count = 0;
+        // 游标需要在事务（同一个连接、关闭自动提交）内遍历，驱动才会按 fetchSize 分批拉取
+        try (Cursor<ChatMessage> cursor = chatMessageMapper.selectPageCursor(sessionId,
+                afterId == null ? 0L : afterId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)))) {
+            for (ChatMessage message : cursor) {
+                consumer.accept(message);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteMessage(Long userId, Long sessionId, Long messageId) {
+        if (chatMessageMapper.softDelete(userId, sessionId, messageId) == 0) {
+            return false;
+        }
+        // 被删除的可能正是会话列表中展示的最后一条消息，在同一个事务里重新计算预览
+        chatSessionMapper.refreshLastMessagePreview(sessionId);
+        // 缓存的最近消息中可能包含被删除的消息
+        chatContextCache.invalidate(sessionId);
+        return true;
+    }
 }
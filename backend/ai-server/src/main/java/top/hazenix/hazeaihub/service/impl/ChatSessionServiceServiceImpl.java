@@ -1,14 +1,26 @@
 package top.hazenix.hazeaihub.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.event.ChatSessionDeletedEvent;
 import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.result.CursorPage;
 import top.hazenix.hazeaihub.service.IChatSessionService;
+import top.hazenix.hazeaihub.vo.ChatSessionSummaryVO;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * @description: 会话服务实现类
@@ -21,7 +33,18 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class ChatSessionServiceServiceImpl implements IChatSessionService {
     
+    /**
+     * 历史会话单页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 批量删除单次最多条数
+     */
+    private static final int MAX_DELETE_SIZE = 500;
+
     private final ChatSessionMapper chatSessionMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * 创建新会话
@@ -51,4 +74,105 @@ public class ChatSessionServiceServiceImpl implements IChatSessionService {
         
         return session;
     }
+
+    @Override
+    public CursorPage<Long> pageSessionIds(Long userId, String type, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Keyset after = parseCursor(cursor);
+        List<ChatSession> sessions = chatSessionMapper.selectPageByUserAndType(
+                userId, type, after.lastActiveAt(), after.id(), pageSize);
+        List<Long> ids = new ArrayList<>(sessions.size());
+        for (ChatSession session : sessions) {
+            ids.add(session.getId());
+        }
+        String nextCursor = null;
+        if (sessions.size() == pageSize) {
+            ChatSession last = sessions.get(sessions.size() - 1);
+            nextCursor = cursor(last.getLastActiveAt(), last.getId());
+        }
+        return new CursorPage<>(ids, nextCursor);
+    }
+
+    @Override
+    public CursorPage<ChatSessionSummaryVO> pageSessionSummaries(Long userId, String type, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Keyset after = parseCursor(cursor);
+        List<ChatSessionSummaryVO> sessions = chatSessionMapper.selectSummaryPageByUserAndType(
+                userId, type, after.lastActiveAt(), after.id(), pageSize);
+        String nextCursor = null;
+        if (sessions.size() == pageSize) {
+            ChatSessionSummaryVO last = sessions.get(sessions.size() - 1);
+            nextCursor = cursor(last.getLastActiveAt(), last.getId());
+        }
+        return new CursorPage<>(sessions, nextCursor);
+    }
+
+    @Override
+    public boolean isOwnedBy(Long sessionId, Long userId, String type) {
+        return chatSessionMapper.selectCount(new LambdaQueryWrapper<ChatSession>()
+                .eq(ChatSession::getId, sessionId)
+                .eq(ChatSession::getUserId, userId)
+                .eq(ChatSession::getType, type)
+                .eq(ChatSession::getStatus, true)) > 0;
+    }
+
+    @Override
+    public boolean isOwnedBy(Long sessionId, Long userId) {
+        return chatSessionMapper.selectCount(new LambdaQueryWrapper<ChatSession>()
+                .eq(ChatSession::getId, sessionId)
+                .eq(ChatSession::getUserId, userId)
+                .eq(ChatSession::getStatus, true)) > 0;
+    }
+
+    @Override
+    public int deleteSessions(Long userId, Collection<Long> sessionIds) {
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            throw new IllegalArgumentException("会话ID不能为空");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(sessionIds);
+        if (distinct.size() > MAX_DELETE_SIZE) {
+            throw new IllegalArgumentException("单次最多删除 " + MAX_DELETE_SIZE + " 个会话");
+        }
+        // 单条语句自动提交，事件发布时删除已生效，缓存失效后不会再加载到旧数据
+        List<Long> deleted = chatSessionMapper.softDeleteByIdsAndUserId(userId, distinct);
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(new ChatSessionDeletedEvent(deleted));
+            log.info("删除会话成功，用户ID: {}, 会话数: {}", userId, deleted.size());
+        }
+        return deleted.size();
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 解析游标，为空时返回 (null, null) 表示从第一页开始
+     */
+    private static Keyset parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new Keyset(null, null);
+        }
+        int separator = cursor.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("无效的游标: " + cursor);
+        }
+        try {
+            return new Keyset(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(cursor.substring(0, separator))), ZoneOffset.UTC),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的游标: " + cursor, e);
+        }
+    }
+
+    /**
+     * 游标格式：{last_active_at 的毫秒时间戳（按 UTC 换算，仅用于往返编码）}_{会话ID}
+     */
+    static String cursor(LocalDateTime lastActiveAt, Long id) {
+        return lastActiveAt.toInstant(ZoneOffset.UTC).toEpochMilli() + "_" + id;
+    }
+
+    private record Keyset(LocalDateTime lastActiveAt, Long id) {
+    }
 }
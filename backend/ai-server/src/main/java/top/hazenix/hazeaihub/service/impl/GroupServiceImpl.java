@@ -1,23 +1,39 @@
 package top.hazenix.hazeaihub.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import top.hazenix.hazeaihub.cache.GroupCache;
 import top.hazenix.hazeaihub.context.BaseContext;
 import top.hazenix.hazeaihub.dto.GroupDTO;
+import top.hazenix.hazeaihub.dto.GroupSortDTO;
 import top.hazenix.hazeaihub.entity.Group;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
 import top.hazenix.hazeaihub.mapper.GroupMapper;
 import top.hazenix.hazeaihub.service.IGroupService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class GroupServiceImpl implements IGroupService {
+
+    /**
+     * 批量操作单次最多条数
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final GroupMapper groupMapper;
+    private final ChatSessionMapper chatSessionMapper;
+    private final GroupCache groupCache;
 
     @Override
     public void addGroup(GroupDTO groupDTO) {
@@ -33,41 +49,92 @@ public class GroupServiceImpl implements IGroupService {
                 .createdAt(LocalDateTime.now())
                 .build();
         groupMapper.insert(group);
+        groupCache.evict(group.getUserId());
     }
 
     @Override
     public List<Group> queryGroup() {
-        Long currentId = BaseContext.getCurrentId();
-
-        return groupMapper.selectList(
+        // 命中缓存时不访问数据库，增删改分组时失效
+        return groupCache.get(BaseContext.getCurrentId(), userId -> groupMapper.selectList(
                 new LambdaQueryWrapper<Group>()
-                        .eq(Group::getUserId, currentId)
+                        .eq(Group::getUserId, userId)
+                        .eq(Group::getStatus, true)
                         .orderByDesc(Group::getSort)
-                );
+                ));
     }
 
     @Override
     public void deleteGroup(Long id) {
-        // 权限校验
-        if(!BaseContext.getCurrentId().equals(groupMapper.selectById(id).getUserId())) {
-            throw new RuntimeException("无权限删除改分组");
+        Long currentId = BaseContext.getCurrentId();
+        // 删除条件带上 user_id，一条语句完成权限校验和删除
+        if (groupMapper.deleteByIdsAndUserId(currentId, List.of(id)) == 0) {
+            throw new RuntimeException("分组不存在或无权限删除");
         }
-
-        groupMapper.deleteById(id);
+        groupCache.evict(currentId);
     }
 
     @Override
     public void updateGroup(Long id, GroupDTO groupDTO) {
-        // 权限校验
-        if(!BaseContext.getCurrentId().equals(groupMapper.selectById(id).getUserId())) {
-            throw new RuntimeException("无权限修改该分组");
+        Long currentId = BaseContext.getCurrentId();
+        // 更新条件带上 user_id，一条语句完成权限校验和修改
+        if (groupMapper.updateByIdAndUserId(currentId, id, groupDTO.getName(), groupDTO.getSort()) == 0) {
+            throw new RuntimeException("分组不存在或无权限修改");
         }
+        groupCache.evict(currentId);
+    }
 
-        LambdaUpdateWrapper<Group> updateWrapper = new LambdaUpdateWrapper<Group>()
-                .eq(Group::getId, id)
-                .set(Group::getName, groupDTO.getName())
-                .set(Group::getSort, groupDTO.getSort());
-        
-        groupMapper.update(updateWrapper);
+    @Override
+    @Transactional
+    public void sortGroups(List<GroupSortDTO> items) {
+        // 同一分组出现多次时以最后一次为准
+        Map<Long, GroupSortDTO> distinct = new LinkedHashMap<>();
+        for (GroupSortDTO item : items) {
+            distinct.put(item.getId(), item);
+        }
+        if (distinct.isEmpty()) {
+            return;
+        }
+        checkBatchSize(distinct.size());
+        Long currentId = BaseContext.getCurrentId();
+        // 有分组不属于当前用户时整体回滚
+        if (groupMapper.updateSorts(currentId, new ArrayList<>(distinct.values())) != distinct.size()) {
+            throw new RuntimeException("部分分组不存在或无权限修改");
+        }
+        groupCache.evict(currentId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteGroups(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.isEmpty()) {
+            return;
+        }
+        checkBatchSize(distinct.size());
+        Long currentId = BaseContext.getCurrentId();
+        if (groupMapper.deleteByIdsAndUserId(currentId, distinct) != distinct.size()) {
+            throw new RuntimeException("部分分组不存在或无权限删除");
+        }
+        groupCache.evict(currentId);
+    }
+
+    @Override
+    @Transactional
+    public void moveSessions(Long groupId, List<Long> sessionIds) {
+        Set<Long> distinct = new LinkedHashSet<>(sessionIds);
+        if (distinct.isEmpty()) {
+            return;
+        }
+        checkBatchSize(distinct.size());
+        // 分组和会话的归属都在同一条 UPDATE 的条件里校验
+        if (chatSessionMapper.moveToGroup(BaseContext.getCurrentId(), groupId, distinct) != distinct.size()) {
+            throw new RuntimeException("分组或部分会话不存在或无权限修改");
+        }
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new RuntimeException("单次最多操作 " + MAX_BATCH_SIZE + " 条");
+        }
     }
 }
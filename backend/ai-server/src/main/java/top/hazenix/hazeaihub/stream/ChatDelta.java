@@ -0,0 +1,28 @@
+package top.hazenix.hazeaihub.stream;
+
+/**
+ * @description: 流式 chat-completion 单个 chunk 中 choices[0].delta 及 usage 的提取结果（不可变）
+ * 字段为 null 表示该 chunk 中不存在或为空字符串
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public record ChatDelta(String content,
+                        String reasoningContent,
+                        String reasoning,
+                        String finishReason,
+                        Usage usage) {
+
+    /**
+     * token 用量（只在最后一个 chunk 中出现）
+     */
+    public record Usage(int promptTokens, int completionTokens, int totalTokens) {
+    }
+
+    /**
+     * 思考内容：优先 reasoning_content，其次 reasoning
+     */
+    public String thinking() {
+        return reasoningContent != null ? reasoningContent : reasoning;
+    }
+}
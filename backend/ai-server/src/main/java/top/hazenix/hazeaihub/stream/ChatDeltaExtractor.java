@@ -0,0 +1,134 @@
+package top.hazenix.hazeaihub.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description: 基于 JsonParser 的 chat-completion delta 提取器
+ * 对每个 chunk 只做一次前向扫描，不构建 JsonNode 树，不分配 Map；
+ * 提取 choices[0].delta 中的 content / reasoning_content / reasoning、choices[0].finish_reason 以及 usage，
+ * 其余字段直接 skipChildren 跳过
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Slf4j
+@Component
+public class ChatDeltaExtractor {
+
+    private final JsonFactory jsonFactory;
+
+    public ChatDeltaExtractor(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 从 SSE data 负载中提取 delta，负载无效或不包含任何有用字段时返回 null
+     */
+    public ChatDelta extract(byte[] buf, int offset, int length) {
+        try (JsonParser parser = jsonFactory.createParser(buf, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String content = null;
+            String reasoningContent = null;
+            String reasoning = null;
+            String finishReason = null;
+            ChatDelta.Usage usage = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("choices".equals(field) && token == JsonToken.START_ARRAY) {
+                    // 只处理第一个 choice
+                    boolean first = true;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        if (!first || parser.currentToken() != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        first = false;
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String choiceField = parser.currentName();
+                            JsonToken choiceToken = parser.nextToken();
+                            if ("delta".equals(choiceField) && choiceToken == JsonToken.START_OBJECT) {
+                                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                    String deltaField = parser.currentName();
+                                    parser.nextToken();
+                                    switch (deltaField) {
+                                        case "content" -> content = textValue(parser);
+                                        case "reasoning_content" -> reasoningContent = textValue(parser);
+                                        case "reasoning" -> reasoning = textValue(parser);
+                                        default -> parser.skipChildren();
+                                    }
+                                }
+                            } else if ("finish_reason".equals(choiceField)) {
+                                finishReason = textValue(parser);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    }
+                } else if ("usage".equals(field) && token == JsonToken.START_OBJECT) {
+                    usage = usage(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (content == null && reasoningContent == null && reasoning == null
+                    && finishReason == null && usage == null) {
+                return null;
+            }
+            return new ChatDelta(content, reasoningContent, reasoning, finishReason, usage);
+        } catch (Exception e) {
+            log.error("解析响应失败: {}", new String(buf, offset, length, StandardCharsets.UTF_8), e);
+            return null;
+        }
+    }
+
+    private static ChatDelta.Usage usage(JsonParser parser) throws IOException {
+        int promptTokens = 0;
+        int completionTokens = 0;
+        int totalTokens = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.VALUE_NUMBER_INT) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "prompt_tokens" -> promptTokens = parser.getIntValue();
+                case "completion_tokens" -> completionTokens = parser.getIntValue();
+                case "total_tokens" -> totalTokens = parser.getIntValue();
+                default -> {
+                }
+            }
+        }
+        return new ChatDelta.Usage(promptTokens, completionTokens, totalTokens);
+    }
+
+    /**
+     * 读取标量值；null、空字符串、容器类型都视为不存在
+     */
+    private static String textValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String text = parser.getText();
+        return text == null || text.isEmpty() ? null : text;
+    }
+}
@@ -0,0 +1,185 @@
+package top.hazenix.hazeaihub.stream;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import top.hazenix.hazeaihub.properties.ResponseCacheProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * @description: 相同请求的响应缓存和并发合并（single-flight）
+ * - 正在进行的相同请求共用一次上游调用：上游 Flux 经 replay 多播，后加入的请求从第一个事件开始重放；所有请求都取消时上游调用随之取消
+ * - 正常结束的响应按原始的事件切分缓存 ttl，命中时原样按事件重放，前端看到的分片与直连上游一致
+ * - 出错或被取消的响应不缓存；指标 cache.gets 等以 cache=chat.response 标签暴露，合并次数为 chat.response.coalesced
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+public class ChatResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int EVENT_OVERHEAD_BYTES = 48;
+
+    private final ResponseCacheProperties properties;
+    private final Cache<Key, List<StreamEvent>> cache;
+    private final ConcurrentHashMap<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public ChatResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((Key key, List<StreamEvent> events) -> (int) Math.min(weigh(key, events), Integer.MAX_VALUE))
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.response");
+        this.coalesced = Counter.builder("chat.response.coalesced")
+                .description("与进行中的相同请求合并、未单独调用上游的请求数")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 命中缓存时重放缓存的事件；有相同请求正在进行时加入它；否则通过 upstream 发起调用（订阅时才真正请求上游）
+     */
+    public Flux<StreamEvent> get(Key key, Supplier<Flux<StreamEvent>> upstream) {
+        List<StreamEvent> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Flux.fromIterable(cached);
+        }
+        Flight flight = new Flight(key, upstream.get());
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.shared;
+        }
+        return flight.shared;
+    }
+
+    /**
+     * 构造缓存 key
+     * @param messages 发送给模型的消息列表，最后一条为当前用户消息，之前的为上下文
+     */
+    public static Key key(List<Map<String, String>> messages, String model,
+                          Boolean enableThinking, Integer thinkingBudget) {
+        Map<String, String> prompt = messages.get(messages.size() - 1);
+        boolean thinking = enableThinking != null && enableThinking;
+        // 未启用思考时思考预算不会发给上游，不参与区分
+        Integer budget = thinking && thinkingBudget != null && thinkingBudget > 0 ? thinkingBudget : null;
+        return new Key(normalize(prompt.get("content")), contextHash(messages.subList(0, messages.size() - 1)),
+                model, thinking, budget);
+    }
+
+    /**
+     * 规范化提示词：Unicode NFKC（全角/半角等统一）、去掉首尾空白、连续空白合并为一个空格
+     */
+    static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(prompt, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(normalized.strip()).replaceAll(" ");
+    }
+
+    private static String contextHash(List<Map<String, String>> context) {
+        if (context.isEmpty()) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map<String, String> message : context) {
+                digest.update(String.valueOf(message.get("role")).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(message.get("content")).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long weigh(Key key, List<StreamEvent> events) {
+        long bytes = 2L * key.prompt().length() + key.contextHash().length();
+        for (StreamEvent event : events) {
+            bytes += weigh(event);
+        }
+        return bytes;
+    }
+
+    private static long weigh(StreamEvent event) {
+        if (event instanceof StreamEvent.Answer answer) {
+            return EVENT_OVERHEAD_BYTES + 2L * answer.content().length();
+        }
+        if (event instanceof StreamEvent.Thinking thinking) {
+            return EVENT_OVERHEAD_BYTES + 2L * thinking.content().length();
+        }
+        return EVENT_OVERHEAD_BYTES;
+    }
+
+    /**
+     * 一次进行中的上游调用；事件只由唯一的上游订阅串行写入 events
+     */
+    private final class Flight {
+
+        private final List<StreamEvent> events = new ArrayList<>();
+        private final Flux<StreamEvent> shared;
+        private long bytes;
+
+        private Flight(Key key, Flux<StreamEvent> upstream) {
+            this.shared = upstream
+                    // 所有请求都已取消后又有请求加入时 replay 会重新订阅上游，重新记录
+                    .doOnSubscribe(subscription -> {
+                        events.clear();
+                        bytes = 0;
+                    })
+                    .doOnNext(this::record)
+                    .doOnComplete(() -> {
+                        if (!properties.getTtl().isZero() && bytes <= properties.getMaxEntryBytes()) {
+                            cache.put(key, List.copyOf(events));
+                        }
+                    })
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .replay()
+                    .refCount();
+        }
+
+        private void record(StreamEvent event) {
+            if (bytes <= properties.getMaxEntryBytes()) {
+                events.add(event);
+                bytes += weigh(event);
+            }
+        }
+    }
+
+    /**
+     * 缓存 key
+     * @param prompt 规范化后的当前用户消息
+     * @param contextHash 上下文（摘要 + 历史消息）的 SHA-256，无上下文时为空串
+     * @param model 模型名
+     * @param enableThinking 是否启用思考过程
+     * @param thinkingBudget 思考预算，未启用思考或未指定时为 null
+     */
+    public record Key(String prompt, String contextHash, String model, boolean enableThinking, Integer thinkingBudget) {
+    }
+}
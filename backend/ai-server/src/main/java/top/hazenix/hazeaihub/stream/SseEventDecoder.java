@@ -0,0 +1,278 @@
+package top.hazenix.hazeaihub.stream;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * @description: SSE 事件增量解码器（有状态，一个流对应一个实例，非线程安全）
+ * 1. 直接在 DataBuffer 上扫描换行符，不做 byte[] -> String -> split 的转换，也不使用正则
+ * 2. 跨 buffer 的半行会保留在内部缓冲区中，等下一个 buffer 到达后继续拼接
+ * 3. 按 SSE 规范在空行处派发事件，同一事件的多行 data: 以 \n 连接；event/id/retry 字段与注释行忽略
+ * 4. 内部缓冲区在整个流中复用，派发负载时只传递 (byte[], offset, length) 视图
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public class SseEventDecoder {
+
+    /**
+     * 单个事件的默认最大字节数，防止上游异常时缓冲区无限增长
+     */
+    public static final int DEFAULT_MAX_EVENT_SIZE = 1024 * 1024;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final byte COLON = ':';
+    private static final byte SPACE = ' ';
+
+    private static final IntPredicate IS_LF = b -> b == LF;
+
+    private static final byte[] DATA_FIELD = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DONE_MARKER = "[DONE]".getBytes(StandardCharsets.US_ASCII);
+
+    private final int maxEventSize;
+
+    // 当前未结束的行
+    private byte[] line = new byte[INITIAL_CAPACITY];
+    private int lineLength;
+
+    // 当前事件已累积的 data 负载
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int dataLength;
+    private boolean hasData;
+
+    public SseEventDecoder() {
+        this(DEFAULT_MAX_EVENT_SIZE);
+    }
+
+    public SseEventDecoder(int maxEventSize) {
+        this.maxEventSize = maxEventSize;
+    }
+
+    /**
+     * 负载回调：buf 会在回调返回后被复用，调用方如需保留内容必须在回调内自行解析或拷贝
+     */
+    @FunctionalInterface
+    public interface PayloadHandler {
+        void onPayload(byte[] buf, int offset, int length);
+    }
+
+    /**
+     * 负载映射：把一个完整的 data 负载转换为业务对象，返回 null 表示丢弃
+     */
+    @FunctionalInterface
+    public interface PayloadMapper<T> {
+        T map(byte[] buf, int offset, int length);
+    }
+
+    /**
+     * 解码一个 DataBuffer，每遇到一个完整事件就回调一次；buffer 会被完整消费，但不会被释放
+     */
+    public void decode(DataBuffer buffer, PayloadHandler handler) {
+        int index = buffer.readPosition();
+        int end = buffer.writePosition();
+        while (index < end) {
+            int lf = buffer.indexOf(IS_LF, index);
+            int segmentEnd = lf < 0 ? end : lf;
+            appendToLine(buffer, index, segmentEnd - index);
+            if (lf < 0) {
+                break;
+            }
+            processLine(handler);
+            index = lf + 1;
+        }
+        buffer.readPosition(end);
+    }
+
+    /**
+     * 流结束时调用：派发最后一个没有以空行结尾的事件
+     */
+    public void flush(PayloadHandler handler) {
+        if (lineLength > 0) {
+            processLine(handler);
+        }
+        dispatch(handler);
+    }
+
+    /**
+     * 判断负载是否为 OpenAI 兼容接口的结束标记 [DONE]
+     */
+    public static boolean isDone(byte[] buf, int offset, int length) {
+        if (length != DONE_MARKER.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf[offset + i] != DONE_MARKER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将 DataBuffer 流解码为业务对象流
+     * 每次订阅都会创建新的解码器；每个 DataBuffer 解码后立即释放
+     */
+    public static <T> Flux<T> decodeStream(Flux<DataBuffer> body, PayloadMapper<T> mapper) {
+        return Flux.defer(() -> {
+            SseEventDecoder decoder = new SseEventDecoder();
+            return body
+                    .concatMapIterable(dataBuffer -> {
+                        try {
+                            return decoder.collect(dataBuffer, mapper);
+                        } finally {
+                            DataBufferUtils.release(dataBuffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.collectRemaining(mapper))));
+        });
+    }
+
+    private <T> List<T> collect(DataBuffer buffer, PayloadMapper<T> mapper) {
+        Collector<T> collector = new Collector<>(mapper);
+        decode(buffer, collector);
+        return collector.results != null ? collector.results : Collections.emptyList();
+    }
+
+    private <T> List<T> collectRemaining(PayloadMapper<T> mapper) {
+        Collector<T> collector = new Collector<>(mapper);
+        flush(collector);
+        return collector.results != null ? collector.results : Collections.emptyList();
+    }
+
+    private void appendToLine(DataBuffer buffer, int index, int length) {
+        if (length == 0) {
+            return;
+        }
+        ensureLineCapacity(lineLength + length);
+        buffer.readPosition(index);
+        buffer.read(line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void processLine(PayloadHandler handler) {
+        int length = lineLength;
+        // 去掉 \r\n 中的 \r
+        if (length > 0 && line[length - 1] == CR) {
+            length--;
+        }
+        lineLength = 0;
+
+        // 空行：派发当前事件
+        if (length == 0) {
+            dispatch(handler);
+            return;
+        }
+        // 注释行
+        if (line[0] == COLON) {
+            return;
+        }
+
+        int colon = indexOf(line, COLON, length);
+        int fieldLength = colon < 0 ? length : colon;
+        if (!isDataField(fieldLength)) {
+            return;
+        }
+
+        int valueStart = colon < 0 ? length : colon + 1;
+        if (valueStart < length && line[valueStart] == SPACE) {
+            valueStart++;
+        }
+        int valueLength = length - valueStart;
+
+        // 同一事件的多行 data 以 \n 连接
+        ensureDataCapacity(dataLength + valueLength + (hasData ? 1 : 0));
+        if (hasData) {
+            data[dataLength++] = LF;
+        }
+        System.arraycopy(line, valueStart, data, dataLength, valueLength);
+        dataLength += valueLength;
+        hasData = true;
+    }
+
+    private void dispatch(PayloadHandler handler) {
+        if (hasData) {
+            handler.onPayload(data, 0, dataLength);
+        }
+        hasData = false;
+        dataLength = 0;
+    }
+
+    private boolean isDataField(int fieldLength) {
+        if (fieldLength != DATA_FIELD.length) {
+            return false;
+        }
+        for (int i = 0; i < fieldLength; i++) {
+            if (line[i] != DATA_FIELD[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] buf, byte value, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buf[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureLineCapacity(int required) {
+        checkLimit(required);
+        if (required > line.length) {
+            byte[] grown = new byte[Math.min(Math.max(required, line.length << 1), maxEventSize)];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+    }
+
+    private void ensureDataCapacity(int required) {
+        checkLimit(required);
+        if (required > data.length) {
+            byte[] grown = new byte[Math.min(Math.max(required, data.length << 1), maxEventSize)];
+            System.arraycopy(data, 0, grown, 0, dataLength);
+            data = grown;
+        }
+    }
+
+    private void checkLimit(int required) {
+        if (required > maxEventSize) {
+            throw new DataBufferLimitException("SSE 事件超过最大长度限制: " + maxEventSize + " 字节");
+        }
+    }
+
+    /**
+     * 把回调结果收集为列表，供 concatMapIterable 使用；只有真正产生结果时才分配 List
+     */
+    private static final class Collector<T> implements PayloadHandler {
+        private final PayloadMapper<T> mapper;
+        private List<T> results;
+
+        private Collector(PayloadMapper<T> mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onPayload(byte[] buf, int offset, int length) {
+            T value = mapper.map(buf, offset, length);
+            if (value != null) {
+                if (results == null) {
+                    results = new ArrayList<>(2);
+                }
+                results.add(value);
+            }
+        }
+    }
+}
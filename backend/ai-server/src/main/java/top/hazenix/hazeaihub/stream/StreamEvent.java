@@ -0,0 +1,122 @@
+package top.hazenix.hazeaihub.stream;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 思考链路的流式事件（thinking / answer / usage / error / done）
+ * 从解析器一路传递到 Controller，序列化由预先构建的 StreamEventSerializer 完成，不经过 Map 和反射
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@JsonSerialize(using = StreamEventSerializer.class)
+public sealed interface StreamEvent
+        permits StreamEvent.Thinking, StreamEvent.Answer, StreamEvent.Usage, StreamEvent.Error, StreamEvent.Done {
+
+    String TYPE_THINKING = "thinking";
+    String TYPE_ANSWER = "answer";
+    String TYPE_USAGE = "usage";
+    String TYPE_ERROR = "error";
+    String TYPE_DONE = "done";
+
+    /**
+     * 事件类型，对应 NDJSON 中的 type 字段
+     */
+    String type();
+
+    /**
+     * 思考过程片段
+     */
+    record Thinking(String content) implements StreamEvent {
+        @Override
+        public String type() {
+            return TYPE_THINKING;
+        }
+    }
+
+    /**
+     * 最终回答片段
+     */
+    record Answer(String content) implements StreamEvent {
+        @Override
+        public String type() {
+            return TYPE_ANSWER;
+        }
+    }
+
+    /**
+     * token 用量（上游最后一个 chunk）
+     */
+    record Usage(int promptTokens, int completionTokens, int totalTokens) implements StreamEvent {
+        @Override
+        public String type() {
+            return TYPE_USAGE;
+        }
+    }
+
+    /**
+     * 调用出错（返回给前端的提示信息，不包含内部异常细节）
+     */
+    record Error(String message) implements StreamEvent {
+        @Override
+        public String type() {
+            return TYPE_ERROR;
+        }
+    }
+
+    /**
+     * 上游给出结束原因（stop / length 等）
+     */
+    record Done(String finishReason) implements StreamEvent {
+        @Override
+        public String type() {
+            return TYPE_DONE;
+        }
+    }
+
+    /**
+     * 将 delta 转换为事件，一个 chunk 可能同时带有多个字段（如最后一段回答和 finish_reason、usage），每个字段都产生一个事件
+     * 顺序：thinking > answer > usage > done；没有任何字段时返回空列表。
+     * 绝大多数 chunk 只有一个字段，直接返回单元素的不可变列表，只有多个字段时才构建 ArrayList
+     */
+    static List<StreamEvent> from(ChatDelta delta) {
+        String thinking = delta.thinking();
+        String content = delta.content();
+        ChatDelta.Usage usage = delta.usage();
+        String finishReason = delta.finishReason();
+        int count = (thinking != null ? 1 : 0) + (content != null ? 1 : 0)
+                + (usage != null ? 1 : 0) + (finishReason != null ? 1 : 0);
+        if (count == 0) {
+            return List.of();
+        }
+        if (count == 1) {
+            if (thinking != null) {
+                return List.of(new Thinking(thinking));
+            }
+            if (content != null) {
+                return List.of(new Answer(content));
+            }
+            if (usage != null) {
+                return List.of(new Usage(usage.promptTokens(), usage.completionTokens(), usage.totalTokens()));
+            }
+            return List.of(new Done(finishReason));
+        }
+        List<StreamEvent> events = new ArrayList<>(count);
+        if (thinking != null) {
+            events.add(new Thinking(thinking));
+        }
+        if (content != null) {
+            events.add(new Answer(content));
+        }
+        if (usage != null) {
+            events.add(new Usage(usage.promptTokens(), usage.completionTokens(), usage.totalTokens()));
+        }
+        if (finishReason != null) {
+            events.add(new Done(finishReason));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,77 @@
+package top.hazenix.hazeaihub.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * @description: StreamEvent 的 Jackson 序列化器
+ * 字段名和 type 取值都预先编码为 SerializedString，写出时直接拷贝字节，不做反射和 Map 遍历；
+ * 输出格式与原先的 Map 保持一致：{"type":"thinking","content":"..."}
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public class StreamEventSerializer extends StdSerializer<StreamEvent> {
+
+    private static final SerializableString FIELD_TYPE = new SerializedString("type");
+    private static final SerializableString FIELD_CONTENT = new SerializedString("content");
+    private static final SerializableString FIELD_MESSAGE = new SerializedString("message");
+    private static final SerializableString FIELD_FINISH_REASON = new SerializedString("finish_reason");
+    private static final SerializableString FIELD_PROMPT_TOKENS = new SerializedString("prompt_tokens");
+    private static final SerializableString FIELD_COMPLETION_TOKENS = new SerializedString("completion_tokens");
+    private static final SerializableString FIELD_TOTAL_TOKENS = new SerializedString("total_tokens");
+
+    private static final SerializableString TYPE_THINKING = new SerializedString(StreamEvent.TYPE_THINKING);
+    private static final SerializableString TYPE_ANSWER = new SerializedString(StreamEvent.TYPE_ANSWER);
+    private static final SerializableString TYPE_USAGE = new SerializedString(StreamEvent.TYPE_USAGE);
+    private static final SerializableString TYPE_ERROR = new SerializedString(StreamEvent.TYPE_ERROR);
+    private static final SerializableString TYPE_DONE = new SerializedString(StreamEvent.TYPE_DONE);
+
+    public StreamEventSerializer() {
+        super(StreamEvent.class);
+    }
+
+    @Override
+    public void serialize(StreamEvent event, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(event, gen);
+    }
+
+    /**
+     * 将事件写为一个 JSON 对象（不含换行），可直接用于任意 JsonGenerator
+     */
+    public static void write(StreamEvent event, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(FIELD_TYPE);
+        if (event instanceof StreamEvent.Thinking thinking) {
+            gen.writeString(TYPE_THINKING);
+            gen.writeFieldName(FIELD_CONTENT);
+            gen.writeString(thinking.content());
+        } else if (event instanceof StreamEvent.Answer answer) {
+            gen.writeString(TYPE_ANSWER);
+            gen.writeFieldName(FIELD_CONTENT);
+            gen.writeString(answer.content());
+        } else if (event instanceof StreamEvent.Usage usage) {
+            gen.writeString(TYPE_USAGE);
+            gen.writeFieldName(FIELD_PROMPT_TOKENS);
+            gen.writeNumber(usage.promptTokens());
+            gen.writeFieldName(FIELD_COMPLETION_TOKENS);
+            gen.writeNumber(usage.completionTokens());
+            gen.writeFieldName(FIELD_TOTAL_TOKENS);
+            gen.writeNumber(usage.totalTokens());
+        } else if (event instanceof StreamEvent.Error error) {
+            gen.writeString(TYPE_ERROR);
+            gen.writeFieldName(FIELD_MESSAGE);
+            gen.writeString(error.message());
+        } else if (event instanceof StreamEvent.Done done) {
+            gen.writeString(TYPE_DONE);
+            gen.writeFieldName(FIELD_FINISH_REASON);
+            gen.writeString(done.finishReason());
+        }
+        gen.writeEndObject();
+    }
+}
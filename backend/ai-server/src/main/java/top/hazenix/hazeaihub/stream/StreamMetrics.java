@@ -0,0 +1,172 @@
+package top.hazenix.hazeaihub.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 流式响应的延迟与吞吐指标，按 model、endpoint 打标签：
+ * ai.stream.first.token（type=thinking|answer，从订阅到第一个思考/回答片段）、ai.stream.chunk.gap（相邻片段间隔）、
+ * ai.stream.duration（outcome=complete|error|cancel）、ai.stream.tokens.per.second、ai.stream.tokens（type=prompt|completion）
+ * 每次请求创建一个 Recorder，逐片段只做时间戳比较和 Timer 记录，不产生额外对象
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+@Component
+public class StreamMetrics {
+
+    /**
+     * Reactor Context 中的接口名，由 Controller 通过 contextWrite 写入
+     */
+    public static final String ENDPOINT_KEY = "ai.stream.endpoint";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public StreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 在订阅时调用，开始计时
+     */
+    public Recorder start(String model, String endpoint) {
+        String m = model == null ? UNKNOWN : model;
+        String e = endpoint == null ? UNKNOWN : endpoint;
+        return new Recorder(meters.computeIfAbsent(m + '|' + e, key -> new Meters(registry, Tags.of("model", m, "endpoint", e))));
+    }
+
+    /**
+     * 单次流式响应的计时状态；Reactor 保证同一个流的信号串行到达，不需要同步
+     */
+    public static final class Recorder {
+
+        private final Meters meters;
+        private final long startNanos = System.nanoTime();
+        private long firstContentNanos;
+        private long lastContentNanos;
+        private boolean thinkingSeen;
+        private boolean answerSeen;
+        private int chunks;
+        private StreamEvent.Usage usage;
+
+        private Recorder(Meters meters) {
+            this.meters = meters;
+        }
+
+        public void onEvent(StreamEvent event) {
+            if (event instanceof StreamEvent.Usage u) {
+                usage = u;
+                return;
+            }
+            boolean thinking = event instanceof StreamEvent.Thinking;
+            if (!thinking && !(event instanceof StreamEvent.Answer)) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (thinking && !thinkingSeen) {
+                thinkingSeen = true;
+                meters.firstThinking.record(now - startNanos, TimeUnit.NANOSECONDS);
+            } else if (!thinking && !answerSeen) {
+                answerSeen = true;
+                meters.firstAnswer.record(now - startNanos, TimeUnit.NANOSECONDS);
+            }
+            if (chunks == 0) {
+                firstContentNanos = now;
+            } else {
+                meters.chunkGap.record(now - lastContentNanos, TimeUnit.NANOSECONDS);
+            }
+            lastContentNanos = now;
+            chunks++;
+        }
+
+        public void finish(SignalType signal) {
+            long end = System.nanoTime();
+            Timer duration = switch (signal) {
+                case ON_COMPLETE -> meters.durationComplete;
+                case ON_ERROR -> meters.durationError;
+                default -> meters.durationCancel;
+            };
+            duration.record(end - startNanos, TimeUnit.NANOSECONDS);
+
+            // 上游未返回 usage 时用片段数近似输出 token 数
+            int completionTokens = usage != null ? usage.completionTokens() : chunks;
+            if (usage != null) {
+                meters.promptTokens.increment(usage.promptTokens());
+                meters.completionTokens.increment(usage.completionTokens());
+            }
+            long generationNanos = lastContentNanos - firstContentNanos;
+            if (signal == SignalType.ON_COMPLETE && chunks > 1 && generationNanos > 0) {
+                meters.tokensPerSecond.record(completionTokens * 1e9 / generationNanos);
+            }
+        }
+    }
+
+    private static final class Meters {
+
+        final Timer firstThinking;
+        final Timer firstAnswer;
+        final Timer chunkGap;
+        final Timer durationComplete;
+        final Timer durationError;
+        final Timer durationCancel;
+        final DistributionSummary tokensPerSecond;
+        final Counter promptTokens;
+        final Counter completionTokens;
+
+        Meters(MeterRegistry registry, Tags tags) {
+            firstThinking = firstToken(registry, tags, "thinking");
+            firstAnswer = firstToken(registry, tags, "answer");
+            chunkGap = Timer.builder("ai.stream.chunk.gap")
+                    .description("相邻两个流式片段的间隔")
+                    .tags(tags)
+                    .register(registry);
+            durationComplete = duration(registry, tags, "complete");
+            durationError = duration(registry, tags, "error");
+            durationCancel = duration(registry, tags, "cancel");
+            tokensPerSecond = DistributionSummary.builder("ai.stream.tokens.per.second")
+                    .description("从第一个片段到最后一个片段的输出速度")
+                    .baseUnit("tokens")
+                    .tags(tags)
+                    .register(registry);
+            promptTokens = tokens(registry, tags, "prompt");
+            completionTokens = tokens(registry, tags, "completion");
+        }
+
+        private static Timer firstToken(MeterRegistry registry, Tags tags, String type) {
+            return Timer.builder("ai.stream.first.token")
+                    .description("从发起请求到收到第一个思考/回答片段的时间")
+                    .tags(tags)
+                    .tag("type", type)
+                    .register(registry);
+        }
+
+        private static Timer duration(MeterRegistry registry, Tags tags, String outcome) {
+            return Timer.builder("ai.stream.duration")
+                    .description("流式响应总耗时")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        private static Counter tokens(MeterRegistry registry, Tags tags, String type) {
+            return Counter.builder("ai.stream.tokens")
+                    .description("上游返回的 usage token 数")
+                    .baseUnit("tokens")
+                    .tags(tags)
+                    .tag("type", type)
+                    .register(registry);
+        }
+    }
+}
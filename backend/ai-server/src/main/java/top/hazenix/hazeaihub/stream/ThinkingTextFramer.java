@@ -0,0 +1,42 @@
+package top.hazenix.hazeaihub.stream;
+
+/**
+ * @description: 将事件流转换为纯文本格式：<think>思考内容</think>回答内容
+ * 有状态，每个请求（订阅）使用一个新实例
+ * @author: Hazenix
+ * @version: 0.0.1
+ * @date: 2026/10/18
+ */
+public class ThinkingTextFramer {
+
+    public static final String THINK_OPEN = "<think>";
+    public static final String THINK_CLOSE = "</think>";
+    public static final String ERROR_OPEN = "[ERROR]";
+    public static final String ERROR_CLOSE = "[/ERROR]";
+
+    private boolean thinking;
+
+    /**
+     * 返回该事件对应的文本片段，不需要输出的事件（usage / done）返回空字符串
+     */
+    public String frame(StreamEvent event) {
+        if (event instanceof StreamEvent.Thinking t) {
+            if (!thinking) {
+                thinking = true;
+                return THINK_OPEN + t.content();
+            }
+            return t.content();
+        }
+        if (event instanceof StreamEvent.Answer a) {
+            if (thinking) {
+                thinking = false;
+                return THINK_CLOSE + a.content();
+            }
+            return a.content();
+        }
+        if (event instanceof StreamEvent.Error e) {
+            return ERROR_OPEN + e.message() + ERROR_CLOSE;
+        }
+        return "";
+    }
+}
@@ -0,0 +1,48 @@
+-- 初始表结构，对应 documents/数据库设计.md
+-- 已有库通过 baseline-on-migrate（baseline-version: 0）接入，语句均为 IF NOT EXISTS，重复执行无副作用
+
+CREATE TABLE IF NOT EXISTS "group"
+(
+    id         bigserial PRIMARY KEY,
+    user_id    bigint       NOT NULL,
+    name       varchar(50)  NOT NULL,
+    sort       int4         NOT NULL DEFAULT 0,
+    status     boolean      NOT NULL DEFAULT true,
+    created_at timestamp(0) NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS chat_session
+(
+    id             bigserial PRIMARY KEY,
+    user_id        bigint       NOT NULL,
+    group_id       bigint,
+    type           varchar(16),
+    title          varchar(255),
+    status         boolean      NOT NULL DEFAULT true,
+    last_active_at timestamp(0) NOT NULL DEFAULT now(),
+    created_at     timestamp(0) NOT NULL DEFAULT now(),
+    updated_at     timestamp(0) NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS chat_message
+(
+    id            bigserial PRIMARY KEY,
+    session_id    bigint       NOT NULL REFERENCES chat_session (id),
+    role          varchar(16)  NOT NULL,
+    content       text         NOT NULL,
+    status        boolean      NOT NULL DEFAULT true,
+    metadata_json jsonb,
+    created_at    timestamp(0) NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS attachment
+(
+    id           bigserial PRIMARY KEY,
+    message_id   bigint REFERENCES chat_message (id),
+    file_name    varchar(512)  NOT NULL,
+    mime_type    varchar(128)  NOT NULL,
+    file_size    bigint        NOT NULL,
+    storage_path varchar(2048) NOT NULL,
+    sha256       varchar(64)   NOT NULL,
+    created_at   timestamp(0)  NOT NULL DEFAULT now()
+);
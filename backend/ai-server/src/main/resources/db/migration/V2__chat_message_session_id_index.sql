@@ -0,0 +1,3 @@
+-- 会话内按 id 倒序取最近 N 条消息（上下文窗口）以及按 id 分页，都走这个索引，不再从会话开头顺序扫描
+-- CONCURRENTLY 建索引不阻塞写入；Flyway 会识别该语句并在事务外执行本脚本
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_message_session_id_id ON chat_message (session_id, id DESC);
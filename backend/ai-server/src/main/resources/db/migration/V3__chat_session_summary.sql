@@ -0,0 +1,3 @@
+-- 上下文压缩：较早的对话合并为滚动摘要，summary_until_id 之前（含）的消息已包含在摘要中
+ALTER TABLE chat_session ADD COLUMN IF NOT EXISTS summary text;
+ALTER TABLE chat_session ADD COLUMN IF NOT EXISTS summary_until_id bigint;
@@ -0,0 +1,4 @@
+-- 附件按内容哈希去重、按消息查附件
+-- CONCURRENTLY 建索引不阻塞写入；Flyway 会识别该语句并在事务外执行本脚本
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_attachment_sha256 ON attachment (sha256);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_attachment_message_id ON attachment (message_id);
@@ -0,0 +1,3 @@
+-- 历史会话列表按 (user_id, type, last_active_at DESC, id DESC) 做 keyset 分页，翻到任意一页都只扫描一页的索引项
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_session_user_type_active
+    ON chat_session (user_id, type, last_active_at DESC, id DESC);
@@ -0,0 +1,3 @@
+-- 侧边栏会话列表：冗余保存最后一条消息的预览，由写入消息的路径同步维护
+-- 旧会话该列为空，查询时回退为 LATERAL 子查询取最新一条消息，不做全表回填
+ALTER TABLE chat_session ADD COLUMN IF NOT EXISTS last_message_preview varchar(200);
@@ -0,0 +1,9 @@
+-- 软删除：status = false 的会话和消息不再对用户可见，deleted_at 记录删除时间，超过保留期后由后台清理任务物理删除或归档
+ALTER TABLE chat_session ADD COLUMN IF NOT EXISTS deleted_at timestamp(0);
+-- 以版本 0 为基线接入的旧库中 chat_message 可能没有 status 列（V1 为 CREATE TABLE IF NOT EXISTS，不会补列）
+ALTER TABLE chat_message ADD COLUMN IF NOT EXISTS status boolean NOT NULL DEFAULT true;
+ALTER TABLE chat_message ADD COLUMN IF NOT EXISTS deleted_at timestamp(0);
+
+-- 归档表（ai.purge.mode = archive 时使用）：与源表列一致，不带外键和索引；源表加列时需要同步加到归档表
+CREATE TABLE IF NOT EXISTS chat_session_archive (LIKE chat_session);
+CREATE TABLE IF NOT EXISTS chat_message_archive (LIKE chat_message);
@@ -0,0 +1,17 @@
+-- 热点查询只读 status = true 的行，改用部分索引，已软删除的行不占用这些索引
+-- CONCURRENTLY 建索引不阻塞写入；Flyway 会识别该语句并在事务外执行本脚本
+
+-- 历史会话列表：替换 V5 的全量索引
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_session_user_type_active_live
+    ON chat_session (user_id, type, last_active_at DESC, id DESC) WHERE status = true;
+DROP INDEX CONCURRENTLY IF EXISTS idx_chat_session_user_type_active;
+
+-- 上下文窗口和消息分页；V2 的全量索引保留，供外键检查和清理已删除会话的消息使用
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_message_session_id_id_live
+    ON chat_message (session_id, id DESC) WHERE status = true;
+
+-- 清理任务按删除时间查找超过保留期的行，只索引已删除的行
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_session_deleted_at
+    ON chat_session (deleted_at) WHERE status = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_message_deleted_at
+    ON chat_message (deleted_at) WHERE status = false;
@@ -0,0 +1,57 @@
+package top.hazenix.hazeaihub.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.entity.Group;
+import top.hazenix.hazeaihub.properties.GroupCacheProperties;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnceAndReportsHitRatio() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GroupCache cache = new GroupCache(new GroupCacheProperties(), new LocalCacheInvalidationChannel(), registry);
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(registry.get("cache.hit.ratio").tag("cache", GroupCache.NAME).gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void evictFansOutToEveryNodeOnTheChannel() {
+        // 两个 GroupCache 共用一个通道，模拟两个节点
+        LocalCacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        GroupCache node1 = new GroupCache(new GroupCacheProperties(), channel, new SimpleMeterRegistry());
+        GroupCache node2 = new GroupCache(new GroupCacheProperties(), channel, new SimpleMeterRegistry());
+        node1.get(1L, this::load);
+        node2.get(1L, this::load);
+        node2.get(2L, this::load);
+
+        node1.evict(1L);
+        node1.get(1L, this::load);
+        node2.get(1L, this::load);
+        node2.get(2L, this::load);
+        assertThat(loads).hasValue(5);
+
+        // 监听连接重连时清空整个缓存
+        channel.dispatchAll();
+        node2.get(2L, this::load);
+        assertThat(loads).hasValue(6);
+    }
+
+    private List<Group> load(Long userId) {
+        loads.incrementAndGet();
+        return List.of(Group.builder().id(userId * 10).userId(userId).name("默认").sort(0).status(true).build());
+    }
+}
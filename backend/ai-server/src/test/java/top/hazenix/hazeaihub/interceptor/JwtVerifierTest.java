@@ -0,0 +1,62 @@
+package top.hazenix.hazeaihub.interceptor;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.constant.JwtClaimsConstant;
+import top.hazenix.hazeaihub.properties.JwtProperties;
+import top.hazenix.hazeaihub.utils.JwtUtil;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "haze-ai-hub-test-secret";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final JwtVerifier verifier = new JwtVerifier(properties(), registry, () -> new Date(now.get()));
+
+    @Test
+    void cachesVerifiedTokens() {
+        String token = JwtUtil.createJWT(SECRET, TimeUnit.HOURS.toMillis(2), new HashMap<>(Map.of(JwtClaimsConstant.USER_ID, 42L)));
+
+        assertThat(verifier.verify(token)).isEqualTo(42L);
+        assertThat(verifier.verify(token)).isEqualTo(42L);
+        assertThat(registry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCachedTokenOnceExpired() {
+        String token = JwtUtil.createJWT(SECRET, TimeUnit.MINUTES.toMillis(10), new HashMap<>(Map.of(JwtClaimsConstant.USER_ID, 42L)));
+        assertThat(verifier.verify(token)).isEqualTo(42L);
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(11));
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        // 失效后重新走 jjwt 校验，同样判定为过期
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() {
+        String token = JwtUtil.createJWT("another-secret", TimeUnit.HOURS.toMillis(2), new HashMap<>(Map.of(JwtClaimsConstant.USER_ID, 42L)));
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> verifier.verify(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JwtProperties properties() {
+        JwtProperties properties = new JwtProperties();
+        properties.setUserSecretKey(SECRET);
+        return properties;
+    }
+}
@@ -0,0 +1,123 @@
+package top.hazenix.hazeaihub.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import top.hazenix.hazeaihub.context.BaseContext;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.persistence.ChatContext;
+import top.hazenix.hazeaihub.persistence.ChatTurn;
+import top.hazenix.hazeaihub.persistence.ChatTurnWriteBehind;
+import top.hazenix.hazeaihub.properties.ChatMemoryProperties;
+import top.hazenix.hazeaihub.service.IChatMessageService;
+import top.hazenix.hazeaihub.service.IChatSessionService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedChatMemoryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void keepsLatestMessagesInPairs() {
+        ChatMemoryProperties properties = new ChatMemoryProperties();
+        properties.setMaxMessagesPerConversation(3);
+        BoundedChatMemory memory = memory(properties);
+
+        for (int i = 1; i <= 3; i++) {
+            memory.add("c1", List.of(new UserMessage("q" + i), new AssistantMessage("a" + i)));
+        }
+
+        // 截到 3 条时开头是 a2，一并丢弃
+        assertThat(memory.get("c1", 10)).extracting(Message::getText).containsExactly("q3", "a3");
+        assertThat(memory.get("c1", 1)).extracting(Message::getText).containsExactly("a3");
+        assertThat(memory.get("unknown", 10)).isEmpty();
+    }
+
+    @Test
+    void evictsIdleConversationsAndReportsGauges() {
+        ChatMemoryProperties properties = new ChatMemoryProperties();
+        properties.setIdleTtl(Duration.ofMinutes(5));
+        BoundedChatMemory memory = memory(properties);
+        memory.add("c1", List.of(new UserMessage("问题"), new AssistantMessage("回答")));
+        memory.cleanUp();
+
+        assertThat(registry.get("chat.memory.conversations").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("chat.memory.bytes").gauge().value()).isPositive();
+
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        memory.cleanUp();
+
+        assertThat(memory.get("c1", 10)).isEmpty();
+        assertThat(registry.get("chat.memory.conversations").gauge().value()).isZero();
+        assertThat(memory.retainedBytes()).isZero();
+    }
+
+    @Test
+    void staysWithinByteBudget() {
+        ChatMemoryProperties properties = new ChatMemoryProperties();
+        properties.setMaxBytes(64 * 1024);
+        BoundedChatMemory memory = memory(properties);
+        String text = "x".repeat(1000);
+
+        for (int i = 0; i < 200; i++) {
+            memory.add("c" + i, List.of(new UserMessage(text), new AssistantMessage(text)));
+        }
+        memory.cleanUp();
+
+        assertThat(memory.retainedBytes()).isLessThanOrEqualTo(64 * 1024);
+    }
+
+    @Test
+    void restoresAndSpillsOnlySessionsOwnedByCurrentUser() {
+        ChatMemoryProperties properties = new ChatMemoryProperties();
+        properties.setSpillEnabled(true);
+        properties.setIdleTtl(Duration.ofMinutes(5));
+        IChatMessageService chatMessageService = mock(IChatMessageService.class);
+        IChatSessionService chatSessionService = mock(IChatSessionService.class);
+        ChatTurnWriteBehind writeBehind = mock(ChatTurnWriteBehind.class);
+        when(chatSessionService.isOwnedBy(42L, 7L)).thenReturn(true);
+        when(chatMessageService.loadContext(42L)).thenReturn(new ChatContext(null, null, List.of(
+                ChatMessage.builder().sessionId(42L).role("assistant").content("a0").build(),
+                ChatMessage.builder().sessionId(42L).role("user").content("q0").build())));
+        BoundedChatMemory memory = new BoundedChatMemory(properties, chatMessageService, chatSessionService,
+                writeBehind, registry, nanos::get);
+
+        BaseContext.setCurrentId(7L);
+        try {
+            assertThat(memory.get("42", 10)).extracting(Message::getText).containsExactly("q0", "a0");
+            memory.add("42", List.of(new UserMessage("q1"), new AssistantMessage("a1")));
+            // 其他用户的会话：不读也不写数据库
+            memory.add("99", List.of(new UserMessage("q"), new AssistantMessage("a")));
+            assertThat(memory.get("99", 10)).extracting(Message::getText).containsExactly("q", "a");
+        } finally {
+            BaseContext.removeCurrentId();
+        }
+        verify(chatMessageService, never()).loadContext(99L);
+
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        memory.cleanUp();
+
+        ArgumentCaptor<ChatTurn> turn = ArgumentCaptor.forClass(ChatTurn.class);
+        verify(writeBehind).submit(turn.capture());
+        assertThat(turn.getValue().sessionId()).isEqualTo(42L);
+        assertThat(turn.getValue().userMessage()).isEqualTo("q1");
+    }
+
+    private BoundedChatMemory memory(ChatMemoryProperties properties) {
+        // 未开启落库时不会访问数据库和 write-behind
+        return new BoundedChatMemory(properties, null, null, null, registry, nanos::get);
+    }
+}
@@ -0,0 +1,56 @@
+package top.hazenix.hazeaihub.memory;
+
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.utils.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatContextBuilderTest {
+
+    @Test
+    void returnsWindowInChronologicalOrder() {
+        List<ChatMessage> newestFirst = List.of(
+                message(4, "assistant", "answer 2"),
+                message(3, "user", "question 2"),
+                message(2, "assistant", "answer 1"),
+                message(1, "user", "question 1"));
+
+        assertThat(ChatContextBuilder.toContextWindow(newestFirst, 10_000))
+                .extracting(ChatMessage::getId)
+                .containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void stopsAtTokenBudgetAndDropsOrphanedAnswer() {
+        List<ChatMessage> newestFirst = new ArrayList<>();
+        newestFirst.add(message(4, "assistant", "回答二"));
+        newestFirst.add(message(3, "user", "问题二"));
+        newestFirst.add(message(2, "assistant", "很长的回答".repeat(100)));
+        newestFirst.add(message(1, "user", "问题一"));
+        int budget = TokenEstimator.estimateMessage("回答二") + TokenEstimator.estimateMessage("问题二") + 10;
+
+        assertThat(ChatContextBuilder.toContextWindow(newestFirst, budget))
+                .extracting(ChatMessage::getId)
+                .containsExactly(3L, 4L);
+    }
+
+    @Test
+    void windowNeverStartsWithAssistant() {
+        List<ChatMessage> newestFirst = List.of(
+                message(2, "user", "问题二"),
+                message(1, "assistant", "回答一"));
+
+        assertThat(ChatContextBuilder.toContextWindow(newestFirst, 10_000))
+                .extracting(ChatMessage::getId)
+                .containsExactly(2L);
+        assertThat(ChatContextBuilder.toContextWindow(List.of(message(1, "assistant", "x")), 10_000)).isEmpty();
+    }
+
+    private static ChatMessage message(long id, String role, String content) {
+        return ChatMessage.builder().id(id).sessionId(1L).role(role).content(content).build();
+    }
+}
@@ -0,0 +1,67 @@
+package top.hazenix.hazeaihub.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.entity.ChatMessage;
+import top.hazenix.hazeaihub.event.ChatSessionDeletedEvent;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatContextCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnceAndAppendsWrittenTurns() {
+        ChatContextProperties properties = new ChatContextProperties();
+        properties.setMaxMessages(3);
+        ChatContextCache cache = new ChatContextCache(properties, registry);
+
+        assertThat(cache.get(1L, this::load).recentMessages()).extracting(ChatMessage::getContent).containsExactly("a1", "q1");
+        cache.append(new ChatTurn(1L, "q2", "a2", Map.of(), LocalDateTime.now()));
+        // 未缓存的会话不会被写入
+        cache.append(new ChatTurn(2L, "q", "a", Map.of(), LocalDateTime.now()));
+
+        assertThat(cache.get(1L, this::load).recentMessages()).extracting(ChatMessage::getContent).containsExactly("a2", "q2", "a1");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "chat.context").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void invalidatesOnSessionDeleted() {
+        ChatContextCache cache = new ChatContextCache(new ChatContextProperties(), registry);
+        cache.get(1L, this::load);
+        cache.onSessionDeleted(new ChatSessionDeletedEvent(List.of(1L)));
+        cache.get(1L, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void putIfAbsentKeepsConcurrentlyLoadedContext() {
+        ChatContextCache cache = new ChatContextCache(new ChatContextProperties(), registry);
+        assertThat(cache.getIfPresent(1L)).isNull();
+
+        ChatContext first = load(1L);
+        assertThat(cache.putIfAbsent(1L, first)).isSameAs(first);
+        cache.append(new ChatTurn(1L, "q2", "a2", Map.of(), LocalDateTime.now()));
+        // 较晚完成的异步加载不覆盖已追加新对话的上下文
+        assertThat(cache.putIfAbsent(1L, load(1L)).recentMessages()).extracting(ChatMessage::getContent)
+                .containsExactly("a2", "q2", "a1", "q1");
+        assertThat(cache.getIfPresent(1L).recentMessages()).hasSize(4);
+    }
+
+    private ChatContext load(Long sessionId) {
+        loads.incrementAndGet();
+        return new ChatContext(null, null, List.of(
+                ChatMessage.builder().sessionId(sessionId).role("assistant").content("a1").build(),
+                ChatMessage.builder().sessionId(sessionId).role("user").content("q1").build()));
+    }
+}
@@ -0,0 +1,47 @@
+package top.hazenix.hazeaihub.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.mapper.ChatMessageMapper;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.properties.ChatPurgeProperties;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatHistoryPurgerTest {
+
+    private final ChatMessageMapper messageMapper = mock(ChatMessageMapper.class);
+    private final ChatSessionMapper sessionMapper = mock(ChatSessionMapper.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void purgesInBoundedBatchesAndStopsAtPartialBatch() {
+        ChatPurgeProperties properties = new ChatPurgeProperties();
+        properties.setBatchSize(2);
+        properties.setMaxBatchesPerRun(3);
+        properties.setBatchPause(Duration.ZERO);
+        properties.setMode("archive");
+        ChatHistoryPurger purger = new ChatHistoryPurger(messageMapper, sessionMapper, properties, registry);
+
+        // 一直满批：最多执行 maxBatchesPerRun 批，剩余的留到下一轮
+        when(messageMapper.purgeDeleted(any(), eq(2), eq(true))).thenReturn(2);
+        // 不满一批说明已清理完
+        when(messageMapper.purgeOfDeletedSessions(any(), eq(2), eq(true))).thenReturn(2, 1);
+        when(sessionMapper.purgeDeleted(any(), eq(2), eq(true))).thenReturn(1);
+
+        assertThat(purger.purgeOnce()).isEqualTo(10);
+        verify(messageMapper, times(3)).purgeDeleted(any(), eq(2), eq(true));
+        verify(messageMapper, times(2)).purgeOfDeletedSessions(any(), eq(2), eq(true));
+        verify(sessionMapper, times(1)).purgeDeleted(any(), eq(2), eq(true));
+        assertThat(registry.get("chat.purge.rows").tag("table", "chat_message").counter().count()).isEqualTo(9);
+        assertThat(registry.get("chat.purge.rows").tag("table", "chat_session").counter().count()).isEqualTo(1);
+    }
+}
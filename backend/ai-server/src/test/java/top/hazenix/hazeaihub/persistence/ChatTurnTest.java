@@ -0,0 +1,27 @@
+package top.hazenix.hazeaihub.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatTurnTest {
+
+    @Test
+    void previewFlattensWhitespaceAndTruncatesByCodePoint() {
+        assertThat(turn("问题", "  第一行\n\n第二行\t结束  ").preview()).isEqualTo("第一行 第二行 结束");
+        // AI 回复为空时取用户消息
+        assertThat(turn(" 问题 ", "").preview()).isEqualTo("问题");
+
+        String emoji = "😀".repeat(ChatTurn.PREVIEW_LENGTH + 1);
+        String preview = turn("q", emoji).preview();
+        assertThat(preview.codePointCount(0, preview.length())).isEqualTo(ChatTurn.PREVIEW_LENGTH);
+        assertThat(preview).isEqualTo("😀".repeat(ChatTurn.PREVIEW_LENGTH));
+    }
+
+    private static ChatTurn turn(String userMessage, String assistantMessage) {
+        return new ChatTurn(1L, userMessage, assistantMessage, Map.of(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,140 @@
+package top.hazenix.hazeaihub.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+import top.hazenix.hazeaihub.properties.ChatPersistenceProperties;
+import top.hazenix.hazeaihub.service.IChatMessageService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatTurnWriteBehindTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatContextCache cache = new ChatContextCache(new ChatContextProperties(), new SimpleMeterRegistry());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void batchesTurnsAndFlushesOnShutdown() throws Exception {
+        RecordingService recorder = new RecordingService();
+        ChatTurnWriteBehind writeBehind = new ChatTurnWriteBehind(recorder.service, cache, properties(3), objectMapper, registry);
+        writeBehind.start();
+        for (int i = 0; i < 7; i++) {
+            writeBehind.submit(turn(i));
+        }
+        writeBehind.stop();
+
+        assertThat(recorder.batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+        assertThat(recorder.batches.stream().mapToInt(List::size).sum()).isEqualTo(7);
+        assertThat(Files.exists(dir.resolve("turns.ndjson"))).isFalse();
+    }
+
+    @Test
+    void spillsFailedBatchAndReplaysOnNextStart() throws Exception {
+        RecordingService recorder = new RecordingService();
+        recorder.failing.set(true);
+        ChatTurnWriteBehind writeBehind = new ChatTurnWriteBehind(recorder.service, cache, properties(10), objectMapper, registry);
+        writeBehind.start();
+        writeBehind.submit(turn(1));
+        writeBehind.submit(turn(2));
+        writeBehind.stop();
+
+        assertThat(recorder.batches).isEmpty();
+        assertThat(Files.readAllLines(dir.resolve("turns.ndjson"))).hasSize(2);
+
+        recorder.failing.set(false);
+        ChatTurnWriteBehind restarted = new ChatTurnWriteBehind(recorder.service, cache, properties(10), objectMapper, registry);
+        restarted.start();
+        restarted.stop();
+
+        assertThat(recorder.batches).hasSize(1);
+        assertThat(recorder.batches.get(0)).extracting(ChatTurn::sessionId).containsExactly(1L, 2L);
+        assertThat(recorder.batches.get(0).get(0).metadata()).containsEntry("model", "deepseek-r1");
+        assertThat(Files.list(dir)).isEmpty();
+    }
+
+    @Test
+    void retriesFailedBatchTurnByTurnAndDeadLettersBadTurns() throws Exception {
+        RecordingService recorder = new RecordingService();
+        recorder.poison.add(2L);
+        Files.write(dir.resolve("turns.ndjson"), List.of(
+                objectMapper.writeValueAsString(turn(1)),
+                objectMapper.writeValueAsString(turn(2)),
+                objectMapper.writeValueAsString(turn(3))));
+
+        ChatTurnWriteBehind writeBehind = new ChatTurnWriteBehind(recorder.service, cache, properties(10), objectMapper, registry);
+        writeBehind.start();
+        writeBehind.submit(turn(4));
+        writeBehind.submit(turn(2));
+        writeBehind.stop();
+
+        // 重放和落库都跳过坏数据继续写入，坏数据进入死信文件，不再留在溢出文件中
+        assertThat(recorder.batches.stream().flatMap(List::stream).map(ChatTurn::sessionId))
+                .containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(Files.readAllLines(dir.resolve("turns.dead.ndjson"))).hasSize(2);
+        assertThat(Files.exists(dir.resolve("turns.ndjson"))).isFalse();
+        assertThat(Files.exists(dir.resolve("turns.ndjson.replay"))).isFalse();
+        assertThat(registry.get("chat.persistence.dead_letters").counter().count()).isEqualTo(2);
+    }
+
+    private ChatPersistenceProperties properties(int batchSize) {
+        ChatPersistenceProperties properties = new ChatPersistenceProperties();
+        properties.setBatchSize(batchSize);
+        properties.setQueueCapacity(100);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        properties.setSpillFile(dir.resolve("turns.ndjson").toString());
+        properties.setDeadLetterFile(dir.resolve("turns.dead.ndjson").toString());
+        return properties;
+    }
+
+    private static ChatTurn turn(long sessionId) {
+        return new ChatTurn(sessionId, "问题" + sessionId, "回答" + sessionId,
+                Map.of("model", "deepseek-r1"), LocalDateTime.of(2026, 10, 18, 12, 0));
+    }
+
+    /**
+     * 记录 saveTurns 的调用；IChatMessageService 的其余方法由 mock 提供默认实现
+     */
+    private static class RecordingService {
+        final List<List<ChatTurn>> batches = new CopyOnWriteArrayList<>();
+        final AtomicBoolean failing = new AtomicBoolean();
+        final Set<Long> poison = ConcurrentHashMap.newKeySet();
+        final IChatMessageService service = mock(IChatMessageService.class);
+
+        RecordingService() {
+            when(service.saveTurns(anyList())).thenAnswer(invocation -> save(invocation.getArgument(0)));
+        }
+
+        private int save(List<ChatTurn> turns) {
+            if (failing.get()) {
+                throw new IllegalStateException("database unavailable");
+            }
+            if (turns.stream().anyMatch(turn -> poison.contains(turn.sessionId()))) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            batches.add(List.copyOf(turns));
+            return turns.size() * 2;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package top.hazenix.hazeaihub.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.hazenix.hazeaihub.entity.Attachment;
+import top.hazenix.hazeaihub.mapper.AttachmentMapper;
+import top.hazenix.hazeaihub.storage.LocalObjectStorage;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AttachmentServiceImplTest {
+
+    // sha256("hello")
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesContentUnderItsHash() throws Exception {
+        AttachmentMapper mapper = mock(AttachmentMapper.class);
+        AttachmentServiceImpl service = new AttachmentServiceImpl(mapper, new LocalObjectStorage(root.toString(), "http://localhost/files"));
+
+        Attachment attachment = service.upload(stream("hello"), "Greeting.TXT", "text/plain");
+
+        assertThat(attachment.getSha256()).isEqualTo(HELLO_SHA256);
+        assertThat(attachment.getFileSize()).isEqualTo(5);
+        assertThat(attachment.getStoragePath()).isEqualTo("http://localhost/files/files/" + HELLO_SHA256 + ".txt");
+        assertThat(Files.readString(root.resolve("files/" + HELLO_SHA256 + ".txt"))).isEqualTo("hello");
+        verify(mapper).insert(any(Attachment.class));
+    }
+
+    @Test
+    void skipsUploadWhenHashExists() {
+        AttachmentMapper mapper = mock(AttachmentMapper.class);
+        when(mapper.selectOneBySha256(anyString())).thenReturn(Attachment.builder().storagePath("http://cdn/existing.txt").build());
+        AttachmentServiceImpl service = new AttachmentServiceImpl(mapper, new LocalObjectStorage(root.toString(), "http://localhost/files"));
+
+        Attachment attachment = service.upload(stream("hello"), "copy.txt", null);
+
+        assertThat(attachment.getStoragePath()).isEqualTo("http://cdn/existing.txt");
+        assertThat(attachment.getMimeType()).isEqualTo("application/octet-stream");
+        assertThat(root.resolve("files")).doesNotExist();
+        verify(mapper, times(1)).insert(any(Attachment.class));
+    }
+
+    @Test
+    void lookupByHashOnlyReturnsCallersAttachments() {
+        AttachmentMapper mapper = mock(AttachmentMapper.class);
+        when(mapper.selectOneBySha256(anyString())).thenReturn(Attachment.builder().storagePath("http://cdn/other.txt").build());
+        AttachmentServiceImpl service = new AttachmentServiceImpl(mapper, new LocalObjectStorage(root.toString(), "http://localhost/files"));
+
+        // 其他用户上传过相同内容也不会返回其记录
+        assertThat(service.findBySha256(HELLO_SHA256.toUpperCase(), 1L)).isNull();
+        verify(mapper).selectOwnedBySha256(HELLO_SHA256, 1L);
+        verify(mapper, never()).selectOneBySha256(anyString());
+    }
+
+    @Test
+    void objectNameKeepsOnlySafeExtensions() {
+        assertThat(AttachmentServiceImpl.objectName("abc", "a.PDF")).isEqualTo("files/abc.pdf");
+        assertThat(AttachmentServiceImpl.objectName("abc", "noext")).isEqualTo("files/abc");
+        assertThat(AttachmentServiceImpl.objectName("abc", "x.../../etc")).isEqualTo("files/abc");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
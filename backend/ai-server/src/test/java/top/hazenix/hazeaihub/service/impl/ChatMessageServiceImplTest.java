@@ -0,0 +1,48 @@
+package top.hazenix.hazeaihub.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import top.hazenix.hazeaihub.mapper.ChatMessageMapper;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.persistence.ChatContextCache;
+import top.hazenix.hazeaihub.properties.ChatContextProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatMessageServiceImplTest {
+
+    private final ChatMessageMapper chatMessageMapper = mock(ChatMessageMapper.class);
+    private final ChatSessionMapper chatSessionMapper = mock(ChatSessionMapper.class);
+    private final ChatContextCache chatContextCache = mock(ChatContextCache.class);
+    private final ChatMessageServiceImpl service = new ChatMessageServiceImpl(
+            chatMessageMapper, chatSessionMapper, chatContextCache, new ChatContextProperties());
+
+    @Test
+    void refreshesPreviewAfterDeletingMessage() {
+        when(chatMessageMapper.softDelete(1L, 9L, 100L)).thenReturn(1);
+
+        assertThat(service.deleteMessage(1L, 9L, 100L)).isTrue();
+
+        // 删除之后再按剩余的消息计算预览，不再展示被删除消息的内容
+        InOrder order = inOrder(chatMessageMapper, chatSessionMapper, chatContextCache);
+        order.verify(chatMessageMapper).softDelete(1L, 9L, 100L);
+        order.verify(chatSessionMapper).refreshLastMessagePreview(9L);
+        order.verify(chatContextCache).invalidate(9L);
+    }
+
+    @Test
+    void leavesPreviewAloneWhenNothingDeleted() {
+        when(chatMessageMapper.softDelete(2L, 9L, 100L)).thenReturn(0);
+
+        assertThat(service.deleteMessage(2L, 9L, 100L)).isFalse();
+
+        verify(chatSessionMapper, never()).refreshLastMessagePreview(anyLong());
+        verify(chatContextCache, never()).invalidate(anyLong());
+    }
+}
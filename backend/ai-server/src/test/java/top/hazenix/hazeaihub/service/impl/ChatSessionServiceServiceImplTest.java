@@ -0,0 +1,96 @@
+package top.hazenix.hazeaihub.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import top.hazenix.hazeaihub.entity.ChatSession;
+import top.hazenix.hazeaihub.event.ChatSessionDeletedEvent;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.result.CursorPage;
+import top.hazenix.hazeaihub.vo.ChatSessionSummaryVO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ChatSessionServiceServiceImplTest {
+
+    private final ChatSessionMapper mapper = mock(ChatSessionMapper.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ChatSessionServiceServiceImpl service = new ChatSessionServiceServiceImpl(mapper, eventPublisher);
+
+    @Test
+    void returnsCursorOfLastRowWhenPageIsFull() {
+        LocalDateTime t1 = LocalDateTime.of(2026, 10, 18, 12, 0, 5);
+        LocalDateTime t2 = LocalDateTime.of(2026, 10, 18, 11, 0, 0);
+        when(mapper.selectPageByUserAndType(eq(1L), eq("chat"), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(session(9L, t1), session(7L, t2)));
+
+        CursorPage<Long> first = service.pageSessionIds(1L, "chat", null, 2);
+        assertThat(first.getRecords()).containsExactly(9L, 7L);
+        assertThat(first.getNextCursor()).isEqualTo(ChatSessionServiceServiceImpl.cursor(t2, 7L));
+
+        // 游标解码回上一页最后一条的 (last_active_at, id)
+        when(mapper.selectPageByUserAndType(1L, "chat", t2, 7L, 2)).thenReturn(List.of(session(3L, t2)));
+        CursorPage<Long> second = service.pageSessionIds(1L, "chat", first.getNextCursor(), 2);
+        assertThat(second.getRecords()).containsExactly(3L);
+        assertThat(second.getNextCursor()).isNull();
+        verify(mapper).selectPageByUserAndType(1L, "chat", t2, 7L, 2);
+    }
+
+    @Test
+    void clampsLimitAndRejectsMalformedCursor() {
+        service.pageSessionIds(1L, "chat", null, 10_000);
+        verify(mapper).selectPageByUserAndType(eq(1L), eq("chat"), isNull(), isNull(), eq(100));
+
+        assertThatThrownBy(() -> service.pageSessionIds(1L, "chat", "abc", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.pageSessionIds(1L, "chat", "1_x", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pagesSummariesWithSameCursorFormat() {
+        LocalDateTime t1 = LocalDateTime.of(2026, 10, 18, 12, 0, 5);
+        ChatSessionSummaryVO summary = ChatSessionSummaryVO.builder()
+                .id(9L).title("标题").groupId(2L).lastActiveAt(t1).lastMessagePreview("你好").build();
+        when(mapper.selectSummaryPageByUserAndType(eq(1L), eq("chat"), isNull(), isNull(), eq(1)))
+                .thenReturn(List.of(summary));
+
+        CursorPage<ChatSessionSummaryVO> page = service.pageSessionSummaries(1L, "chat", null, 1);
+        assertThat(page.getRecords()).containsExactly(summary);
+        assertThat(page.getNextCursor()).isEqualTo(ChatSessionServiceServiceImpl.cursor(t1, 9L));
+
+        service.pageSessionSummaries(1L, "chat", page.getNextCursor(), 1);
+        verify(mapper).selectSummaryPageByUserAndType(1L, "chat", t1, 9L, 1);
+    }
+
+    @Test
+    void publishesDeletedEventOnlyForSessionsActuallyDeleted() {
+        when(mapper.softDeleteByIdsAndUserId(1L, Set.of(3L, 4L))).thenReturn(List.of(3L));
+        assertThat(service.deleteSessions(1L, List.of(3L, 4L, 3L))).isEqualTo(1);
+        verify(eventPublisher).publishEvent(new ChatSessionDeletedEvent(List.of(3L)));
+
+        assertThat(service.deleteSessions(1L, List.of(9L))).isZero();
+        verifyNoMoreInteractions(eventPublisher);
+
+        // 参数错误抛出 IllegalArgumentException，由 Controller 返回 400
+        assertThatThrownBy(() -> service.deleteSessions(1L, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.deleteSessions(1L, List.of())).isInstanceOf(IllegalArgumentException.class);
+        List<Long> tooMany = LongStream.rangeClosed(1, 501).boxed().toList();
+        assertThatThrownBy(() -> service.deleteSessions(1L, tooMany)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ChatSession session(Long id, LocalDateTime lastActiveAt) {
+        return ChatSession.builder().id(id).lastActiveAt(lastActiveAt).build();
+    }
+}
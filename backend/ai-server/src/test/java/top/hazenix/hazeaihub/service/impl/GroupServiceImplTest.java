@@ -0,0 +1,81 @@
+package top.hazenix.hazeaihub.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.cache.GroupCache;
+import top.hazenix.hazeaihub.cache.LocalCacheInvalidationChannel;
+import top.hazenix.hazeaihub.context.BaseContext;
+import top.hazenix.hazeaihub.dto.GroupDTO;
+import top.hazenix.hazeaihub.dto.GroupSortDTO;
+import top.hazenix.hazeaihub.entity.Group;
+import top.hazenix.hazeaihub.mapper.ChatSessionMapper;
+import top.hazenix.hazeaihub.mapper.GroupMapper;
+import top.hazenix.hazeaihub.properties.GroupCacheProperties;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupServiceImplTest {
+
+    private final GroupMapper groupMapper = mock(GroupMapper.class);
+    private final ChatSessionMapper chatSessionMapper = mock(ChatSessionMapper.class);
+    private final GroupServiceImpl service = new GroupServiceImpl(groupMapper, chatSessionMapper,
+            new GroupCache(new GroupCacheProperties(), new LocalCacheInvalidationChannel(), new SimpleMeterRegistry()));
+
+    @BeforeEach
+    void login() {
+        BaseContext.setCurrentId(1L);
+    }
+
+    @AfterEach
+    void logout() {
+        BaseContext.removeCurrentId();
+    }
+
+    @Test
+    void missingOrForeignGroupFailsWithoutNullPointer() {
+        when(groupMapper.deleteByIdsAndUserId(1L, List.of(9L))).thenReturn(0);
+        assertThatThrownBy(() -> service.deleteGroup(9L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("无权限");
+
+        when(groupMapper.updateByIdAndUserId(1L, 9L, "a", 1)).thenReturn(0);
+        assertThatThrownBy(() -> service.updateGroup(9L, GroupDTO.builder().name("a").sort(1).build()))
+                .hasMessageContaining("无权限");
+    }
+
+    @Test
+    void sortDeduplicatesAndEvictsGroupList() {
+        when(groupMapper.selectList(any())).thenReturn(List.of(Group.builder().id(1L).userId(1L).build()));
+        service.queryGroup();
+        when(groupMapper.updateSorts(eq(1L), anyList())).thenReturn(2);
+
+        service.sortGroups(List.of(new GroupSortDTO(1L, 0), new GroupSortDTO(2L, 1), new GroupSortDTO(1L, 2)));
+        verify(groupMapper).updateSorts(1L, List.of(new GroupSortDTO(1L, 2), new GroupSortDTO(2L, 1)));
+
+        // 修改后重新从数据库加载
+        service.queryGroup();
+        verify(groupMapper, times(2)).selectList(any());
+    }
+
+    @Test
+    void bulkOperationsFailWhenAnyRowIsNotOwned() {
+        when(groupMapper.deleteByIdsAndUserId(1L, Set.of(1L, 2L))).thenReturn(1);
+        assertThatThrownBy(() -> service.deleteGroups(List.of(1L, 2L, 2L))).hasMessageContaining("无权限");
+
+        when(chatSessionMapper.moveToGroup(1L, 5L, Set.of(7L, 8L))).thenReturn(2);
+        service.moveSessions(5L, List.of(7L, 8L));
+        assertThatThrownBy(() -> service.moveSessions(6L, List.of(7L, 8L))).hasMessageContaining("无权限");
+    }
+}
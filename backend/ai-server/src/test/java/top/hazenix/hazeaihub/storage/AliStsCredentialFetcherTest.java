@@ -0,0 +1,83 @@
+package top.hazenix.hazeaihub.storage;
+
+import com.aliyuncs.DefaultAcsClient;
+import com.aliyuncs.profile.DefaultProfile;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.properties.AliOssProperties;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AliStsCredentialFetcherTest {
+
+    private static final String RESPONSE = """
+            {"RequestId":"stub","AssumedRoleUser":{"Arn":"acs:ram::1:role/upload/haze-7","AssumedRoleId":"1:haze-7"},
+             "Credentials":{"AccessKeyId":"STS.stub","AccessKeySecret":"stub-secret","SecurityToken":"stub-token",
+             "Expiration":"2026-10-18T10:15:00Z"}}
+            """;
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private DefaultAcsClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void assumesRoleAgainstStubEndpointAndCachesResult() throws Exception {
+        startStub();
+        AliOssProperties properties = new AliOssProperties();
+        properties.setRegion("cn-hangzhou");
+        properties.setAccessKeyId("ak");
+        properties.setAccessKeySecret("sk");
+        properties.setBucketName("haze-bucket");
+        properties.setRoleArn("acs:ram::1:role/upload");
+        properties.setRoleSessionName("haze");
+        properties.setStsEndpoint("http://localhost:" + server.getAddress().getPort());
+        client = new DefaultAcsClient(DefaultProfile.getProfile(properties.getRegion(), "ak", "sk"));
+        StsCredentialCache cache = new StsCredentialCache(new AliStsCredentialFetcher(client, properties), properties);
+
+        try {
+            StsCredentials credentials = cache.get(7L);
+            assertThat(cache.get(7L)).isSameAs(credentials);
+
+            assertThat(credentials.accessKeyId()).isEqualTo("STS.stub");
+            assertThat(credentials.securityToken()).isEqualTo("stub-token");
+            assertThat(credentials.expiration()).isEqualTo(Instant.parse("2026-10-18T10:15:00Z"));
+            assertThat(queries).hasSize(1);
+            assertThat(queries.get(0)).contains("Action=AssumeRole", "RoleSessionName=haze-7", "DurationSeconds=900",
+                    "acs:oss:*:*:haze-bucket/music/7/*");
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    private void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            queries.add(URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8));
+            byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+}
@@ -0,0 +1,45 @@
+package top.hazenix.hazeaihub.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalObjectStorageTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesStreamAndFileUploads() throws Exception {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files/");
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+
+        String url = storage.upload("/files/a.txt", new ByteArrayInputStream(content), -1, "text/plain");
+
+        assertThat(url).isEqualTo("http://localhost:8080/files/files/a.txt");
+        assertThat(storage.exists("files/a.txt")).isTrue();
+        assertThat(Files.readAllBytes(root.resolve("files/a.txt"))).isEqualTo(content);
+
+        Path source = Files.writeString(root.resolve("source.txt"), "world");
+        storage.upload("files/b.txt", source, null);
+        assertThat(Files.readString(root.resolve("files/b.txt"))).isEqualTo("world");
+        // 临时文件已被重命名，目录里只有目标文件
+        try (var files = Files.list(root.resolve("files"))) {
+            assertThat(files).hasSize(2);
+        }
+    }
+
+    @Test
+    void rejectsObjectNamesOutsideRoot() {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+
+        assertThatThrownBy(() -> storage.exists("../escape.txt")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
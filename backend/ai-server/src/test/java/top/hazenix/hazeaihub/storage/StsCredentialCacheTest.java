@@ -0,0 +1,131 @@
+package top.hazenix.hazeaihub.storage;
+
+import com.aliyuncs.exceptions.ClientException;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.properties.AliOssProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StsCredentialCacheTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toMillis(15);
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final Queue<Runnable> refreshTasks = new ArrayDeque<>();
+
+    @Test
+    void servesCachedCredentialsUntilRefreshWindow() throws Exception {
+        StsCredentialCache cache = cache(userId -> credentials(userId));
+
+        StsCredentials first = cache.get(1L);
+        now.addAndGet(TimeUnit.MINUTES.toMillis(10));
+        assertThat(cache.get(1L)).isSameAs(first);
+        assertThat(cache.get(2L)).isNotSameAs(first);
+        assertThat(fetches).hasValue(2);
+        assertThat(refreshTasks).isEmpty();
+    }
+
+    @Test
+    void refreshesInBackgroundBeforeExpiry() throws Exception {
+        StsCredentialCache cache = cache(userId -> credentials(userId));
+        StsCredentials first = cache.get(1L);
+
+        // 进入刷新窗口（到期前 3 分钟 + 最多 1 分钟抖动）：仍返回当前凭证，只提交一次后台刷新
+        now.addAndGet(TTL - TimeUnit.MINUTES.toMillis(2));
+        assertThat(cache.get(1L)).isSameAs(first);
+        assertThat(cache.get(1L)).isSameAs(first);
+        assertThat(refreshTasks).hasSize(1);
+        assertThat(fetches).hasValue(1);
+
+        refreshTasks.poll().run();
+        StsCredentials refreshed = cache.get(1L);
+        assertThat(refreshed).isNotSameAs(first);
+        assertThat(refreshed.expiration()).isAfter(first.expiration());
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void keepsCurrentCredentialsWhenRefreshFails() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        StsCredentialCache cache = cache(userId -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new ClientException("SDK.ServerUnreachable", "sts down");
+            }
+            return credentials(userId);
+        });
+        StsCredentials first = cache.get(1L);
+
+        now.addAndGet(TTL - TimeUnit.MINUTES.toMillis(2));
+        cache.get(1L);
+        refreshTasks.poll().run();
+        // 失败后等待 RETRY_DELAY_MILLIS 再重试
+        assertThat(cache.get(1L)).isSameAs(first);
+        assertThat(refreshTasks).isEmpty();
+        now.addAndGet(StsCredentialCache.RETRY_DELAY_MILLIS);
+        cache.get(1L);
+        assertThat(refreshTasks).hasSize(1);
+
+        // 剩余有效期不足时同步申请，失败直接抛给调用方
+        now.set(first.expiration().toEpochMilli() - StsCredentialCache.MIN_REMAINING_MILLIS + 1);
+        assertThatThrownBy(() -> cache.get(1L)).isInstanceOf(ClientException.class);
+    }
+
+    @Test
+    void coalescesConcurrentFetchesForSameUser() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StsCredentialCache cache = cache(userId -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return credentials(userId);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(() -> cache.get(1L));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(fetches).hasValue(1);
+    }
+
+    private StsCredentialCache cache(StsCredentialFetcher fetcher) {
+        AliOssProperties properties = new AliOssProperties();
+        properties.setStsRefreshBefore(Duration.ofMinutes(3));
+        properties.setStsRefreshJitter(Duration.ofMinutes(1));
+        StsCredentialFetcher counting = userId -> {
+            fetches.incrementAndGet();
+            return fetcher.fetch(userId);
+        };
+        return new StsCredentialCache(counting, properties, refreshTasks::add, now::get);
+    }
+
+    private StsCredentials credentials(Long userId) {
+        return new StsCredentials("STS." + userId + "." + fetches.get(), "secret", "token",
+                Instant.ofEpochMilli(now.get() + TTL));
+    }
+}
@@ -0,0 +1,49 @@
+package top.hazenix.hazeaihub.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatDeltaExtractorTest {
+
+    private final ChatDeltaExtractor extractor = new ChatDeltaExtractor(new ObjectMapper());
+
+    @Test
+    void extractsReasoningContent() {
+        ChatDelta delta = extract("{\"choices\":[{\"delta\":{\"content\":null,\"reasoning_content\":\"首先\"},"
+                + "\"finish_reason\":null,\"index\":0}],\"usage\":null,\"model\":\"deepseek-r1\"}");
+        assertThat(delta).isEqualTo(new ChatDelta(null, "首先", null, null, null));
+        assertThat(delta.thinking()).isEqualTo("首先");
+    }
+
+    @Test
+    void onlyReadsFirstChoiceAndSkipsUnknownFields() {
+        ChatDelta delta = extract("{\"id\":\"x\",\"choices\":[{\"delta\":{\"content\":\"hi\",\"tool_calls\":[{\"a\":{}}]}},"
+                + "{\"delta\":{\"content\":\"second\"}}],\"object\":\"chat.completion.chunk\"}");
+        assertThat(delta).isEqualTo(new ChatDelta("hi", null, null, null, null));
+    }
+
+    @Test
+    void extractsFinishReasonAndUsage() {
+        assertThat(extract("{\"choices\":[{\"finish_reason\":\"stop\",\"delta\":{\"content\":\"\"}}]}"))
+                .isEqualTo(new ChatDelta(null, null, null, "stop", null));
+        assertThat(extract("{\"choices\":[],\"usage\":{\"prompt_tokens\":58,\"completion_tokens\":412,"
+                + "\"total_tokens\":470,\"completion_tokens_details\":{\"reasoning_tokens\":196}}}").usage())
+                .isEqualTo(new ChatDelta.Usage(58, 412, 470));
+    }
+
+    @Test
+    void returnsNullForEmptyOrInvalidPayload() {
+        assertThat(extract("{\"choices\":[{\"delta\":{}}]}")).isNull();
+        assertThat(extract("{\"choices\":[]}")).isNull();
+        assertThat(extract("not json")).isNull();
+    }
+
+    private ChatDelta extract(String json) {
+        byte[] bytes = ("  " + json).getBytes(StandardCharsets.UTF_8);
+        return extractor.extract(bytes, 2, bytes.length - 2);
+    }
+}
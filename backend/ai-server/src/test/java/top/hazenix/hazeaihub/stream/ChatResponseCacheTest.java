@@ -0,0 +1,96 @@
+package top.hazenix.hazeaihub.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import top.hazenix.hazeaihub.properties.ResponseCacheProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatResponseCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void keyNormalizesPromptAndIgnoresBudgetWithoutThinking() {
+        List<Map<String, String>> context = List.of(Map.of("role", "user", "content", "q1"),
+                Map.of("role", "assistant", "content", "a1"));
+
+        assertThat(ChatResponseCache.key(messages(context, "  如何 \n 退款？ "), "m", true, 100))
+                .isEqualTo(ChatResponseCache.key(messages(context, "如何 退款?"), "m", true, 100));
+        assertThat(ChatResponseCache.key(messages(List.of(), "如何退款"), "m", false, 100))
+                .isEqualTo(ChatResponseCache.key(messages(List.of(), "如何退款"), "m", null, null));
+        assertThat(ChatResponseCache.key(messages(context, "如何退款"), "m", false, null))
+                .isNotEqualTo(ChatResponseCache.key(messages(List.of(), "如何退款"), "m", false, null));
+        assertThat(ChatResponseCache.key(messages(List.of(), "如何退款"), "m", true, 100))
+                .isNotEqualTo(ChatResponseCache.key(messages(List.of(), "如何退款"), "m", true, 200));
+    }
+
+    @Test
+    void concurrentRequestsShareOneUpstreamCallAndLateJoinersReplay() {
+        ChatResponseCache cache = new ChatResponseCache(enabled(), registry);
+        ChatResponseCache.Key key = ChatResponseCache.key(messages(List.of(), "你好"), "m", false, null);
+        Sinks.Many<StreamEvent> upstream = Sinks.many().unicast().onBackpressureBuffer();
+
+        List<StreamEvent> first = new CopyOnWriteArrayList<>();
+        cache.get(key, () -> upstream(upstream.asFlux())).subscribe(first::add);
+        upstream.tryEmitNext(new StreamEvent.Answer("你"));
+
+        List<StreamEvent> second = new CopyOnWriteArrayList<>();
+        cache.get(key, () -> upstream(Flux.error(new IllegalStateException("不应调用")))).subscribe(second::add);
+        upstream.tryEmitNext(new StreamEvent.Answer("好"));
+        upstream.tryEmitNext(new StreamEvent.Done("stop"));
+        upstream.tryEmitComplete();
+
+        List<StreamEvent> expected = List.of(new StreamEvent.Answer("你"), new StreamEvent.Answer("好"),
+                new StreamEvent.Done("stop"));
+        assertThat(first).isEqualTo(expected);
+        assertThat(second).isEqualTo(expected);
+        assertThat(registry.get("chat.response.coalesced").counter().count()).isEqualTo(1);
+
+        // 完成后命中缓存，按原来的分片重放
+        assertThat(cache.get(key, () -> upstream(Flux.empty())).collectList().block()).isEqualTo(expected);
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void failedResponsesAreNotCached() {
+        ChatResponseCache cache = new ChatResponseCache(enabled(), registry);
+        ChatResponseCache.Key key = ChatResponseCache.key(messages(List.of(), "你好"), "m", false, null);
+
+        Flux<StreamEvent> failed = cache.get(key, () -> upstream(
+                Flux.concat(Flux.just(new StreamEvent.Answer("你")), Flux.error(new IllegalStateException("boom")))));
+        assertThat(failed.onErrorResume(e -> Flux.empty()).collectList().block()).hasSize(1);
+
+        assertThat(cache.get(key, () -> upstream(Flux.just(new StreamEvent.Answer("好")))).collectList().block())
+                .containsExactly(new StreamEvent.Answer("好"));
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private Flux<StreamEvent> upstream(Flux<StreamEvent> events) {
+        return Flux.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return events;
+        });
+    }
+
+    private static List<Map<String, String>> messages(List<Map<String, String>> context, String prompt) {
+        List<Map<String, String>> messages = new ArrayList<>(context);
+        messages.add(Map.of("role", "user", "content", prompt));
+        return messages;
+    }
+
+    private static ResponseCacheProperties enabled() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(true);
+        return properties;
+    }
+}
@@ -0,0 +1,153 @@
+package top.hazenix.hazeaihub.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SseEventDecoderTest {
+
+    private static final String STREAM = ""
+            + "data: {\"choices\":[{\"delta\":{\"reasoning_content\":\"首先分析问题\"}}]}\n\n"
+            + ": keep-alive\n\n"
+            + "data: {\"choices\":[{\"delta\":{\"content\":\"根据分析，答案是🙂\"}}]}\r\n\r\n"
+            + "event: message\n"
+            + "id: 3\n"
+            + "data:{\"choices\":[{\"delta\":{\"content\":\"无空格\"}}]}\n\n"
+            + "data: [DONE]\n\n";
+
+    private static final List<String> EXPECTED = List.of(
+            "{\"choices\":[{\"delta\":{\"reasoning_content\":\"首先分析问题\"}}]}",
+            "{\"choices\":[{\"delta\":{\"content\":\"根据分析，答案是🙂\"}}]}",
+            "{\"choices\":[{\"delta\":{\"content\":\"无空格\"}}]}",
+            "[DONE]");
+
+    @Test
+    void decodesWholeStreamInOneBuffer() {
+        assertThat(decode(bytes(STREAM), STREAM.getBytes(StandardCharsets.UTF_8).length)).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void decodesOneByteAtATime() {
+        assertThat(decode(bytes(STREAM), 1)).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void decodesEverySplitPoint() {
+        byte[] source = bytes(STREAM);
+        for (int split = 0; split <= source.length; split++) {
+            SseEventDecoder decoder = new SseEventDecoder();
+            List<String> events = new ArrayList<>();
+            decoder.decode(wrap(Arrays.copyOfRange(source, 0, split)), collector(events));
+            decoder.decode(wrap(Arrays.copyOfRange(source, split, source.length)), collector(events));
+            decoder.flush(collector(events));
+            assertThat(events).as("split at %d", split).isEqualTo(EXPECTED);
+        }
+    }
+
+    @Test
+    void decodesRandomFragmentation() {
+        byte[] source = bytes(STREAM.repeat(20));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expected.addAll(EXPECTED);
+        }
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            SseEventDecoder decoder = new SseEventDecoder();
+            List<String> events = new ArrayList<>();
+            int index = 0;
+            while (index < source.length) {
+                int length = Math.min(source.length - index, random.nextInt(17));
+                decoder.decode(wrap(Arrays.copyOfRange(source, index, index + length)), collector(events));
+                index += length;
+            }
+            decoder.flush(collector(events));
+            assertThat(events).as("seed %d", seed).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void crlfSplitBetweenBuffers() {
+        SseEventDecoder decoder = new SseEventDecoder();
+        List<String> events = new ArrayList<>();
+        decoder.decode(wrap(bytes("data: a\r")), collector(events));
+        decoder.decode(wrap(bytes("\n\r")), collector(events));
+        assertThat(events).isEmpty();
+        decoder.decode(wrap(bytes("\ndata: b\r\n\r\n")), collector(events));
+        assertThat(events).containsExactly("a", "b");
+    }
+
+    @Test
+    void joinsMultiLineDataWithNewline() {
+        assertThat(decode(bytes("data: line1\ndata: line2\ndata:\n\n"), 3))
+                .containsExactly("line1\nline2\n");
+    }
+
+    @Test
+    void flushesTrailingEventWithoutBlankLine() {
+        assertThat(decode(bytes("data: a\n\ndata: tail"), 4)).containsExactly("a", "tail");
+        assertThat(decode(bytes("data: a\n\ndata: tail\n"), 4)).containsExactly("a", "tail");
+    }
+
+    @Test
+    void ignoresEventsWithoutData() {
+        assertThat(decode(bytes("event: ping\n\n: comment\n\nretry: 10\n\n"), 5)).isEmpty();
+    }
+
+    @Test
+    void rejectsOversizedEvent() {
+        SseEventDecoder decoder = new SseEventDecoder(64);
+        assertThatThrownBy(() -> decoder.decode(wrap(bytes("data: " + "x".repeat(100))), collector(new ArrayList<>())))
+                .isInstanceOf(DataBufferLimitException.class);
+    }
+
+    @Test
+    void decodeStreamMapsAndSkipsNulls() {
+        byte[] source = bytes(STREAM);
+        List<byte[]> chunks = new ArrayList<>();
+        for (int i = 0; i < source.length; i += 7) {
+            chunks.add(Arrays.copyOfRange(source, i, Math.min(source.length, i + 7)));
+        }
+        // 读取会移动 DataBuffer 的读位置，每次订阅重新包装
+        Flux<DataBuffer> body = Flux.defer(() -> Flux.fromIterable(chunks).map(SseEventDecoderTest::wrap));
+        Flux<String> payloads = SseEventDecoder.decodeStream(body, (buf, off, len) ->
+                SseEventDecoder.isDone(buf, off, len) ? null : new String(buf, off, len, StandardCharsets.UTF_8));
+
+        assertThat(payloads.collectList().block()).isEqualTo(EXPECTED.subList(0, 3));
+        // 每次订阅使用独立的解码器
+        assertThat(payloads.collectList().block()).isEqualTo(EXPECTED.subList(0, 3));
+    }
+
+    private static List<String> decode(byte[] source, int chunkSize) {
+        SseEventDecoder decoder = new SseEventDecoder();
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < source.length; i += chunkSize) {
+            decoder.decode(wrap(Arrays.copyOfRange(source, i, Math.min(source.length, i + chunkSize))), collector(events));
+        }
+        decoder.flush(collector(events));
+        return events;
+    }
+
+    private static SseEventDecoder.PayloadHandler collector(List<String> events) {
+        return (buf, offset, length) -> events.add(new String(buf, offset, length, StandardCharsets.UTF_8));
+    }
+
+    private static DataBuffer wrap(byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
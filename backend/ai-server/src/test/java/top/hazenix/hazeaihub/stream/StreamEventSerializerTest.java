@@ -0,0 +1,56 @@
+package top.hazenix.hazeaihub.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamEventSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesSameShapeAsLegacyMap() throws Exception {
+        assertThat(objectMapper.writeValueAsString(new StreamEvent.Thinking("首先\"分析\"")))
+                .isEqualTo("{\"type\":\"thinking\",\"content\":\"首先\\\"分析\\\"\"}");
+        assertThat(objectMapper.writeValueAsString(new StreamEvent.Answer("hi")))
+                .isEqualTo("{\"type\":\"answer\",\"content\":\"hi\"}");
+    }
+
+    @Test
+    void writesUsageErrorAndDone() throws Exception {
+        assertThat(objectMapper.writeValueAsString(new StreamEvent.Usage(58, 412, 470)))
+                .isEqualTo("{\"type\":\"usage\",\"prompt_tokens\":58,\"completion_tokens\":412,\"total_tokens\":470}");
+        assertThat(objectMapper.writeValueAsString(new StreamEvent.Error("失败")))
+                .isEqualTo("{\"type\":\"error\",\"message\":\"失败\"}");
+        assertThat(objectMapper.writeValueAsString(new StreamEvent.Done("stop")))
+                .isEqualTo("{\"type\":\"done\",\"finish_reason\":\"stop\"}");
+    }
+
+    @Test
+    void mapsEveryFieldOfDelta() {
+        assertThat(StreamEvent.from(new ChatDelta(null, null, "r", null, null))).containsExactly(new StreamEvent.Thinking("r"));
+        assertThat(StreamEvent.from(new ChatDelta(null, null, null, "stop", null))).containsExactly(new StreamEvent.Done("stop"));
+        assertThat(StreamEvent.from(new ChatDelta(null, null, null, null, new ChatDelta.Usage(1, 2, 3))))
+                .containsExactly(new StreamEvent.Usage(1, 2, 3));
+        assertThat(StreamEvent.from(new ChatDelta(null, null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void keepsDoneAndUsageOfCombinedChunk() {
+        // 部分上游把最后一段回答、finish_reason 和 usage 放在同一个 chunk 里
+        assertThat(StreamEvent.from(new ChatDelta("a", "t", null, "stop", new ChatDelta.Usage(1, 2, 3))))
+                .containsExactly(new StreamEvent.Thinking("t"), new StreamEvent.Answer("a"),
+                        new StreamEvent.Usage(1, 2, 3), new StreamEvent.Done("stop"));
+    }
+
+    @Test
+    void framesThinkingAsText() {
+        ThinkingTextFramer framer = new ThinkingTextFramer();
+        assertThat(framer.frame(new StreamEvent.Thinking("a"))).isEqualTo("<think>a");
+        assertThat(framer.frame(new StreamEvent.Thinking("b"))).isEqualTo("b");
+        assertThat(framer.frame(new StreamEvent.Answer("c"))).isEqualTo("</think>c");
+        assertThat(framer.frame(new StreamEvent.Done("stop"))).isEmpty();
+        assertThat(framer.frame(new StreamEvent.Error("x"))).isEqualTo("[ERROR]x[/ERROR]");
+    }
+}
@@ -0,0 +1,42 @@
+package top.hazenix.hazeaihub.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.SignalType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StreamMetrics metrics = new StreamMetrics(registry);
+
+    @Test
+    void recordsFirstTokensGapsAndUsage() {
+        StreamMetrics.Recorder recorder = metrics.start("deepseek-r1", "chat-with-thinking");
+        recorder.onEvent(new StreamEvent.Thinking("思"));
+        recorder.onEvent(new StreamEvent.Thinking("考"));
+        recorder.onEvent(new StreamEvent.Answer("答"));
+        recorder.onEvent(new StreamEvent.Done("stop"));
+        recorder.onEvent(new StreamEvent.Usage(10, 3, 13));
+        recorder.finish(SignalType.ON_COMPLETE);
+
+        assertThat(registry.get("ai.stream.first.token").tag("type", "thinking").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ai.stream.first.token").tag("type", "answer").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ai.stream.chunk.gap").tag("model", "deepseek-r1").timer().count()).isEqualTo(2);
+        assertThat(registry.get("ai.stream.duration").tag("outcome", "complete").timer().count()).isEqualTo(1);
+        assertThat(registry.get("ai.stream.tokens").tag("type", "prompt").counter().count()).isEqualTo(10);
+        assertThat(registry.get("ai.stream.tokens").tag("type", "completion").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void reusesMetersAndTagsOutcome() {
+        metrics.start("deepseek-r1", null).finish(SignalType.ON_ERROR);
+        metrics.start("deepseek-r1", null).finish(SignalType.CANCEL);
+
+        assertThat(registry.get("ai.stream.duration").tag("endpoint", "unknown").tag("outcome", "error").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("ai.stream.duration").tag("outcome", "cancel").timer().count()).isEqualTo(1);
+        assertThat(registry.find("ai.stream.tokens.per.second").summary().count()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package top.hazenix.hazeaihub.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.hazenix.hazeaihub.properties.HttpClientProperties;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpClientUtilTest {
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final ExecutorService serverExecutor = Executors.newFixedThreadPool(8);
+    private HttpServer server;
+    private String baseUrl;
+    private HttpClientUtil httpClientUtil;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] body = (exchange.getRequestURI().getQuery() + "|" + requestBody).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getMaxPerRoute().put(baseUrl, 2);
+        properties.setMaxResponseBytes(64);
+        httpClientUtil = new HttpClientUtil(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClientUtil.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void sendsFormJsonAndQueryParameters() throws IOException {
+        assertThat(httpClientUtil.doGet(baseUrl + "/get", Map.of("q", "你好"))).isEqualTo("q=你好|");
+        assertThat(httpClientUtil.doPost(baseUrl + "/form", Map.of("a", "1"))).isEqualTo("null|a=1");
+        assertThat(httpClientUtil.doPost4Json(baseUrl + "/json", Map.of("a", "1"))).isEqualTo("null|{\"a\":\"1\"}");
+    }
+
+    @Test
+    void reusesPooledConnectionsWithinRouteLimit() throws Exception {
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(httpClientUtil.doGetAsync(baseUrl + "/get", Map.of("i", String.valueOf(i))));
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            assertThat(responses.get(i).get()).isEqualTo("i=" + i + "|");
+        }
+
+        // 20 个请求最多建立路由上限的 2 个连接，完成后全部回到连接池
+        assertThat(clientPorts).hasSizeLessThanOrEqualTo(2);
+        assertThat(httpClientUtil.getRouteStats()).containsOnlyKeys(baseUrl);
+        assertThat(httpClientUtil.getRouteStats().get(baseUrl).getMax()).isEqualTo(2);
+        assertThat(httpClientUtil.getTotalStats().getLeased()).isZero();
+        assertThat(httpClientUtil.getTotalStats().getAvailable()).isEqualTo(clientPorts.size());
+    }
+
+    @Test
+    void rejectsResponsesOverLimit() {
+        assertThatThrownBy(() -> httpClientUtil.doPost(baseUrl + "/form", Map.of("a", "x".repeat(100))))
+                .isInstanceOf(IOException.class);
+        assertThat(httpClientUtil.getTotalStats().getLeased()).isZero();
+    }
+}